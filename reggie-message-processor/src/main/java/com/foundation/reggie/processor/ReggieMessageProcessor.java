@@ -0,0 +1,99 @@
+package com.foundation.reggie.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Writes every {@code @ReggieMessage} class to {@value #INDEX_LOCATION} as {@code name=binary.class.Name} lines.
+ */
+@SupportedAnnotationTypes(ReggieMessageProcessor.ANNOTATION)
+public class ReggieMessageProcessor extends AbstractProcessor {
+    static final String ANNOTATION = "com.foundation.reggie.registry.ReggieMessage";
+    static final String INDEX_LOCATION = "META-INF/reggie/messages.properties";
+
+    private final Map<String, String> index = new TreeMap<>();
+    private final List<Element> originatingElements = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.RECORD) {
+                    error(element, "@ReggieMessage is only supported on classes and records");
+                    continue;
+                }
+                TypeElement type = (TypeElement) element;
+                String name = messageName(type);
+                String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+                String existing = index.putIfAbsent(name, className);
+                if (existing != null && !existing.equals(className)) {
+                    error(element, "Duplicate @ReggieMessage name '" + name + "', already used by " + existing);
+                    continue;
+                }
+                originatingElements.add(element);
+            }
+        }
+        if (roundEnv.processingOver() && !index.isEmpty()) {
+            writeIndex();
+        }
+        return true;
+    }
+
+    private String messageName(TypeElement type) {
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            if (!mirror.getAnnotationType().toString().equals(ANNOTATION)) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                    : mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("value")) {
+                    String value = (String) entry.getValue().getValue();
+                    if (!value.isBlank()) {
+                        return value;
+                    }
+                }
+            }
+        }
+        return type.getSimpleName().toString();
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    INDEX_LOCATION, originatingElements.toArray(Element[]::new));
+            try (PrintWriter writer = new PrintWriter(file.openWriter())) {
+                index.forEach((name, className) -> writer.println(name + "=" + className));
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write " + INDEX_LOCATION + ": " + e.getMessage());
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
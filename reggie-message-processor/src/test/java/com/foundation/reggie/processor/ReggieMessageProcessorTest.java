@@ -0,0 +1,124 @@
+package com.foundation.reggie.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReggieMessageProcessorTest {
+    private static final String ANNOTATION_SOURCE = """
+            package com.foundation.reggie.registry;
+
+            public @interface ReggieMessage {
+                String value() default "";
+
+                boolean strict() default false;
+            }
+            """;
+
+    @TempDir
+    Path classOutput;
+
+    @Test
+    void indexesAnnotatedTypesByNameOrSimpleName() throws IOException {
+        DiagnosticCollector<JavaFileObject> diagnostics = compile(
+                source("com.example.OrderCreated", """
+                        package com.example;
+
+                        @com.foundation.reggie.registry.ReggieMessage("order.created")
+                        public class OrderCreated {
+                            public static class Line {
+                            }
+                        }
+                        """),
+                source("com.example.Shipped", """
+                        package com.example;
+
+                        @com.foundation.reggie.registry.ReggieMessage
+                        public record Shipped(String orderId) {
+                        }
+                        """),
+                source("com.example.Holder", """
+                        package com.example;
+
+                        public class Holder {
+                            @com.foundation.reggie.registry.ReggieMessage(strict = true)
+                            public static class Nested {
+                            }
+                        }
+                        """));
+
+        assertThat(diagnostics.getDiagnostics()).noneMatch(d -> d.getKind() == Diagnostic.Kind.ERROR);
+        assertThat(Files.readAllLines(classOutput.resolve(ReggieMessageProcessor.INDEX_LOCATION))).containsExactly(
+                "Nested=com.example.Holder$Nested",
+                "Shipped=com.example.Shipped",
+                "order.created=com.example.OrderCreated");
+    }
+
+    @Test
+    void rejectsDuplicateNamesAndNonClasses() {
+        DiagnosticCollector<JavaFileObject> diagnostics = compile(
+                source("com.example.First", """
+                        package com.example;
+
+                        @com.foundation.reggie.registry.ReggieMessage("Order")
+                        public class First {
+                        }
+                        """),
+                source("com.example.Second", """
+                        package com.example;
+
+                        @com.foundation.reggie.registry.ReggieMessage("Order")
+                        public class Second {
+                        }
+                        """),
+                source("com.example.Marker", """
+                        package com.example;
+
+                        @com.foundation.reggie.registry.ReggieMessage
+                        public interface Marker {
+                        }
+                        """));
+
+        assertThat(diagnostics.getDiagnostics())
+                .filteredOn(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                .extracting(d -> d.getMessage(null))
+                .anyMatch(message -> message.contains("Duplicate @ReggieMessage name 'Order'"))
+                .anyMatch(message -> message.contains("only supported on classes and records"));
+    }
+
+    private DiagnosticCollector<JavaFileObject> compile(JavaFileObject... sources) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        List<JavaFileObject> units = new ArrayList<>(List.of(sources));
+        units.add(source("com.foundation.reggie.registry.ReggieMessage", ANNOTATION_SOURCE));
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics,
+                List.of("-d", classOutput.toString(), "-proc:only"), null, units);
+        task.setProcessors(List.of(new ReggieMessageProcessor()));
+        task.call();
+        return diagnostics;
+    }
+
+    private static JavaFileObject source(String className, String code) {
+        URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}
@@ -59,6 +59,19 @@ export async function postMessage(
   }
 }
 
+/**
+ * Streamed listings end with {"failedBlobs": [...]} when some stored objects could not be read.
+ */
+async function readListing<T>(response: Response): Promise<T[]> {
+  const items: (T | { failedBlobs: string[] })[] = await response.json();
+  const last = items[items.length - 1];
+  if (last && typeof last === "object" && "failedBlobs" in last) {
+    console.warn("Some stored objects could not be read:", last.failedBlobs);
+    return items.slice(0, -1) as T[];
+  }
+  return items as T[];
+}
+
 export function sleep(ms: number): Promise<void> {
   return new Promise((resolve) => setTimeout(resolve, ms));
 }
@@ -90,7 +103,7 @@ export async function getAllMessageSamples(): Promise<MessageSample[]> {
   if (!response.ok) {
     throw new Error(`Failed to fetch message samples: ${response.statusText}`);
   }
-  return response.json();
+  return readListing<MessageSample>(response);
 }
 
 export async function upsertMessageSample(
@@ -139,7 +152,7 @@ export async function getUserScenarios(userId: string): Promise<Scenario[]> {
   if (!response.ok) {
     throw new Error(`Failed to fetch scenarios: ${response.statusText}`);
   }
-  return response.json();
+  return readListing<Scenario>(response);
 }
 
 export async function upsertUserScenario(userId: string, scenario: Scenario): Promise<Scenario> {
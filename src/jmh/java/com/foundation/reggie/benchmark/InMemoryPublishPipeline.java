@@ -0,0 +1,53 @@
+package com.foundation.reggie.benchmark;
+
+import com.foundation.reggie.config.PayloadEncodingProperties;
+import com.foundation.reggie.config.PublishLimitProperties;
+import com.foundation.reggie.message.OrderCreated;
+import com.foundation.reggie.registry.MessageRegistry;
+import com.foundation.reggie.service.MessagePublishService;
+import com.foundation.reggie.service.PubSubPublisher;
+import com.foundation.reggie.service.PublishLedger;
+import com.foundation.reggie.service.PublishLimiter;
+import com.foundation.reggie.service.PublishMetrics;
+import com.foundation.reggie.transport.InMemoryTransport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+
+/**
+ * The production publish pipeline with default settings, ending in an inline-acknowledging
+ * {@link InMemoryTransport} instead of the network.
+ */
+@State(Scope.Benchmark)
+public class InMemoryPublishPipeline {
+    public ObjectMapper objectMapper;
+    public MessageRegistry messageRegistry;
+    public MessagePublishService publishService;
+    private InMemoryTransport transport;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        objectMapper = JsonMapper.builder().build();
+        messageRegistry = new MessageRegistry(objectMapper);
+        messageRegistry.register("OrderCreated", OrderCreated.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        transport = new InMemoryTransport(Duration.ZERO, Duration.ZERO, 0.0);
+        PublishMetrics publishMetrics = new PublishMetrics(meterRegistry, 1000);
+        PubSubPublisher pubSubPublisher = new PubSubPublisher(transport, publishMetrics,
+                new PublishLimiter(new PublishLimitProperties(), meterRegistry), meterRegistry);
+        publishService = new MessagePublishService(messageRegistry, pubSubPublisher, publishMetrics,
+                new PayloadEncodingProperties(), new PublishLedger(100_000, false));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        transport.shutdown();
+    }
+}
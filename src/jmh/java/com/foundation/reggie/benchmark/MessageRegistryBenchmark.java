@@ -0,0 +1,64 @@
+package com.foundation.reggie.benchmark;
+
+import com.foundation.reggie.message.OrderCreated;
+import com.foundation.reggie.registry.MessageRegistry;
+import com.foundation.reggie.registry.MessageTypeOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MessageRegistry#deserialize} from a request tree and from raw bytes, with
+ * default and strict type options.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageRegistryBenchmark {
+    private static final String JSON = "{\"orderId\":\"123\",\"customerId\":\"456\",\"amount\":99.99}";
+
+    private MessageRegistry messageRegistry;
+    private JsonNode tree;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = JsonMapper.builder().build();
+        messageRegistry = new MessageRegistry(objectMapper);
+        messageRegistry.register("OrderCreated", OrderCreated.class);
+        messageRegistry.register("StrictOrderCreated", OrderCreated.class, MessageTypeOptions.strict());
+        tree = objectMapper.readTree(JSON);
+        bytes = JSON.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object deserializeTree() {
+        return messageRegistry.deserialize("OrderCreated", tree);
+    }
+
+    @Benchmark
+    public Object deserializeBytes() {
+        return messageRegistry.deserialize("OrderCreated", bytes);
+    }
+
+    @Benchmark
+    public Object deserializeTreeStrict() {
+        return messageRegistry.deserialize("StrictOrderCreated", tree);
+    }
+}
@@ -0,0 +1,76 @@
+package com.foundation.reggie.benchmark;
+
+import com.foundation.reggie.message.OrderCreated;
+import com.foundation.reggie.registry.MessageRegistry;
+import com.foundation.reggie.registry.MessageType;
+import com.foundation.reggie.registry.PayloadEncoding;
+import com.google.protobuf.ByteString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publisher-side encode cost and consumer-side decode cost per {@link PayloadEncoding}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadEncodingBenchmark {
+    @Param({"JSON", "SMILE", "CBOR"})
+    public PayloadEncoding encoding;
+
+    private MessageRegistry messageRegistry;
+    private MessageType type;
+    private OrderCreated message;
+    private ObjectReader consumerReader;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = JsonMapper.builder().build();
+        messageRegistry = new MessageRegistry(objectMapper);
+        messageRegistry.register("OrderCreated", OrderCreated.class);
+        type = messageRegistry.getType("OrderCreated");
+        message = new OrderCreated();
+        message.setOrderId("123");
+        message.setCustomerId("456");
+        message.setAmount(99.99);
+        ObjectMapper consumerMapper = switch (encoding) {
+            case JSON -> objectMapper;
+            case SMILE -> SmileMapper.builder().build();
+            case CBOR -> CBORMapper.builder().build();
+        };
+        consumerReader = consumerMapper.readerFor(OrderCreated.class);
+        encoded = encode().toByteArray();
+    }
+
+    @Benchmark
+    public ByteString encode() {
+        ByteString.Output out = ByteString.newOutput();
+        messageRegistry.serialize(type, message, encoding, out);
+        return out.toByteString();
+    }
+
+    @Benchmark
+    public OrderCreated decode() {
+        return consumerReader.readValue(encoded);
+    }
+}
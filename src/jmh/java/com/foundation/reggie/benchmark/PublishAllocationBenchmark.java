@@ -0,0 +1,69 @@
+package com.foundation.reggie.benchmark;
+
+import com.foundation.reggie.message.OrderCreated;
+import com.foundation.reggie.service.MessagePublishService.PublishedMessage;
+import com.google.protobuf.ByteString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * The original three-pass controller code against the current publish pipeline, without the network.
+ * {@code gc.alloc.rate.norm} is bytes allocated per publish.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublishAllocationBenchmark {
+    private ObjectMapper objectMapper;
+    private JsonNode message;
+
+    @Setup
+    public void setup() {
+        objectMapper = JsonMapper.builder().build();
+        message = objectMapper.readTree("{\"orderId\":\"123\",\"customerId\":\"456\",\"amount\":99.99}");
+    }
+
+    @Benchmark
+    public void threePass(Blackhole bh) {
+        Object typed = objectMapper.treeToValue(message, OrderCreated.class);
+        String json = objectMapper.writeValueAsString(typed);
+        JsonNode payload = objectMapper.readTree(json);
+        ByteString data = ByteString.copyFromUtf8(json);
+        Map<String, String> fieldTypes = Arrays.stream(typed.getClass().getDeclaredFields())
+                .flatMap((f) -> Map.of(f.getName(), f.getType().getSimpleName()).entrySet().stream())
+                .collect(toMap(Map.Entry::getKey, Map.Entry::getValue));
+        bh.consume(data);
+        bh.consume(payload);
+        bh.consume(fieldTypes);
+    }
+
+    @Benchmark
+    public void pipeline(InMemoryPublishPipeline pipeline, Blackhole bh) {
+        PublishedMessage published = pipeline.publishService
+                .publishAsync("OrderCreated", "orders-topic", message, null, null)
+                .join();
+        bh.consume(published.data());
+        bh.consume(published.type().fieldTypes());
+    }
+}
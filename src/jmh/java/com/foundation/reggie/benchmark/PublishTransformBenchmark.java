@@ -0,0 +1,55 @@
+package com.foundation.reggie.benchmark;
+
+import com.foundation.reggie.dto.PublishRequest;
+import com.foundation.reggie.registry.PayloadEncoding;
+import com.foundation.reggie.service.MessagePublishService.PublishedMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.util.RawValue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Everything {@code POST /publish} does per request except the network, from parsing the
+ * request body to writing the response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublishTransformBenchmark {
+    private byte[] requestBody;
+
+    @Setup
+    public void setup() {
+        requestBody = ("{\"className\":\"OrderCreated\",\"topic\":\"orders-topic\",\"attributes\":{\"key\":\"value\"},"
+                + "\"message\":{\"orderId\":\"123\",\"customerId\":\"456\",\"amount\":99.99}}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] publishTransform(InMemoryPublishPipeline pipeline) {
+        PublishRequest request = pipeline.objectMapper.readValue(requestBody, PublishRequest.class);
+        PublishedMessage published = pipeline.publishService.publishAsync(request.getClassName(), request.getTopic(),
+                request.getMessage(), request.getAttributes(), request.getOrderingKey()).join();
+        Object payload = published.encoding() == PayloadEncoding.JSON
+                ? new RawValue(published.data().toStringUtf8())
+                : published.message();
+        return pipeline.objectMapper.writeValueAsBytes(Map.of(
+                "messageId", published.messageId(),
+                "payload", payload,
+                published.type().type().getSimpleName(), published.type().fieldTypes()));
+    }
+}
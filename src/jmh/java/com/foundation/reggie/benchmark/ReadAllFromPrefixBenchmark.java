@@ -0,0 +1,117 @@
+package com.foundation.reggie.benchmark;
+
+import com.foundation.reggie.model.MessageSample;
+import com.foundation.reggie.service.BlobCache;
+import com.foundation.reggie.service.BlobStore;
+import com.foundation.reggie.service.CloudStorageService;
+import com.foundation.reggie.service.ScenarioJournal;
+import com.foundation.reggie.service.ScenarioManifests;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.contrib.nio.testing.LocalStorageHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads every message sample from an in-memory {@link Storage}: sequential vs parallel,
+ * cold vs warm cache, materialized vs streamed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadAllFromPrefixBenchmark {
+    private static final String BUCKET = "reggie-bench";
+
+    @Param({"1000"})
+    public int objects;
+
+    @Param({"1", "16"})
+    public int parallelism;
+
+    @Param({"false", "true"})
+    public boolean cache;
+
+    private BlobStore blobStore;
+    private ScenarioJournal journal;
+    private CloudStorageService service;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Storage storage = LocalStorageHelper.getOptions().getService();
+        ObjectMapper objectMapper = JsonMapper.builder().build();
+        for (int i = 0; i < objects; i++) {
+            String json = "{\"messageId\":\"sample-" + i + "\",\"className\":\"OrderCreated\","
+                    + "\"topic\":\"orders-topic\","
+                    + "\"attributes\":{\"env\":\"test\"},\"message\":{\"orderId\":\"" + i + "\",\"amount\":99.99}}";
+            storage.create(BlobInfo.newBuilder(BlobId.of(BUCKET, "message-samples/sample-" + i + ".json"))
+                    .setContentType("application/json").build(), json.getBytes(StandardCharsets.UTF_8));
+        }
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BlobCache blobCache = new BlobCache(cache, 256L * 1024 * 1024, Duration.ZERO, 0, meterRegistry);
+        blobStore = new BlobStore(storage, BUCKET, objectMapper, blobCache, parallelism, false, 8192, meterRegistry);
+        journal = new ScenarioJournal(blobStore, objectMapper, 65536, 100, meterRegistry);
+        service = new CloudStorageService(blobStore, journal, new ScenarioManifests(blobStore, journal, meterRegistry),
+                objectMapper, event -> {
+                });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        journal.shutdown();
+        blobStore.shutdown();
+    }
+
+    @Benchmark
+    public List<MessageSample> readAll() {
+        return service.getAllMessageSamples().items();
+    }
+
+    @Benchmark
+    public void streamAll(Blackhole bh) throws IOException {
+        service.streamAllMessageSamples(new BlackholeOutputStream(bh));
+    }
+
+    private static final class BlackholeOutputStream extends OutputStream {
+        private final Blackhole bh;
+
+        private BlackholeOutputStream(Blackhole bh) {
+            this.bh = bh;
+        }
+
+        @Override
+        public void write(int b) {
+            bh.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bh.consume(b);
+        }
+    }
+}
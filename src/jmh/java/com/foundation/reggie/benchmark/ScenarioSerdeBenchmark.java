@@ -0,0 +1,82 @@
+package com.foundation.reggie.benchmark;
+
+import com.foundation.reggie.model.PubSubPayload;
+import com.foundation.reggie.model.Scenario;
+import com.foundation.reggie.model.ScenarioMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round-trips a {@link Scenario} through JSON at sizes seen in practice: a handful of
+ * messages, a typical multi-column scenario, and a power user's large one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScenarioSerdeBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int messages;
+
+    private ObjectMapper objectMapper;
+    private Scenario scenario;
+    private byte[] json;
+
+    @Setup
+    public void setup() {
+        objectMapper = JsonMapper.builder().build();
+        scenario = new Scenario();
+        scenario.setId("scenario-1");
+        scenario.setName("Order Flow Test");
+        scenario.setDescription("Tests the complete order creation flow");
+        List<ScenarioMessage> scenarioMessages = new ArrayList<>(messages);
+        for (int i = 0; i < messages; i++) {
+            Map<String, Object> message = new LinkedHashMap<>();
+            message.put("orderId", "order-" + i);
+            message.put("customerId", "customer-" + (i % 50));
+            message.put("amount", 10.0 + i);
+            PubSubPayload payload = new PubSubPayload();
+            payload.setClassName("OrderCreated");
+            payload.setTopic("orders-topic");
+            payload.setAttributes(Map.of("env", "test", "source", "reggie"));
+            payload.setMessage(message);
+            ScenarioMessage scenarioMessage = new ScenarioMessage();
+            scenarioMessage.setId("msg-" + i);
+            scenarioMessage.setColumn(1 + i % 20);
+            scenarioMessage.setPayload(payload);
+            scenarioMessages.add(scenarioMessage);
+        }
+        scenario.setMessages(scenarioMessages);
+        json = objectMapper.writeValueAsBytes(scenario);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return objectMapper.writeValueAsBytes(scenario);
+    }
+
+    @Benchmark
+    public Scenario deserialize() {
+        return objectMapper.readValue(json, Scenario.class);
+    }
+}
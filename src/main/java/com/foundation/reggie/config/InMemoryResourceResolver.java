@@ -0,0 +1,91 @@
+package com.foundation.reggie.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Loads resolved static resources of up to {@code maxBytes} into memory; the chain's
+ * {@code CachingResourceResolver} keeps them per path and encoding.
+ */
+@Slf4j
+public class InMemoryResourceResolver extends AbstractResourceResolver {
+    private final long maxBytes;
+
+    public InMemoryResourceResolver(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Content hash for the {@code ETag} header, or {@code null} for resources not held in memory.
+     */
+    public static String etag(Resource resource) {
+        return resource instanceof InMemoryResource inMemory ? inMemory.etag : null;
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(HttpServletRequest request, String requestPath,
+                                               List<? extends Resource> locations, ResourceResolverChain chain) {
+        Resource resource = chain.resolveResource(request, requestPath, locations);
+        if (resource == null || resource instanceof InMemoryResource) {
+            return resource;
+        }
+        try {
+            if (resource.contentLength() > maxBytes) {
+                return resource;
+            }
+            HttpHeaders headers = resource instanceof HttpResource httpResource
+                    ? httpResource.getResponseHeaders() : new HttpHeaders();
+            return new InMemoryResource(resource.getContentAsByteArray(), resource.getFilename(),
+                    resource.lastModified(), headers, resource.getDescription());
+        } catch (IOException e) {
+            log.debug("Serving {} from its location: {}", requestPath, e.getMessage());
+            return resource;
+        }
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+                                            ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+
+    private static final class InMemoryResource extends ByteArrayResource implements HttpResource {
+        private final String filename;
+        private final long lastModified;
+        private final HttpHeaders headers;
+        private final String etag;
+
+        InMemoryResource(byte[] content, String filename, long lastModified, HttpHeaders headers, String description) {
+            super(content, description);
+            this.filename = filename;
+            this.lastModified = lastModified;
+            this.headers = headers;
+            this.etag = DigestUtils.md5DigestAsHex(content);
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            return headers;
+        }
+    }
+}
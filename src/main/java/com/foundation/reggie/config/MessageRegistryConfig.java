@@ -2,12 +2,16 @@ package com.foundation.reggie.config;
 
 import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.json.JsonMapper;
-import com.foundation.reggie.message.OrderCreated;
 import com.foundation.reggie.registry.MessageRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Set;
+
 @Configuration
+@EnableConfigurationProperties(PayloadEncodingProperties.class)
 public class MessageRegistryConfig {
 
     @Bean
@@ -16,9 +20,13 @@ public class MessageRegistryConfig {
     }
 
     @Bean
-    public MessageRegistry messageRegistry(ObjectMapper objectMapper) {
+    public MessageRegistry messageRegistry(
+            ObjectMapper objectMapper,
+            @Value("${reggie.registry.strict-types:}") Set<String> strictTypes,
+            @Value("${reggie.registry.warmup:eager}") String warmup) {
         MessageRegistry registry = new MessageRegistry(objectMapper);
-        registry.register("OrderCreated", OrderCreated.class);
+        // Types annotated with @ReggieMessage are listed in a build-time index; no classpath scan
+        registry.registerIndexed(MessageRegistryConfig.class.getClassLoader(), "eager".equalsIgnoreCase(warmup), strictTypes);
         return registry;
     }
 }
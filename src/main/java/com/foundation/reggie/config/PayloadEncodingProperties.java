@@ -0,0 +1,35 @@
+package com.foundation.reggie.config;
+
+import com.foundation.reggie.registry.PayloadEncoding;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "reggie.publish.encoding")
+public class PayloadEncodingProperties {
+    /**
+     * Encoding used when neither the topic nor the message type has one configured.
+     */
+    private PayloadEncoding defaultEncoding = PayloadEncoding.JSON;
+
+    /**
+     * Per message type, e.g. {@code reggie.publish.encoding.types.OrderCreated=smile}.
+     */
+    private Map<String, PayloadEncoding> types = new HashMap<>();
+
+    /**
+     * Per topic, e.g. {@code reggie.publish.encoding.topics.orders-topic=cbor}; wins over {@link #types}.
+     */
+    private Map<String, PayloadEncoding> topics = new HashMap<>();
+
+    public PayloadEncoding encodingFor(String topic, String className) {
+        PayloadEncoding encoding = topics.get(topic);
+        if (encoding == null) {
+            encoding = types.get(className);
+        }
+        return encoding != null ? encoding : defaultEncoding;
+    }
+}
@@ -0,0 +1,70 @@
+package com.foundation.reggie.config;
+
+import com.google.api.gax.core.CredentialsProvider;
+import com.google.api.gax.core.ExecutorProvider;
+import com.google.api.gax.core.FixedExecutorProvider;
+import com.google.api.gax.core.NoCredentialsProvider;
+import com.google.api.gax.grpc.GrpcTransportChannel;
+import com.google.api.gax.rpc.FixedTransportChannelProvider;
+import com.google.api.gax.rpc.TransportChannelProvider;
+import com.google.cloud.pubsub.v1.TopicAdminSettings;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One gRPC channel and one executor shared by every topic's {@code Publisher}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "reggie.publish.transport", havingValue = "pubsub", matchIfMissing = true)
+@EnableConfigurationProperties(PubSubProperties.class)
+public class PubSubConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ManagedChannel pubSubChannel(PubSubProperties properties) {
+        ManagedChannelBuilder<?> builder;
+        if (usesEmulator(properties)) {
+            builder = ManagedChannelBuilder.forTarget(properties.getEmulatorHost()).usePlaintext();
+        } else {
+            builder = ManagedChannelBuilder.forTarget(properties.getEndpoint());
+        }
+        ManagedChannel channel = builder.keepAliveTime(30, TimeUnit.SECONDS).build();
+        // Start connecting now so the first publish does not pay for channel setup
+        channel.getState(true);
+        return channel;
+    }
+
+    @Bean
+    public TransportChannelProvider pubSubChannelProvider(ManagedChannel pubSubChannel) {
+        return FixedTransportChannelProvider.create(GrpcTransportChannel.create(pubSubChannel));
+    }
+
+    @Bean
+    public CredentialsProvider pubSubCredentialsProvider(PubSubProperties properties) {
+        if (usesEmulator(properties)) {
+            return NoCredentialsProvider.create();
+        }
+        return TopicAdminSettings.defaultCredentialsProviderBuilder().build();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledExecutorService pubSubExecutor(PubSubProperties properties) {
+        return Executors.newScheduledThreadPool(properties.getExecutorThreads());
+    }
+
+    @Bean
+    public ExecutorProvider pubSubExecutorProvider(ScheduledExecutorService pubSubExecutor) {
+        return FixedExecutorProvider.create(pubSubExecutor);
+    }
+
+    private static boolean usesEmulator(PubSubProperties properties) {
+        return properties.getEmulatorHost() != null && !properties.getEmulatorHost().isBlank();
+    }
+}
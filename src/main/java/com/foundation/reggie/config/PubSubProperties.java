@@ -0,0 +1,98 @@
+package com.foundation.reggie.config;
+
+import com.google.api.gax.batching.FlowController;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "reggie.pubsub")
+public class PubSubProperties {
+    /**
+     * Pub/Sub gRPC endpoint shared by all publishers.
+     */
+    private String endpoint = "pubsub.googleapis.com:443";
+
+    /**
+     * Pub/Sub emulator {@code host:port}; when set it replaces the endpoint and connects
+     * in plaintext without credentials.
+     */
+    private String emulatorHost;
+
+    /**
+     * Topics whose publishers are created at startup and never evicted.
+     */
+    private List<String> prewarmTopics = new ArrayList<>();
+
+    /**
+     * Publishers unused for this long are shut down; zero disables idle eviction.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * Upper bound on live publishers; the least recently used idle ones are evicted first.
+     */
+    private int maxPublishers = 100;
+
+    private Duration evictionInterval = Duration.ofSeconds(30);
+
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Threads in the executor shared by all publishers for batching and callbacks.
+     */
+    private int executorThreads = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Batching and flow control applied to every topic unless overridden in {@link #topics}.
+     */
+    private TopicSettings defaults = new TopicSettings();
+
+    /**
+     * Per-topic overrides, e.g. {@code reggie.pubsub.topics.orders-topic.element-count-threshold=500}.
+     */
+    private Map<String, TopicSettings> topics = new HashMap<>();
+
+    public TopicSettings settingsFor(String topic) {
+        TopicSettings overrides = topics.get(topic);
+        return overrides == null ? defaults : overrides.orElse(defaults);
+    }
+
+    /**
+     * Unset values fall back to {@link #defaults} and then to the Pub/Sub client defaults.
+     */
+    @Data
+    public static class TopicSettings {
+        private Long elementCountThreshold;
+        private Long requestByteThreshold;
+        private Duration delayThreshold;
+        private Long maxOutstandingElementCount;
+        private Long maxOutstandingRequestBytes;
+        private FlowController.LimitExceededBehavior limitExceededBehavior;
+        /**
+         * Deliver messages that share an ordering key in publish order; on unless set to false.
+         */
+        private Boolean enableMessageOrdering;
+
+        TopicSettings orElse(TopicSettings fallback) {
+            TopicSettings merged = new TopicSettings();
+            merged.elementCountThreshold = elementCountThreshold != null ? elementCountThreshold : fallback.elementCountThreshold;
+            merged.requestByteThreshold = requestByteThreshold != null ? requestByteThreshold : fallback.requestByteThreshold;
+            merged.delayThreshold = delayThreshold != null ? delayThreshold : fallback.delayThreshold;
+            merged.maxOutstandingElementCount = maxOutstandingElementCount != null
+                    ? maxOutstandingElementCount : fallback.maxOutstandingElementCount;
+            merged.maxOutstandingRequestBytes = maxOutstandingRequestBytes != null
+                    ? maxOutstandingRequestBytes : fallback.maxOutstandingRequestBytes;
+            merged.limitExceededBehavior = limitExceededBehavior != null
+                    ? limitExceededBehavior : fallback.limitExceededBehavior;
+            merged.enableMessageOrdering = enableMessageOrdering != null
+                    ? enableMessageOrdering : fallback.enableMessageOrdering;
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.foundation.reggie.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Admission control before the transport: a publish over an in-flight limit or rate is rejected with {@code 429}.
+ */
+@Data
+@ConfigurationProperties(prefix = "reggie.publish.limits")
+public class PublishLimitProperties {
+    private boolean enabled = true;
+
+    /**
+     * Limits on all topics together.
+     */
+    private TopicLimits global = new TopicLimits(20000, 0.0, null);
+
+    /**
+     * Limits applied to each topic unless overridden in {@link #topics}.
+     */
+    private TopicLimits defaults = new TopicLimits(5000, 0.0, null);
+
+    /**
+     * Per-topic overrides, e.g. {@code reggie.publish.limits.topics.orders-topic.rate=200}.
+     */
+    private Map<String, TopicLimits> topics = new HashMap<>();
+
+    /**
+     * {@code Retry-After} suggested when an in-flight limit rejects; rate rejections report
+     * the time until the next token instead.
+     */
+    private Duration inFlightRetryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Topics whose limits and meters are tracked at once; idle topics beyond this are evicted.
+     */
+    private int maxTopics = 1000;
+
+    public TopicLimits limitsFor(String topic) {
+        TopicLimits overrides = topics.get(topic);
+        return overrides == null ? defaults : overrides.orElse(defaults);
+    }
+
+    /**
+     * Unset values fall back to {@link #defaults}; zero disables a limit.
+     */
+    @Data
+    public static class TopicLimits {
+        /**
+         * Publishes awaiting a transport acknowledgement.
+         */
+        private Integer maxInFlight;
+        /**
+         * Sustained publishes per second.
+         */
+        private Double rate;
+        /**
+         * Publishes allowed at once above {@link #rate}; defaults to one second's worth.
+         */
+        private Integer burst;
+
+        public TopicLimits() {
+        }
+
+        TopicLimits(Integer maxInFlight, Double rate, Integer burst) {
+            this.maxInFlight = maxInFlight;
+            this.rate = rate;
+            this.burst = burst;
+        }
+
+        TopicLimits orElse(TopicLimits fallback) {
+            return new TopicLimits(
+                    maxInFlight != null ? maxInFlight : fallback.maxInFlight,
+                    rate != null ? rate : fallback.rate,
+                    burst != null ? burst : fallback.burst);
+        }
+    }
+}
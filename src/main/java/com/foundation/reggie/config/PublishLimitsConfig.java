@@ -0,0 +1,12 @@
+package com.foundation.reggie.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Binds the publish admission limits; {@link PublishLimitsEndpoint} reports their state.
+ */
+@Configuration
+@EnableConfigurationProperties(PublishLimitProperties.class)
+public class PublishLimitsConfig {
+}
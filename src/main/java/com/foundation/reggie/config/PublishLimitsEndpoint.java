@@ -0,0 +1,24 @@
+package com.foundation.reggie.config;
+
+import com.foundation.reggie.dto.PublishLimitsReport;
+import com.foundation.reggie.service.PublishLimiter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/publishlimits}: in-flight counts, remaining tokens and rejections of
+ * the publish admission limits, globally and per topic.
+ */
+@Component
+@Endpoint(id = "publishlimits")
+@RequiredArgsConstructor
+public class PublishLimitsEndpoint {
+    private final PublishLimiter publishLimiter;
+
+    @ReadOperation
+    public PublishLimitsReport publishLimits() {
+        return publishLimiter.report();
+    }
+}
@@ -1,18 +1,47 @@
 package com.foundation.reggie.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
 
+import java.time.Duration;
+
+/**
+ * Hashed {@code /_app/immutable/**} files are cached for a year, the shell is revalidated by
+ * content {@code ETag}, and everything else is cached for an hour.
+ */
 @Configuration
 public class StaticWebConfig implements WebMvcConfigurer {
+    private static final String LOCATION = "classpath:/static/";
+
+    private final long memoryCacheMaxFileBytes;
+
+    public StaticWebConfig(
+            @Value("${reggie.static.memory-cache-max-file-bytes:1048576}") long memoryCacheMaxFileBytes) {
+        this.memoryCacheMaxFileBytes = memoryCacheMaxFileBytes;
+    }
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // Spring Boot serves classpath:/static/ at root by default,
-        // but we explicitly configure it for clarity and cache control
-        registry.addResourceHandler("/**")
-                .addResourceLocations("classpath:/static/")
-                .setCachePeriod(3600);
+        chain(registry.addResourceHandler("/_app/immutable/**")
+                .addResourceLocations(LOCATION + "_app/immutable/")
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable()));
+        chain(registry.addResourceHandler("/index.html", "/service-worker.js", "/_app/version.json", "/_app/env.js")
+                .addResourceLocations(LOCATION)
+                .setCacheControl(CacheControl.noCache()));
+        chain(registry.addResourceHandler("/**")
+                .addResourceLocations(LOCATION)
+                .setCacheControl(CacheControl.maxAge(Duration.ofHours(1))));
+    }
+
+    private void chain(ResourceHandlerRegistration registration) {
+        registration.setEtagGenerator(InMemoryResourceResolver::etag)
+                .resourceChain(true)
+                .addResolver(new InMemoryResourceResolver(memoryCacheMaxFileBytes))
+                .addResolver(new EncodedResourceResolver());
     }
 }
@@ -0,0 +1,51 @@
+package com.foundation.reggie.controller;
+
+import com.foundation.reggie.service.ArchiveService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+
+@RestController
+@Tag(name = "Archive", description = "Bulk export and import of scenarios and message samples")
+@RequiredArgsConstructor
+public class ArchiveController {
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    private final ArchiveService archiveService;
+
+    @Operation(summary = "Export scenarios and message samples",
+            description = "Streams a gzip-compressed NDJSON archive, one scenario or message sample per line, "
+                    + "optionally limited to a blob prefix such as 'user-1/' or 'message-samples/'")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) String prefix) {
+        return ResponseEntity.ok()
+                .contentType(GZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("reggie-export.ndjson.gz").build().toString())
+                .body(out -> archiveService.exportArchive(prefix, out));
+    }
+
+    @Operation(summary = "Import an export archive",
+            description = "Accepts the archive gzip-compressed or plain, uploads items in parallel and streams one "
+                    + "NDJSON result per line in archive order. Unchanged items are skipped by CRC32C; "
+                    + "resumeFrom skips lines already imported")
+    @PostMapping(value = "/import", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importArchive(
+            InputStream body,
+            @RequestParam(defaultValue = "1") long resumeFrom) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> archiveService.importArchive(body, resumeFrom, out));
+    }
+}
@@ -0,0 +1,46 @@
+package com.foundation.reggie.controller;
+
+import com.foundation.reggie.dto.LoadTestReport;
+import com.foundation.reggie.dto.LoadTestRequest;
+import com.foundation.reggie.service.LoadGeneratorService;
+import com.foundation.reggie.service.LoadTestRun;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Tag(name = "Load Test", description = "Replay stored messages at a target rate or concurrency")
+@RequiredArgsConstructor
+public class LoadTestController {
+    private final LoadGeneratorService loadGeneratorService;
+
+    @Operation(summary = "Start a load test",
+            description = "Replays a scenario or message sample through the configured publish transport and reports "
+                    + "throughput and p50/p99/p999 acknowledgement latency")
+    @PostMapping("/load-tests")
+    public ResponseEntity<LoadTestReport> start(@RequestBody LoadTestRequest request) {
+        LoadTestRun run = loadGeneratorService.start(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(run.snapshot());
+    }
+
+    @Operation(summary = "Get load test progress and latency percentiles")
+    @GetMapping("/load-tests/{runId}")
+    public LoadTestReport getLoadTest(@PathVariable String runId) {
+        return loadGeneratorService.getRun(runId).snapshot();
+    }
+
+    @Operation(summary = "Cancel a load test")
+    @PostMapping("/load-tests/{runId}/cancel")
+    public LoadTestReport cancel(@PathVariable String runId) {
+        LoadTestRun run = loadGeneratorService.getRun(runId);
+        run.cancel();
+        return run.snapshot();
+    }
+}
@@ -0,0 +1,63 @@
+package com.foundation.reggie.controller;
+
+import com.foundation.reggie.dto.PlaybackSnapshot;
+import com.foundation.reggie.service.PlaybackRun;
+import com.foundation.reggie.service.ScenarioPlaybackService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Tag(name = "Playback", description = "Server-side scenario playback API")
+@RequiredArgsConstructor
+public class PlaybackController {
+    private final ScenarioPlaybackService playbackService;
+
+    @Operation(summary = "Play a stored scenario",
+            description = "Publishes the scenario column by column on the server; messages within a column are published in parallel")
+    @PostMapping("/users/{userId}/scenarios/{id}/play")
+    public ResponseEntity<PlaybackSnapshot> play(
+            @PathVariable String userId,
+            @PathVariable String id,
+            @RequestParam(required = false) Long columnDelayMs) {
+        PlaybackRun run = playbackService.play(userId, id, columnDelayMs);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(run.snapshot());
+    }
+
+    @Operation(summary = "Get playback status and per-message results")
+    @GetMapping("/playbacks/{runId}")
+    public PlaybackSnapshot getPlayback(@PathVariable String runId) {
+        return playbackService.getRun(runId).snapshot();
+    }
+
+    @Operation(summary = "Pause a playback after the current column")
+    @PostMapping("/playbacks/{runId}/pause")
+    public PlaybackSnapshot pause(@PathVariable String runId) {
+        PlaybackRun run = playbackService.getRun(runId);
+        run.pause();
+        return run.snapshot();
+    }
+
+    @Operation(summary = "Resume a paused playback")
+    @PostMapping("/playbacks/{runId}/resume")
+    public PlaybackSnapshot resume(@PathVariable String runId) {
+        PlaybackRun run = playbackService.getRun(runId);
+        run.resume();
+        return run.snapshot();
+    }
+
+    @Operation(summary = "Cancel a playback")
+    @PostMapping("/playbacks/{runId}/cancel")
+    public PlaybackSnapshot cancel(@PathVariable String runId) {
+        PlaybackRun run = playbackService.getRun(runId);
+        run.cancel();
+        return run.snapshot();
+    }
+}
@@ -1,55 +1,135 @@
 package com.foundation.reggie.controller;
 
+import com.foundation.reggie.dto.BatchItemResult;
 import com.foundation.reggie.dto.PublishRequest;
-import com.foundation.reggie.registry.MessageRegistry;
-import com.foundation.reggie.service.PubSubPublisher;
+import com.foundation.reggie.dto.PublishTracking;
+import com.foundation.reggie.registry.PayloadEncoding;
+import com.foundation.reggie.service.BatchPublishService;
+import com.foundation.reggie.service.MessagePublishService;
+import com.foundation.reggie.service.MessagePublishService.PublishedMessage;
+import com.foundation.reggie.service.PublishTracker;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import tools.jackson.databind.JsonNode;
-import tools.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.util.RawValue;
 
-import java.util.Arrays;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-
-import static java.util.stream.Collectors.toMap;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @Tag(name = "Publish", description = "Pub/Sub message publishing API")
 @RequiredArgsConstructor
 public class PublishController {
-    private final MessageRegistry messageRegistry;
-    private final PubSubPublisher pubSubPublisher;
-    private final ObjectMapper objectMapper;
+    private final MessagePublishService messagePublishService;
+    private final BatchPublishService batchPublishService;
+    private final PublishTracker publishTracker;
 
     @Operation(summary = "Publish a message to Pub/Sub",
             description = "Deserializes the message into a registered class type and publishes to the specified topic")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Message published successfully",
                     content = @Content(schema = @Schema(implementation = PublishResponse.class))),
+            @ApiResponse(responseCode = "202", description = "Message accepted for publishing (await=false)",
+                    content = @Content(schema = @Schema(implementation = PublishTracking.class))),
             @ApiResponse(responseCode = "400", description = "Unknown message type or deserialization error"),
+            @ApiResponse(responseCode = "429", description = "Publish admission limit reached; retry after Retry-After seconds"),
             @ApiResponse(responseCode = "500", description = "Failed to publish to Pub/Sub")
     })
     @PostMapping("/publish")
-    public ResponseEntity<Map<String, Object>> publish(@RequestBody PublishRequest request) {
-        Object message = messageRegistry.deserialize(request.getClassName(), request.getMessage());
-        String jsonMessage = objectMapper.writeValueAsString(message);
-        JsonNode payload = objectMapper.readTree(jsonMessage);
-        String messageId = pubSubPublisher.publish(request.getTopic(), jsonMessage, request.getAttributes());
+    public CompletableFuture<ResponseEntity<?>> publish(
+            @RequestBody PublishRequest request,
+            @Parameter(description = "Wait for the Pub/Sub acknowledgement; when false, respond 202 with a tracking ID")
+            @RequestParam(defaultValue = "true") boolean await) {
+        CompletableFuture<PublishedMessage> published = messagePublishService.publishAsync(
+                request.getClassName(), request.getTopic(), request.getMessage(), request.getAttributes(),
+                request.getOrderingKey());
+        if (!await) {
+            PublishTracking tracking = publishTracker.track(published.thenApply(PublishedMessage::messageId));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.ACCEPTED).body(tracking));
+        }
+        return published.thenApply(this::toResponse);
+    }
+
+    @Operation(summary = "Publish a raw message body to Pub/Sub",
+            description = "Reads the request body directly as the registered class type, without an intermediate JSON tree")
+    @PostMapping(value = "/publish/types/{className}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<?>> publishRaw(
+            @PathVariable String className,
+            @Parameter(description = "Pub/Sub topic name", example = "orders-topic")
+            @RequestParam String topic,
+            @Parameter(description = "Message attributes as key=value pairs", example = "env=test")
+            @RequestParam(name = "attribute", required = false) List<String> attributes,
+            @Parameter(description = "Optional ordering key", example = "order-123")
+            @RequestParam(required = false) String orderingKey,
+            InputStream body) {
+        return messagePublishService.publishAsync(className, topic, body, parseAttributes(attributes), orderingKey)
+                .thenApply(this::toResponse);
+    }
+
+    @Operation(summary = "Publish a batch of messages",
+            description = "Publishes every item without waiting for individual acknowledgements and returns per-item results in input order")
+    @PostMapping(value = "/publish/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<List<BatchItemResult>> publishBatch(@RequestBody List<PublishRequest> requests) {
+        return batchPublishService.publishAll(requests);
+    }
+
+    @Operation(summary = "Publish a stream of newline-delimited messages",
+            description = "Parses the NDJSON body incrementally and streams one NDJSON result per item back in input order")
+    @PostMapping(value = "/publish/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> publishBatchStream(InputStream body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> batchPublishService.publishStream(body, out));
+    }
+
+    @Operation(summary = "Get the status of a fire-and-forget publish")
+    @GetMapping("/publish/{trackingId}")
+    public PublishTracking getPublishStatus(@PathVariable String trackingId) {
+        return publishTracker.get(trackingId);
+    }
+
+    private static Map<String, String> parseAttributes(List<String> attributes) {
+        if (attributes == null) {
+            return null;
+        }
+        Map<String, String> parsed = new LinkedHashMap<>();
+        for (String attribute : attributes) {
+            int separator = attribute.indexOf('=');
+            if (separator > 0) {
+                parsed.put(attribute.substring(0, separator), attribute.substring(separator + 1));
+            }
+        }
+        return parsed;
+    }
+
+    private ResponseEntity<?> toResponse(PublishedMessage published) {
+        // JSON payloads are echoed verbatim rather than re-parsed into a tree; binary ones as the typed message
+        Object payload = published.encoding() == PayloadEncoding.JSON
+                ? new RawValue(published.data().toStringUtf8())
+                : published.message();
         return ResponseEntity.ok(Map.of(
-                "messageId", messageId,
+                "messageId", published.messageId(),
                 "payload", payload,
-                message.getClass().getSimpleName(), Arrays.stream(message.getClass().getDeclaredFields())
-                        .flatMap((f) -> Map.of(f.getName(), f.getType().getSimpleName()).entrySet().stream())
-                        .collect(toMap(Map.Entry::getKey, Map.Entry::getValue))
+                published.type().type().getSimpleName(), published.type().fieldTypes()
         ));
     }
 
@@ -1,55 +1,150 @@
 package com.foundation.reggie.controller;
 
+import com.foundation.reggie.dto.MessageSamplePage;
+import com.foundation.reggie.dto.ScenarioSummaryPage;
 import com.foundation.reggie.model.MessageSample;
 import com.foundation.reggie.model.Scenario;
+import com.foundation.reggie.model.ScenarioOperation;
 import com.foundation.reggie.service.CloudStorageService;
+import com.foundation.reggie.service.CloudStorageService.BlobListing;
+import com.foundation.reggie.service.CloudStorageService.Versioned;
+import com.foundation.reggie.service.MessageSampleIndex;
+import com.foundation.reggie.service.ScenarioWriteBehind;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
+/**
+ * Reads carry an {@code ETag} and honour {@code If-None-Match}; upserts honour {@code If-Match}.
+ */
 @RestController
 @RequiredArgsConstructor
 public class StorageController {
     private final CloudStorageService cloudStorageService;
+    private final ScenarioWriteBehind scenarioStore;
+    private final MessageSampleIndex messageSampleIndex;
 
     @PutMapping("/users/{userId}/scenarios")
-    public Scenario upsertScenario(@PathVariable String userId, @RequestBody Scenario scenario) {
-        return cloudStorageService.upsertScenario(userId, scenario);
+    public ResponseEntity<Scenario> upsertScenario(
+            @PathVariable String userId,
+            @RequestBody Scenario scenario,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return versioned(scenarioStore.upsertScenario(userId, scenario, ifMatch));
+    }
+
+    @PatchMapping("/users/{userId}/scenarios/{id}")
+    public ResponseEntity<Scenario> patchScenario(
+            @PathVariable String userId,
+            @PathVariable String id,
+            @RequestBody List<ScenarioOperation> operations,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return versioned(scenarioStore.patchScenario(userId, id, operations, ifMatch));
     }
 
     @GetMapping("/users/{userId}/scenarios")
-    public List<Scenario> getAllScenarios(@PathVariable String userId) {
-        return cloudStorageService.getAllScenarios(userId);
+    public ResponseEntity<StreamingResponseBody> getAllScenarios(@PathVariable String userId, WebRequest request) {
+        return streamListing(scenarioStore.listScenarios(userId), request);
+    }
+
+    @GetMapping(value = "/users/{userId}/scenarios", params = "view=summary")
+    public ResponseEntity<ScenarioSummaryPage> getScenarioSummaries(
+            @PathVariable String userId,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = "100") int pageSize,
+            WebRequest request) {
+        return versioned(scenarioStore.getScenarioSummaries(userId, pageToken, Math.clamp(pageSize, 1, 1000),
+                request::checkNotModified));
+    }
+
+    @GetMapping("/users/{userId}/scenarios/{id}")
+    public ResponseEntity<Scenario> getScenario(@PathVariable String userId, @PathVariable String id,
+                                                WebRequest request) {
+        return versioned(scenarioStore.getScenario(userId, id, request::checkNotModified));
     }
 
     @GetMapping("/users")
-    public List<String> getAllUserIds() {
-        return cloudStorageService.getAllUserIds();
+    public ResponseEntity<StreamingResponseBody> getAllUserIds() {
+        return streamJson(cloudStorageService::streamAllUserIds);
     }
 
     @PutMapping("/message-samples")
-    public MessageSample upsertMessageSample(@RequestBody MessageSample messageSample) {
-        return cloudStorageService.upsertMessageSample(messageSample);
+    public ResponseEntity<MessageSample> upsertMessageSample(
+            @RequestBody MessageSample messageSample,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return versioned(cloudStorageService.upsertMessageSample(messageSample, ifMatch));
     }
 
     @GetMapping("/message-samples")
-    public List<MessageSample> getAllMessageSamples() {
-        return cloudStorageService.getAllMessageSamples();
+    public ResponseEntity<StreamingResponseBody> getAllMessageSamples(WebRequest request) {
+        return streamListing(cloudStorageService.listMessageSamples(), request);
+    }
+
+    @GetMapping("/message-samples/search")
+    public MessageSamplePage searchMessageSamples(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String className,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String pageToken) {
+        return messageSampleIndex.search(q, className, Math.clamp(limit, 1, 1000), pageToken);
     }
 
     @DeleteMapping("/users/{userId}/scenarios/{id}")
     public void deleteScenario(@PathVariable String userId, @PathVariable String id) {
-        cloudStorageService.deleteScenario(userId, id);
+        scenarioStore.deleteScenario(userId, id);
     }
 
     @DeleteMapping("/message-samples/{messageId}")
     public void deleteMessageSample(@PathVariable String messageId) {
         cloudStorageService.deleteMessageSample(messageId);
     }
+
+    /**
+     * @return {@code null} when the 304 has already been written by {@link WebRequest#checkNotModified}
+     */
+    private static <T> ResponseEntity<T> versioned(Versioned<T> versioned) {
+        if (versioned == null) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (versioned.etag() != null) {
+            response.eTag(versioned.etag());
+        }
+        return response.body(versioned.value());
+    }
+
+    /**
+     * Unreadable blobs are named in a final {@code {"failedBlobs": [...]}} element.
+     */
+    private ResponseEntity<StreamingResponseBody> streamListing(BlobListing listing, WebRequest request) {
+        if (request.checkNotModified(listing.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(listing.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> cloudStorageService.streamListing(listing, out));
+    }
+
+    /**
+     * Streams the stored blob bytes into the response array as they download.
+     */
+    private static ResponseEntity<StreamingResponseBody> streamJson(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
 }
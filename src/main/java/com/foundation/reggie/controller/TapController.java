@@ -0,0 +1,59 @@
+package com.foundation.reggie.controller;
+
+import com.foundation.reggie.dto.TapRequest;
+import com.foundation.reggie.dto.TapSummary;
+import com.foundation.reggie.service.TapService;
+import com.foundation.reggie.service.TapSession;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@Tag(name = "Tap", description = "Verify delivery by subscribing and measuring publish-to-receive latency")
+@ConditionalOnProperty(name = "reggie.publish.transport", havingValue = "pubsub", matchIfMissing = true)
+@RequiredArgsConstructor
+public class TapController {
+    private final TapService tapService;
+
+    @Operation(summary = "Start a subscriber tap",
+            description = "Pulls and acks messages from an existing subscription, correlating each to its publish "
+                    + "by message ID or the reggie-published-at attribute")
+    @PostMapping("/taps")
+    public ResponseEntity<TapSummary> start(@RequestBody TapRequest request) {
+        TapSession tap = tapService.start(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(tap.summary());
+    }
+
+    @Operation(summary = "Stream received messages and their latency",
+            description = "Server-sent events: 'message' per received message, then 'summary' when the tap stops, "
+                    + "or 'disconnect' if this client falls too far behind")
+    @GetMapping(value = "/taps/{tapId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@PathVariable String tapId) {
+        return tapService.getTap(tapId).connect();
+    }
+
+    @Operation(summary = "Get tap counters and latency percentiles")
+    @GetMapping("/taps/{tapId}")
+    public TapSummary getTap(@PathVariable String tapId) {
+        return tapService.getTap(tapId).summary();
+    }
+
+    @Operation(summary = "Stop a tap")
+    @DeleteMapping("/taps/{tapId}")
+    public TapSummary stop(@PathVariable String tapId) {
+        TapSession tap = tapService.getTap(tapId);
+        tap.stop();
+        return tap.summary();
+    }
+}
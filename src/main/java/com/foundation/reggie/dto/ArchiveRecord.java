@@ -0,0 +1,24 @@
+package com.foundation.reggie.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import tools.jackson.databind.JsonNode;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "One line of an export archive")
+public record ArchiveRecord(
+        @Schema(description = "scenario, messageSample, or failedBlobs for the final record naming blobs the "
+                + "export had to leave out")
+        String kind,
+        @Schema(description = "Owner of a scenario; absent for message samples")
+        String userId,
+        String id,
+        @Schema(description = "Base64 CRC32C of the stored JSON, used to skip unchanged items on import")
+        String crc32c,
+        @Schema(description = "The scenario or message sample as stored, or the names of the left-out blobs")
+        JsonNode data
+) {
+    public static final String SCENARIO = "scenario";
+    public static final String MESSAGE_SAMPLE = "messageSample";
+    public static final String FAILED_BLOBS = "failedBlobs";
+}
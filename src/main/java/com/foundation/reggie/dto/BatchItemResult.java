@@ -0,0 +1,23 @@
+package com.foundation.reggie.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Outcome of one item in a batch publish")
+public record BatchItemResult(
+        @Schema(description = "Zero-based position of the item in the request")
+        long index,
+        @Schema(description = "The Pub/Sub message ID when the publish succeeded", example = "1234567890")
+        String messageId,
+        @Schema(description = "Error description when the publish failed")
+        String error
+) {
+    public static BatchItemResult success(long index, String messageId) {
+        return new BatchItemResult(index, messageId, null);
+    }
+
+    public static BatchItemResult error(long index, String error) {
+        return new BatchItemResult(index, null, error);
+    }
+}
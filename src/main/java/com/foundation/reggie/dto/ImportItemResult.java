@@ -0,0 +1,34 @@
+package com.foundation.reggie.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Outcome of one archive line in an import")
+public record ImportItemResult(
+        @Schema(description = "One-based line number in the archive; pass the first failed line as resumeFrom to retry")
+        long line,
+        @Schema(description = "scenario or messageSample")
+        String kind,
+        @Schema(description = "userId/scenarioId for scenarios, the sample ID for message samples")
+        String key,
+        Status status,
+        @Schema(description = "Error description when the item failed")
+        String error
+) {
+    public enum Status {
+        CREATED,
+        UPDATED,
+        @Schema(description = "The stored object already had the same CRC32C")
+        UNCHANGED,
+        FAILED
+    }
+
+    public static ImportItemResult of(long line, String kind, String key, Status status) {
+        return new ImportItemResult(line, kind, key, status, null);
+    }
+
+    public static ImportItemResult error(long line, String kind, String key, String error) {
+        return new ImportItemResult(line, kind, key, Status.FAILED, error);
+    }
+}
@@ -0,0 +1,7 @@
+package com.foundation.reggie.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Latency percentiles in milliseconds")
+public record LatencyPercentiles(long count, double p50, double p99, double p999, double max) {
+}
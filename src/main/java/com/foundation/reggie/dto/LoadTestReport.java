@@ -0,0 +1,36 @@
+package com.foundation.reggie.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Progress and latency distribution of a load test")
+public record LoadTestReport(
+        @Schema(description = "Load test run ID, used for status and cancel")
+        String runId,
+        Status status,
+        @Schema(description = "What is being replayed, e.g. scenario:user-1/checkout or sample:order-created")
+        String source,
+        Double targetRate,
+        int concurrency,
+        long sent,
+        long succeeded,
+        long failed,
+        @Schema(description = "Publishes rejected by admission control and retried after their Retry-After")
+        long throttled,
+        long elapsedMs,
+        @Schema(description = "Acknowledged messages per second since the run started")
+        double throughput,
+        @Schema(description = "Latency percentiles in milliseconds up to the acknowledgement, measured from the "
+                + "scheduled send time when targetRate is set")
+        LatencyPercentiles latencyMs,
+        @Schema(description = "First few distinct publish errors")
+        List<String> errors
+) {
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        CANCELLED,
+        FAILED
+    }
+}
@@ -0,0 +1,24 @@
+package com.foundation.reggie.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Load test replaying a stored scenario or message sample. "
+        + "Give either userId and scenarioId, or messageSampleId.")
+public record LoadTestRequest(
+        @Schema(description = "Owner of the scenario to replay")
+        String userId,
+        @Schema(description = "Scenario whose messages are replayed round-robin")
+        String scenarioId,
+        @Schema(description = "Message sample replayed repeatedly")
+        String messageSampleId,
+        @Schema(description = "Target publish rate in messages per second; omit or 0 for as fast as concurrency allows",
+                example = "500")
+        Double targetRate,
+        @Schema(description = "Maximum publishes awaiting acknowledgement", example = "100")
+        Integer concurrency,
+        @Schema(description = "Stop after this many messages", example = "10000")
+        Long totalMessages,
+        @Schema(description = "Stop after this many seconds", example = "60")
+        Long durationSeconds
+) {
+}
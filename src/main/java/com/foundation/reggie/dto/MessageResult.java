@@ -0,0 +1,32 @@
+package com.foundation.reggie.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Outcome of publishing a single scenario message")
+public record MessageResult(
+        @Schema(description = "Whether the publish succeeded", example = "success")
+        Status status,
+        @Schema(description = "The Pub/Sub message ID when the publish succeeded", example = "1234567890")
+        String messageId,
+        @Schema(description = "Error description when the publish failed, or what was published before a cancel")
+        String error
+) {
+    public enum Status {
+        success,
+        error,
+        @Schema(description = "The playback was cancelled before every repetition was published")
+        cancelled
+    }
+
+    public static MessageResult success(String messageId) {
+        return new MessageResult(Status.success, messageId, null);
+    }
+
+    public static MessageResult error(String error) {
+        return new MessageResult(Status.error, null, error);
+    }
+
+    public static MessageResult cancelled(String messageId, String detail) {
+        return new MessageResult(Status.cancelled, messageId, detail);
+    }
+}
@@ -0,0 +1,16 @@
+package com.foundation.reggie.dto;
+
+import com.foundation.reggie.model.MessageSample;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "One page of message samples matching a search, ordered by message ID")
+public record MessageSamplePage(
+        List<MessageSample> items,
+        @Schema(description = "Samples matching the search across all pages")
+        int total,
+        @Schema(description = "Token for the next page; absent on the last page")
+        String nextPageToken
+) {
+}
@@ -0,0 +1,30 @@
+package com.foundation.reggie.dto;
+
+import com.foundation.reggie.model.PlaybackStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+@Schema(description = "Point-in-time view of a server-side scenario playback")
+public record PlaybackSnapshot(
+        @Schema(description = "Playback run ID, used for pause/resume/cancel")
+        String runId,
+        String userId,
+        String scenarioId,
+        PlaybackStatus status,
+        @Schema(description = "Column currently being published (0 = not started)")
+        int currentColumn,
+        @Schema(description = "Last fully completed column")
+        int completedColumns,
+        long columnDelayMs,
+        @Schema(description = "Publishes acknowledged so far, counting every repetition of templated messages")
+        long publishedMessages,
+        @Schema(description = "Publishes that failed so far")
+        long failedMessages,
+        List<String> errors,
+        @Schema(description = "Per-message results keyed by scenario message ID; a repeated message reports "
+                + "its first error, or the message ID of its last publish")
+        Map<String, MessageResult> messageResults
+) {
+}
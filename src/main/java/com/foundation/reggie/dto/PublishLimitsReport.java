@@ -0,0 +1,27 @@
+package com.foundation.reggie.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+@Schema(description = "Current admission control state for publishes")
+public record PublishLimitsReport(
+        boolean enabled,
+        Limit global,
+        @Schema(description = "Topics recently published to, by name; idle ones are evicted beyond max-topics")
+        Map<String, Limit> topics
+) {
+    public record Limit(
+            int inFlight,
+            @Schema(description = "Zero when unlimited")
+            int maxInFlight,
+            @Schema(description = "Publishes per second; zero when unlimited")
+            double rate,
+            int burst,
+            @Schema(description = "Tokens currently in the bucket")
+            double availableTokens,
+            long rejectedInFlight,
+            long rejectedRate
+    ) {
+    }
+}
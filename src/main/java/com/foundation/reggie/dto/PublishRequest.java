@@ -18,6 +18,10 @@ public class PublishRequest {
     @Schema(description = "Optional message attributes", example = "{\"key\": \"value\"}")
     private Map<String, String> attributes;
 
+    @Schema(description = "Optional ordering key; messages with the same key are delivered in publish order",
+            example = "order-123")
+    private String orderingKey;
+
     @Schema(description = "Message payload (will be deserialized to className)",
             example = "{\"orderId\": \"123\", \"customerId\": \"456\", \"amount\": 99.99}",
             requiredMode = Schema.RequiredMode.REQUIRED)
@@ -0,0 +1,20 @@
+package com.foundation.reggie.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Status of a fire-and-forget publish")
+public record PublishTracking(
+        @Schema(description = "Tracking ID returned by POST /publish?await=false")
+        String trackingId,
+        Status status,
+        @Schema(description = "The Pub/Sub message ID once published", example = "1234567890")
+        String messageId,
+        @Schema(description = "Error description when the publish failed")
+        String error
+) {
+    public enum Status {
+        PENDING,
+        PUBLISHED,
+        FAILED
+    }
+}
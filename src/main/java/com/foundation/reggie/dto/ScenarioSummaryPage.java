@@ -0,0 +1,14 @@
+package com.foundation.reggie.dto;
+
+import com.foundation.reggie.model.ScenarioSummary;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "One page of scenario summaries, ordered by scenario ID")
+public record ScenarioSummaryPage(
+        List<ScenarioSummary> items,
+        @Schema(description = "Token for the next page; absent on the last page")
+        String nextPageToken
+) {
+}
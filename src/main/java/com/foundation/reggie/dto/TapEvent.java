@@ -0,0 +1,21 @@
+package com.foundation.reggie.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Schema(description = "One message received by a tap")
+public record TapEvent(
+        String messageId,
+        String orderingKey,
+        Map<String, String> attributes,
+        @Schema(description = "When the message was published, or null if it could not be correlated")
+        Instant publishedAt,
+        Instant receivedAt,
+        @Schema(description = "Publish-to-receive latency in milliseconds, or null if it could not be correlated")
+        Double latencyMs,
+        @Schema(description = "How the publish time was found: ledger (published by this instance), attribute, or null")
+        String correlatedBy
+) {
+}
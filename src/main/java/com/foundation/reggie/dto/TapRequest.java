@@ -0,0 +1,12 @@
+package com.foundation.reggie.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Subscribe to an existing subscription and report publish-to-receive latency")
+public record TapRequest(
+        @Schema(description = "Subscription ID in the configured project", requiredMode = Schema.RequiredMode.REQUIRED)
+        String subscription,
+        @Schema(description = "Stop the tap after this many seconds; capped by reggie.tap.max-duration")
+        Long durationSeconds
+) {
+}
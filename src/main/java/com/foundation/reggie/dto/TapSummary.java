@@ -0,0 +1,31 @@
+package com.foundation.reggie.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "Delivery counters and latency distribution of a subscriber tap")
+public record TapSummary(
+        String tapId,
+        String subscription,
+        Status status,
+        Instant startedAt,
+        Instant expiresAt,
+        long received,
+        long correlated,
+        @Schema(description = "Messages with neither a ledger entry nor a publish time attribute")
+        long uncorrelated,
+        @Schema(description = "Currently connected SSE clients")
+        int clients,
+        @Schema(description = "SSE clients disconnected because they fell behind")
+        long slowClientsDisconnected,
+        @Schema(description = "Publish-to-receive latency percentiles of correlated messages in milliseconds")
+        LatencyPercentiles latencyMs,
+        String error
+) {
+    public enum Status {
+        RUNNING,
+        STOPPED,
+        FAILED
+    }
+}
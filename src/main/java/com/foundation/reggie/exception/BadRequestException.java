@@ -0,0 +1,10 @@
+package com.foundation.reggie.exception;
+
+/**
+ * Invalid client input, answered with {@code 400}.
+ */
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
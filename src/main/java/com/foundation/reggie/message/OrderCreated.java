@@ -1,8 +1,10 @@
 package com.foundation.reggie.message;
 
+import com.foundation.reggie.registry.ReggieMessage;
 import lombok.Data;
 
 @Data
+@ReggieMessage("OrderCreated")
 public class OrderCreated {
     private String orderId;
     private String customerId;
@@ -0,0 +1,13 @@
+package com.foundation.reggie.model;
+
+public enum PlaybackStatus {
+    PLAYING,
+    PAUSED,
+    COMPLETED,
+    FAILED,
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
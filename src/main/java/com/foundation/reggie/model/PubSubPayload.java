@@ -9,5 +9,6 @@ public class PubSubPayload {
     private String className;
     private String topic;
     private Map<String, String> attributes;
+    private String orderingKey;
     private Map<String, Object> message;
 }
@@ -0,0 +1,25 @@
+package com.foundation.reggie.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The operations of one {@code PATCH}, stored at {@code {userId}/journals/{scenarioId}/{seq}.json}
+ * and replayed in {@code seq} order on top of the scenario snapshot.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScenarioJournalEntry {
+    private long seq;
+    private List<ScenarioOperation> operations;
+    /**
+     * Generation and metageneration of the snapshot the operations were validated against;
+     * the entry can only be published while the snapshot is still that version.
+     */
+    private Long snapshotGeneration;
+    private Long snapshotMetageneration;
+}
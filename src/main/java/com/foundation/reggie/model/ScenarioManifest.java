@@ -0,0 +1,14 @@
+package com.foundation.reggie.model;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-user index of scenario summaries, kept sorted by scenario ID.
+ */
+@Data
+public class ScenarioManifest {
+    private List<ScenarioSummary> scenarios = new ArrayList<>();
+}
@@ -7,4 +7,12 @@ public class ScenarioMessage {
     private String id;
     private int column;  // 1-30
     private PubSubPayload payload;
+    /**
+     * Expand {{placeholders}} in the payload's string values and attributes at publish time.
+     */
+    private boolean template;
+    /**
+     * How many times the message is published when its column plays.
+     */
+    private int repeat = 1;
 }
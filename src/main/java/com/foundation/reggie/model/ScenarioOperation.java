@@ -0,0 +1,106 @@
+package com.foundation.reggie.model;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.foundation.reggie.exception.BadRequestException;
+
+import java.util.ArrayList;
+
+/**
+ * One fine-grained change to a scenario, as accepted by {@code PATCH} and stored in the
+ * scenario's change journal. Fields left {@code null} are unchanged.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "op")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = ScenarioOperation.AddMessage.class, name = "add"),
+        @JsonSubTypes.Type(value = ScenarioOperation.MoveMessage.class, name = "move"),
+        @JsonSubTypes.Type(value = ScenarioOperation.RemoveMessage.class, name = "remove"),
+        @JsonSubTypes.Type(value = ScenarioOperation.EditMessage.class, name = "edit"),
+        @JsonSubTypes.Type(value = ScenarioOperation.Rename.class, name = "rename")
+})
+public sealed interface ScenarioOperation {
+
+    /**
+     * @throws BadRequestException if the operation does not apply to the scenario,
+     *                                  e.g. it names a message the scenario does not have
+     */
+    void applyTo(Scenario scenario);
+
+    record AddMessage(ScenarioMessage message) implements ScenarioOperation {
+        @Override
+        public void applyTo(Scenario scenario) {
+            if (message == null || message.getId() == null) {
+                throw new BadRequestException("add requires a message with an id");
+            }
+            if (scenario.getMessages() == null) {
+                scenario.setMessages(new ArrayList<>());
+            } else if (find(scenario, message.getId()) != null) {
+                throw new BadRequestException("Message already exists: " + message.getId());
+            }
+            scenario.getMessages().add(message);
+        }
+    }
+
+    record MoveMessage(String messageId, int column) implements ScenarioOperation {
+        @Override
+        public void applyTo(Scenario scenario) {
+            require(scenario, messageId).setColumn(column);
+        }
+    }
+
+    record RemoveMessage(String messageId) implements ScenarioOperation {
+        @Override
+        public void applyTo(Scenario scenario) {
+            scenario.getMessages().remove(require(scenario, messageId));
+        }
+    }
+
+    record EditMessage(String messageId, PubSubPayload payload, Boolean template, Integer repeat)
+            implements ScenarioOperation {
+        @Override
+        public void applyTo(Scenario scenario) {
+            ScenarioMessage message = require(scenario, messageId);
+            if (payload != null) {
+                message.setPayload(payload);
+            }
+            if (template != null) {
+                message.setTemplate(template);
+            }
+            if (repeat != null) {
+                message.setRepeat(repeat);
+            }
+        }
+    }
+
+    record Rename(String name, String description) implements ScenarioOperation {
+        @Override
+        public void applyTo(Scenario scenario) {
+            if (name != null) {
+                scenario.setName(name);
+            }
+            if (description != null) {
+                scenario.setDescription(description);
+            }
+        }
+    }
+
+    private static ScenarioMessage find(Scenario scenario, String messageId) {
+        if (scenario.getMessages() == null) {
+            return null;
+        }
+        for (ScenarioMessage message : scenario.getMessages()) {
+            if (message.getId() != null && message.getId().equals(messageId)) {
+                return message;
+            }
+        }
+        return null;
+    }
+
+    private static ScenarioMessage require(Scenario scenario, String messageId) {
+        ScenarioMessage message = find(scenario, messageId);
+        if (message == null) {
+            throw new BadRequestException("No message " + messageId + " in scenario " + scenario.getId());
+        }
+        return message;
+    }
+}
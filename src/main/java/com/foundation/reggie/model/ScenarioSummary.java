@@ -0,0 +1,20 @@
+package com.foundation.reggie.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScenarioSummary {
+    private String id;
+    private String name;
+    private String description;
+    private int messageCount;
+
+    public static ScenarioSummary of(Scenario scenario) {
+        int messageCount = scenario.getMessages() == null ? 0 : scenario.getMessages().size();
+        return new ScenarioSummary(scenario.getId(), scenario.getName(), scenario.getDescription(), messageCount);
+    }
+}
@@ -0,0 +1,43 @@
+package com.foundation.reggie.registry;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Reads the {@link ReggieMessage} index generated at build time by
+ * {@code reggie-message-processor}.
+ */
+final class MessageIndex {
+    static final String LOCATION = "META-INF/reggie/messages.properties";
+
+    private MessageIndex() {
+    }
+
+    /**
+     * @return registered names mapped to binary class names, merged across all index files on the classpath
+     */
+    static Map<String, String> load(ClassLoader classLoader) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(LOCATION);
+            while (resources.hasMoreElements()) {
+                Properties properties = new Properties();
+                try (Reader reader = new InputStreamReader(resources.nextElement().openStream(), StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                }
+                properties.stringPropertyNames().forEach(name -> entries.put(name, properties.getProperty(name)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read message index " + LOCATION, e);
+        }
+        return entries;
+    }
+}
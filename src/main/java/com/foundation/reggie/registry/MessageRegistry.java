@@ -1,42 +1,176 @@
 package com.foundation.reggie.registry;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import tools.jackson.databind.DeserializationFeature;
 import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.MapperFeature;
 import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.cfg.EnumFeature;
+import tools.jackson.databind.cfg.MapperBuilder;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
 import com.foundation.reggie.exception.MessageDeserializationException;
 import com.foundation.reggie.exception.UnknownMessageTypeException;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 public class MessageRegistry {
-    private final Map<String, Class<?>> registry = new ConcurrentHashMap<>();
+    private final Map<String, MessageType> registry = new ConcurrentHashMap<>();
+    private final Map<String, IndexedType> indexed = new ConcurrentHashMap<>();
     private final ObjectMapper objectMapper;
+    private final Map<PayloadEncoding, ObjectMapper> binaryMappers;
 
     public MessageRegistry(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
+        this.binaryMappers = Map.of(
+                PayloadEncoding.SMILE, deriveMapper(objectMapper, SmileMapper.builder()),
+                PayloadEncoding.CBOR, deriveMapper(objectMapper, CBORMapper.builder()));
+    }
+
+    /**
+     * A mapper for another format with the features, modules and property inclusion of {@code objectMapper}.
+     */
+    static ObjectMapper deriveMapper(ObjectMapper objectMapper, MapperBuilder<?, ?> builder) {
+        for (MapperFeature feature : MapperFeature.values()) {
+            builder.configure(feature, objectMapper.isEnabled(feature));
+        }
+        for (SerializationFeature feature : SerializationFeature.values()) {
+            builder.configure(feature, objectMapper.isEnabled(feature));
+        }
+        for (DeserializationFeature feature : DeserializationFeature.values()) {
+            builder.configure(feature, objectMapper.isEnabled(feature));
+        }
+        for (DateTimeFeature feature : DateTimeFeature.values()) {
+            builder.configure(feature, objectMapper.isEnabled(feature));
+        }
+        for (EnumFeature feature : EnumFeature.values()) {
+            builder.configure(feature, objectMapper.isEnabled(feature));
+        }
+        JsonInclude.Value inclusion = objectMapper.serializationConfig().getDefaultPropertyInclusion();
+        builder.changeDefaultPropertyInclusion(ignored -> inclusion);
+        builder.addModules(objectMapper.registeredModules());
+        return builder.build();
     }
 
     public void register(String name, Class<?> clazz) {
-        registry.put(name, clazz);
+        register(name, clazz, MessageTypeOptions.defaults());
+    }
+
+    public void register(String name, Class<?> clazz, MessageTypeOptions options) {
+        registry.put(name, MessageType.of(name, clazz, options, objectMapper, binaryMappers));
+    }
+
+    /**
+     * Registers every type in the build-time index, loading them now if {@code eager} or else on first use.
+     *
+     * @param strictTypes names deserialized strictly in addition to those annotated {@code strict = true}
+     */
+    public void registerIndexed(ClassLoader classLoader, boolean eager, Set<String> strictTypes) {
+        Map<String, String> index = MessageIndex.load(classLoader);
+        index.forEach((name, className) ->
+                indexed.put(name, new IndexedType(className, classLoader, strictTypes.contains(name))));
+        if (eager) {
+            index.keySet().forEach(this::resolveIndexed);
+        }
+        log.info("Registered {} indexed message types ({})", index.size(), eager ? "eager" : "lazy");
     }
 
     public Optional<Class<?>> getClass(String name) {
-        return Optional.ofNullable(registry.get(name));
+        return Optional.ofNullable(lookup(name)).map(MessageType::type);
     }
 
-    public Object deserialize(String name, JsonNode node) {
-        log.info("a\n\n{}",node);
-        Class<?> clazz = registry.get(name);
-        if (clazz == null) {
+    public MessageType getType(String name) {
+        MessageType type = lookup(name);
+        if (type == null) {
             throw new UnknownMessageTypeException(name);
         }
+        return type;
+    }
+
+    private MessageType lookup(String name) {
+        MessageType type = registry.get(name);
+        return type != null ? type : resolveIndexed(name);
+    }
+
+    private MessageType resolveIndexed(String name) {
+        IndexedType entry = indexed.get(name);
+        if (entry == null) {
+            return null;
+        }
+        try {
+            return registry.computeIfAbsent(name, n -> {
+                Class<?> clazz = entry.load();
+                ReggieMessage annotation = clazz.getAnnotation(ReggieMessage.class);
+                boolean strict = entry.strict() || (annotation != null && annotation.strict());
+                return MessageType.of(n, clazz, strict ? MessageTypeOptions.strict() : MessageTypeOptions.defaults(),
+                        objectMapper, binaryMappers);
+            });
+        } catch (IllegalStateException e) {
+            log.warn("Skipping indexed message type {}: {}", name, e.getMessage());
+            indexed.remove(name);
+            return null;
+        }
+    }
+
+    public Object deserialize(String name, JsonNode node) {
+        MessageType type = getType(name);
+        log.debug("Deserializing {} from {}", name, node);
+        try {
+            return type.reader().readValue(node);
+        } catch (Exception e) {
+            throw new MessageDeserializationException(name, e);
+        }
+    }
+
+    /**
+     * Reads the message straight from raw JSON bytes, skipping the intermediate tree.
+     */
+    public Object deserialize(String name, byte[] content) {
+        MessageType type = getType(name);
+        log.debug("Deserializing {} from {} bytes", name, content.length);
+        try {
+            return type.reader().readValue(content);
+        } catch (Exception e) {
+            throw new MessageDeserializationException(name, e);
+        }
+    }
+
+    /**
+     * Reads the message straight from a JSON stream, such as a request body.
+     */
+    public Object deserialize(String name, InputStream content) {
+        MessageType type = getType(name);
+        log.debug("Deserializing {} from stream", name);
         try {
-            return objectMapper.treeToValue(node, clazz);
+            return type.reader().readValue(content);
         } catch (Exception e) {
             throw new MessageDeserializationException(name, e);
         }
     }
+
+    /**
+     * Writes the message straight into {@code out} in the given encoding.
+     */
+    public void serialize(MessageType type, Object message, PayloadEncoding encoding, OutputStream out) {
+        type.writer(encoding).writeValue(out, message);
+    }
+
+    private record IndexedType(String className, ClassLoader classLoader, boolean strict) {
+        Class<?> load() {
+            try {
+                return Class.forName(className, true, classLoader);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("Indexed class not found: " + className, e);
+            }
+        }
+    }
 }
@@ -0,0 +1,48 @@
+package com.foundation.reggie.registry;
+
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A registered message class together with metadata computed once at registration.
+ *
+ * @param fieldTypes declared field names mapped to their simple type names
+ * @param reader     reader specialized for the type, with its {@link MessageTypeOptions} applied
+ * @param writers    writers specialized for the type, one per {@link PayloadEncoding}
+ */
+public record MessageType(String name, Class<?> type, Map<String, String> fieldTypes,
+                          ObjectReader reader, Map<PayloadEncoding, ObjectWriter> writers) {
+
+    public ObjectWriter writer(PayloadEncoding encoding) {
+        return writers.get(encoding);
+    }
+
+    static MessageType of(String name, Class<?> type, MessageTypeOptions options, ObjectMapper objectMapper,
+                          Map<PayloadEncoding, ObjectMapper> binaryMappers) {
+        Map<String, String> fieldTypes = new LinkedHashMap<>();
+        Arrays.stream(type.getDeclaredFields())
+                .filter(f -> !f.isSynthetic())
+                .forEach(f -> fieldTypes.put(f.getName(), f.getType().getSimpleName()));
+
+        ObjectReader reader = objectMapper.readerFor(type);
+        if (!options.enabled().isEmpty()) {
+            reader = reader.withFeatures(options.enabled().toArray(DeserializationFeature[]::new));
+        }
+        if (!options.disabled().isEmpty()) {
+            reader = reader.withoutFeatures(options.disabled().toArray(DeserializationFeature[]::new));
+        }
+        Map<PayloadEncoding, ObjectWriter> writers = new EnumMap<>(PayloadEncoding.class);
+        writers.put(PayloadEncoding.JSON, objectMapper.writerFor(type));
+        binaryMappers.forEach((encoding, mapper) -> writers.put(encoding, mapper.writerFor(type)));
+        return new MessageType(name, type, Collections.unmodifiableMap(fieldTypes), reader,
+                Collections.unmodifiableMap(writers));
+    }
+}
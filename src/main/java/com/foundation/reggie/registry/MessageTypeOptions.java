@@ -0,0 +1,30 @@
+package com.foundation.reggie.registry;
+
+import tools.jackson.databind.DeserializationFeature;
+
+import java.util.Set;
+
+/**
+ * Per-type deserialization features applied on top of the shared {@code ObjectMapper}
+ * configuration when the type's reader is built.
+ */
+public record MessageTypeOptions(Set<DeserializationFeature> enabled, Set<DeserializationFeature> disabled) {
+
+    private static final MessageTypeOptions DEFAULTS = new MessageTypeOptions(Set.of(), Set.of());
+
+    private static final MessageTypeOptions STRICT = new MessageTypeOptions(Set.of(
+            DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES,
+            DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES,
+            DeserializationFeature.FAIL_ON_TRAILING_TOKENS), Set.of());
+
+    public static MessageTypeOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Rejects unknown properties, nulls for primitives and trailing content.
+     */
+    public static MessageTypeOptions strict() {
+        return STRICT;
+    }
+}
@@ -0,0 +1,28 @@
+package com.foundation.reggie.registry;
+
+/**
+ * Wire format of a published payload, recorded in the {@value #ATTRIBUTE} message attribute.
+ */
+public enum PayloadEncoding {
+    JSON("json"),
+    /**
+     * Jackson's binary JSON; same data model as JSON with back-references for repeated names.
+     */
+    SMILE("smile"),
+    /**
+     * RFC 8949 Concise Binary Object Representation, readable without Jackson.
+     */
+    CBOR("cbor");
+
+    public static final String ATTRIBUTE = "reggie-encoding";
+
+    private final String attributeValue;
+
+    PayloadEncoding(String attributeValue) {
+        this.attributeValue = attributeValue;
+    }
+
+    public String attributeValue() {
+        return attributeValue;
+    }
+}
@@ -0,0 +1,26 @@
+package com.foundation.reggie.registry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a publishable message type, listed in the build-time index {@link MessageRegistry} loads.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReggieMessage {
+
+    /**
+     * Registered name used as {@code className} in publish requests; defaults to the simple class name.
+     */
+    String value() default "";
+
+    /**
+     * Deserialize with {@link MessageTypeOptions#strict()}.
+     */
+    boolean strict() default false;
+}
@@ -0,0 +1,192 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.dto.ArchiveRecord;
+import com.foundation.reggie.dto.ImportItemResult;
+import com.foundation.reggie.exception.BadRequestException;
+import com.foundation.reggie.model.MessageSample;
+import com.foundation.reggie.model.Scenario;
+import com.foundation.reggie.model.ScenarioSummary;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming export and import of scenarios and message samples as gzip NDJSON, one {@link ArchiveRecord} per line.
+ */
+@Slf4j
+@Service
+public class ArchiveService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final CloudStorageService cloudStorageService;
+    private final ScenarioWriteBehind scenarioWriteBehind;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader recordReader;
+    private final int parallelism;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ArchiveService(
+            CloudStorageService cloudStorageService,
+            ScenarioWriteBehind scenarioWriteBehind,
+            ObjectMapper objectMapper,
+            @Value("${reggie.import.parallelism:8}") int parallelism) {
+        this.cloudStorageService = cloudStorageService;
+        this.scenarioWriteBehind = scenarioWriteBehind;
+        this.objectMapper = objectMapper;
+        this.recordReader = objectMapper.readerFor(ArchiveRecord.class);
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param prefix a blob name prefix such as {@code user-1/} or {@code message-samples/},
+     *               or {@code null} for everything
+     */
+    public void exportArchive(String prefix, OutputStream out) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE);
+        cloudStorageService.exportArchive(prefix, gzip);
+        gzip.finish();
+    }
+
+    /**
+     * Writes one {@link ImportItemResult} line per item; items already stored with the same CRC32C are
+     * {@code UNCHANGED}. Manifests are updated once at the end, also if the import stops early.
+     *
+     * @param resumeFrom the first one-based line to import
+     */
+    public void importArchive(InputStream in, long resumeFrom, OutputStream out) throws IOException {
+        Map<String, Map<String, ScenarioSummary>> stored = new ConcurrentHashMap<>();
+        Deque<CompletableFuture<ImportItemResult>> window = new ArrayDeque<>();
+        long line = 0;
+        try (MappingIterator<ArchiveRecord> records = recordReader.readValues(decompress(in))) {
+            while (true) {
+                ArchiveRecord record;
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    record = records.nextValue();
+                } catch (Exception e) {
+                    window.add(CompletableFuture.completedFuture(
+                            ImportItemResult.error(line + 1, null, null, "Malformed line: " + e.getMessage())));
+                    break;
+                }
+                long current = ++line;
+                if (current < resumeFrom) {
+                    continue;
+                }
+                window.add(CompletableFuture.supplyAsync(() -> importRecord(current, record, stored), executor));
+                boolean wrote = false;
+                while (!window.isEmpty() && (window.size() >= parallelism || window.peek().isDone())) {
+                    write(out, window.poll().join());
+                    wrote = true;
+                }
+                if (wrote) {
+                    out.flush();
+                }
+            }
+            while (!window.isEmpty()) {
+                write(out, window.poll().join());
+            }
+        } finally {
+            // importRecord never fails, so this only waits for uploads still in flight
+            window.forEach(CompletableFuture::join);
+            updateManifests(stored);
+        }
+        out.flush();
+    }
+
+    private void updateManifests(Map<String, Map<String, ScenarioSummary>> stored) {
+        stored.forEach((userId, summaries) -> {
+            try {
+                cloudStorageService.addScenarioSummaries(userId, summaries.values());
+            } catch (RuntimeException e) {
+                log.error("Imported scenarios of {} but could not update its manifest", userId, e);
+            }
+        });
+    }
+
+    private ImportItemResult importRecord(long line, ArchiveRecord record,
+                                          Map<String, Map<String, ScenarioSummary>> stored) {
+        String kind = record.kind();
+        String key = ArchiveRecord.SCENARIO.equals(kind) ? record.userId() + "/" + record.id() : record.id();
+        if (ArchiveRecord.FAILED_BLOBS.equals(kind)) {
+            // Reported so whoever imports knows the archive is incomplete
+            return ImportItemResult.error(line, kind, null, "The export left out unreadable blobs: " + record.data());
+        }
+        try {
+            requireName("id", record.id());
+            if (record.data() == null) {
+                throw new BadRequestException("data is required");
+            }
+            ImportItemResult.Status status;
+            if (ArchiveRecord.SCENARIO.equals(kind)) {
+                requireName("userId", record.userId());
+                Scenario scenario = objectMapper.treeToValue(record.data(), Scenario.class);
+                requireSameId(record.id(), scenario.getId());
+                status = scenarioWriteBehind.importScenario(record.userId(), scenario, record.crc32c());
+                // Unchanged scenarios too: an earlier interrupted import may have stored them unlisted
+                stored.computeIfAbsent(record.userId(), userId -> new ConcurrentHashMap<>())
+                        .put(scenario.getId(), ScenarioSummary.of(scenario));
+            } else if (ArchiveRecord.MESSAGE_SAMPLE.equals(kind)) {
+                MessageSample sample = objectMapper.treeToValue(record.data(), MessageSample.class);
+                requireSameId(record.id(), sample.getMessageId());
+                status = cloudStorageService.importMessageSample(sample, record.crc32c());
+            } else {
+                throw new BadRequestException("Unknown kind: " + kind);
+            }
+            return ImportItemResult.of(line, kind, key, status);
+        } catch (Exception e) {
+            return ImportItemResult.error(line, kind, key, e.getMessage());
+        }
+    }
+
+    private static void requireName(String field, String value) {
+        if (value == null || value.isBlank() || value.contains("/")) {
+            throw new BadRequestException(field + " must be non-empty and must not contain '/'");
+        }
+    }
+
+    private static void requireSameId(String id, String dataId) {
+        if (!id.equals(dataId)) {
+            throw new BadRequestException("id " + id + " does not match the data's id " + dataId);
+        }
+    }
+
+    private static InputStream decompress(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, BUFFER_SIZE);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        boolean gzip = first == 0x1f && second == 0x8b;
+        return gzip ? new GZIPInputStream(buffered, BUFFER_SIZE) : buffered;
+    }
+
+    private void write(OutputStream out, ImportItemResult result) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(result));
+        out.write('\n');
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,102 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.dto.BatchItemResult;
+import com.foundation.reggie.dto.PublishRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publishes many messages without waiting for each acknowledgement; results are in input order.
+ */
+@Service
+public class BatchPublishService {
+    private final MessagePublishService messagePublishService;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader requestReader;
+    private final int maxInFlight;
+
+    public BatchPublishService(
+            MessagePublishService messagePublishService,
+            ObjectMapper objectMapper,
+            @Value("${reggie.publish.batch.max-in-flight:1000}") int maxInFlight) {
+        this.messagePublishService = messagePublishService;
+        this.objectMapper = objectMapper;
+        this.requestReader = objectMapper.readerFor(PublishRequest.class);
+        this.maxInFlight = maxInFlight;
+    }
+
+    public CompletableFuture<List<BatchItemResult>> publishAll(List<PublishRequest> requests) {
+        List<CompletableFuture<BatchItemResult>> futures = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            futures.add(publish(i, requests.get(i)));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    /**
+     * Writes one {@link BatchItemResult} line per NDJSON request line, with at most
+     * {@code reggie.publish.batch.max-in-flight} awaiting acknowledgement; an unparsable line ends the stream.
+     */
+    public void publishStream(InputStream in, OutputStream out) throws IOException {
+        Deque<CompletableFuture<BatchItemResult>> window = new ArrayDeque<>();
+        long index = 0;
+        try (MappingIterator<PublishRequest> requests = requestReader.readValues(in)) {
+            while (true) {
+                PublishRequest request;
+                try {
+                    if (!requests.hasNextValue()) {
+                        break;
+                    }
+                    request = requests.nextValue();
+                } catch (Exception e) {
+                    window.add(CompletableFuture.completedFuture(
+                            BatchItemResult.error(index, "Malformed request: " + e.getMessage())));
+                    break;
+                }
+                window.add(publish(index++, request));
+                boolean wrote = false;
+                while (!window.isEmpty() && (window.size() >= maxInFlight || window.peek().isDone())) {
+                    write(out, window.poll().join());
+                    wrote = true;
+                }
+                if (wrote) {
+                    out.flush();
+                }
+            }
+        }
+        while (!window.isEmpty()) {
+            write(out, window.poll().join());
+        }
+        out.flush();
+    }
+
+    private CompletableFuture<BatchItemResult> publish(long index, PublishRequest request) {
+        try {
+            return messagePublishService.publishAsync(request.getClassName(), request.getTopic(),
+                            request.getMessage(), request.getAttributes(), request.getOrderingKey())
+                    .handle((published, e) -> e == null
+                            ? BatchItemResult.success(index, published.messageId())
+                            : BatchItemResult.error(index, Futures.unwrap(e).getMessage()));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(BatchItemResult.error(index, e.getMessage()));
+        }
+    }
+
+    private void write(OutputStream out, BatchItemResult result) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(result));
+        out.write('\n');
+    }
+}
@@ -0,0 +1,178 @@
+package com.foundation.reggie.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of blob contents, served only for the GCS generation they were read at.
+ * Listings are cached per prefix for {@code reggie.storage.cache.listing-ttl} and dropped on local writes.
+ */
+@Component
+public class BlobCache {
+    private final boolean enabled;
+    private final long maxBytes;
+    private final long listingTtlNanos;
+    private final int maxListings;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, CachedListing> listings = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong listingInvalidations = new AtomicLong();
+    private long sizeBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Counter listingHits;
+    private final Counter listingMisses;
+
+    public BlobCache(
+            @Value("${reggie.storage.cache.enabled:true}") boolean enabled,
+            @Value("${reggie.storage.cache.max-bytes:67108864}") long maxBytes,
+            @Value("${reggie.storage.cache.listing-ttl:5s}") Duration listingTtl,
+            @Value("${reggie.storage.cache.max-listings:1000}") int maxListings,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.listingTtlNanos = listingTtl.toNanos();
+        this.maxListings = maxListings;
+        this.listingHits = Counter.builder("reggie.storage.cache.listings").tag("result", "hit")
+                .register(meterRegistry);
+        this.listingMisses = Counter.builder("reggie.storage.cache.listings").tag("result", "miss")
+                .register(meterRegistry);
+        this.hits = Counter.builder("reggie.storage.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("reggie.storage.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("reggie.storage.cache.evictions").register(meterRegistry);
+        Gauge.builder("reggie.storage.cache.size", this, BlobCache::sizeBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("reggie.storage.cache.entries", this, BlobCache::entryCount).register(meterRegistry);
+    }
+
+    /**
+     * @return the cached content, or {@code null} if absent or cached for a different generation
+     */
+    public byte[] get(String blobName, Long generation) {
+        if (!enabled) {
+            return null;
+        }
+        byte[] content;
+        synchronized (this) {
+            Entry entry = entries.get(blobName);
+            content = entry != null && Objects.equals(entry.generation(), generation) ? entry.content() : null;
+        }
+        (content != null ? hits : misses).increment();
+        return content;
+    }
+
+    public void put(String blobName, Long generation, byte[] content) {
+        if (!enabled || generation == null || content.length > maxBytes) {
+            return;
+        }
+        int evicted = 0;
+        synchronized (this) {
+            Entry previous = entries.put(blobName, new Entry(generation, content));
+            if (previous != null) {
+                sizeBytes -= previous.content().length;
+            }
+            sizeBytes += content.length;
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (sizeBytes > maxBytes && eldest.hasNext()) {
+                sizeBytes -= eldest.next().getValue().content().length;
+                eldest.remove();
+                evicted++;
+            }
+        }
+        evictions.increment(evicted);
+    }
+
+    public synchronized void invalidate(String blobName) {
+        Entry removed = entries.remove(blobName);
+        if (removed != null) {
+            sizeBytes -= removed.content().length;
+        }
+    }
+
+    /**
+     * @return a token to pass to {@link #putListing}, taken before listing
+     */
+    public long listingVersion() {
+        return listingInvalidations.get();
+    }
+
+    /**
+     * @return the cached listing of {@code prefix}, or {@code null} if absent or older than the TTL
+     */
+    public CloudStorageService.BlobListing getListing(String prefix) {
+        if (!listingsEnabled()) {
+            return null;
+        }
+        CloudStorageService.BlobListing listing;
+        synchronized (listings) {
+            CachedListing cached = listings.get(prefix);
+            boolean fresh = cached != null && System.nanoTime() - cached.listedAt() < listingTtlNanos;
+            listing = fresh ? cached.listing() : null;
+        }
+        (listing != null ? listingHits : listingMisses).increment();
+        return listing;
+    }
+
+    /**
+     * Caches the listing unless a blob was written or deleted since {@code version} was taken.
+     */
+    public void putListing(CloudStorageService.BlobListing listing, long version, long listedAt) {
+        if (!listingsEnabled()) {
+            return;
+        }
+        synchronized (listings) {
+            if (listingInvalidations.get() != version) {
+                return;
+            }
+            listings.put(listing.prefix(), new CachedListing(listing, listedAt));
+            Iterator<CachedListing> eldest = listings.values().iterator();
+            while (listings.size() > maxListings && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Drops every cached listing that includes {@code blobName}; call on each write or delete.
+     */
+    public void invalidateListings(String blobName) {
+        if (!listingsEnabled()) {
+            return;
+        }
+        synchronized (listings) {
+            listingInvalidations.incrementAndGet();
+            listings.keySet().removeIf(blobName::startsWith);
+        }
+    }
+
+    private boolean listingsEnabled() {
+        return enabled && listingTtlNanos > 0 && maxListings > 0;
+    }
+
+    private synchronized long sizeBytes() {
+        return sizeBytes;
+    }
+
+    private synchronized int entryCount() {
+        return entries.size();
+    }
+
+    private record Entry(Long generation, byte[] content) {
+    }
+
+    private record CachedListing(CloudStorageService.BlobListing listing, long listedAt) {
+    }
+}
@@ -0,0 +1,458 @@
+package com.foundation.reggie.service;
+
+import tools.jackson.databind.ObjectMapper;
+import com.foundation.reggie.exception.PreconditionFailedException;
+import com.foundation.reggie.exception.StorageException;
+import com.foundation.reggie.service.CloudStorageService.BlobListing;
+import com.foundation.reggie.service.CloudStorageService.ReadResult;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Timed, cached access to the JSON blobs in the storage bucket, shared by
+ * {@link CloudStorageService}, {@link ScenarioJournal} and {@link ScenarioManifests}.
+ */
+@Slf4j
+@Component
+public class BlobStore {
+
+    static final int PRECONDITION_FAILED = 412;
+    static final int NOT_FOUND = 404;
+    /**
+     * Blob metadata: base64 CRC32C of the uncompressed JSON, used to skip unchanged imports.
+     */
+    static final String CRC32C_METADATA = "reggie-crc32c";
+    private static final String JSON_CONTENT_TYPE = "application/json";
+    private static final String GZIP_ENCODING = "gzip";
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private final Storage storage;
+    private final String bucketName;
+    private final ObjectMapper objectMapper;
+    private final BlobCache blobCache;
+    private final int readParallelism;
+    private final boolean compressionEnabled;
+    private final int compressionMinBytes;
+    private final ExecutorService readExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Timer listTimer;
+    private final Timer readTimer;
+    private final Timer writeTimer;
+    private final Timer deleteTimer;
+
+    public BlobStore(
+            Storage storage,
+            @Qualifier("storageBucketName") String bucketName,
+            ObjectMapper objectMapper,
+            BlobCache blobCache,
+            @Value("${reggie.storage.read-parallelism:16}") int readParallelism,
+            @Value("${reggie.storage.compression.enabled:true}") boolean compressionEnabled,
+            @Value("${reggie.storage.compression.min-bytes:8192}") int compressionMinBytes,
+            MeterRegistry meterRegistry) {
+        this.storage = storage;
+        this.bucketName = bucketName;
+        this.objectMapper = objectMapper;
+        this.blobCache = blobCache;
+        this.readParallelism = readParallelism;
+        this.compressionEnabled = compressionEnabled;
+        this.compressionMinBytes = compressionMinBytes;
+        this.listTimer = operationTimer("list", meterRegistry);
+        this.readTimer = operationTimer("read", meterRegistry);
+        this.writeTimer = operationTimer("write", meterRegistry);
+        this.deleteTimer = operationTimer("delete", meterRegistry);
+    }
+
+    private static Timer operationTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("reggie.storage.operation")
+                .description("Cloud Storage call latency; list covers the first listing page")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    BlobId blobId(String blobName) {
+        return BlobId.of(bucketName, blobName);
+    }
+
+    int readParallelism() {
+        return readParallelism;
+    }
+
+    /**
+     * @return the blob, or {@code null} if it does not exist
+     */
+    Blob get(String blobName) {
+        try {
+            return readTimer.record(() -> storage.get(blobId(blobName)));
+        } catch (Exception e) {
+            throw new StorageException("Failed to read from Cloud Storage: " + blobName, e);
+        }
+    }
+
+    /**
+     * @return the blobs in the order asked for, {@code null} for those that do not exist
+     */
+    List<Blob> get(List<BlobId> blobIds) {
+        try {
+            return readTimer.record(() -> storage.get(blobIds));
+        } catch (Exception e) {
+            throw new StorageException("Failed to read " + blobIds.size() + " blobs from Cloud Storage", e);
+        }
+    }
+
+    /**
+     * Gzips content of at least {@code reggie.storage.compression.min-bytes}.
+     *
+     * @throws com.google.cloud.storage.StorageException e.g. {@value #PRECONDITION_FAILED} if a precondition fails
+     */
+    Blob writeJson(String blobName, Object value, WriteOptions options) {
+        byte[] content = objectMapper.writeValueAsBytes(value);
+        boolean compress = compressionEnabled && content.length >= compressionMinBytes;
+        Map<String, String> metadata = options.metadata() != null
+                ? new HashMap<>(options.metadata()) : new HashMap<>(2);
+        metadata.put(CRC32C_METADATA, crc32c(content));
+        BlobInfo.Builder blobInfo = options.target().toBuilder()
+                .setContentType(JSON_CONTENT_TYPE)
+                .setContentEncoding(compress ? GZIP_ENCODING : null)
+                .setMetadata(metadata);
+        byte[] stored = compress ? gzip(content) : content;
+        Storage.BlobTargetOption[] preconditions = options.preconditions().toArray(Storage.BlobTargetOption[]::new);
+        Blob created;
+        try {
+            created = writeTimer.record(() -> storage.create(blobInfo.build(), stored, preconditions));
+        } finally {
+            // Even a failed write may have landed
+            blobCache.invalidateListings(blobName);
+        }
+        blobCache.put(blobName, created.getGeneration(), content);
+        return created;
+    }
+
+    /**
+     * @param ifMatch {@code null} to write unconditionally, {@code *} to require an existing
+     *                blob, or an ETag whose generation the stored blob must still have
+     */
+    WriteOptions ifMatch(String blobName, String ifMatch) {
+        if (ifMatch == null) {
+            return WriteOptions.unconditional(blobId(blobName));
+        }
+        if (ifMatch.trim().equals("*")) {
+            Blob current = get(blobName);
+            if (current == null) {
+                throw new PreconditionFailedException("Blob does not exist: " + blobName);
+            }
+            return WriteOptions.ifGeneration(current.getBlobId());
+        }
+        return WriteOptions.ifGeneration(BlobId.of(bucketName, blobName, generationOf(ifMatch)));
+    }
+
+    /**
+     * Merges {@code changes} into the blob's metadata if it is still at the same version.
+     *
+     * @return the updated blob, or {@code null} if it changed or was deleted since it was read
+     */
+    Blob updateMetadata(Blob blob, Map<String, String> changes) {
+        Map<String, String> metadata = blob.getMetadata() != null ? new HashMap<>(blob.getMetadata()) : new HashMap<>();
+        metadata.putAll(changes);
+        BlobInfo update = blob.toBuilder().setMetadata(metadata).build();
+        try {
+            return writeTimer.record(() -> storage.update(update, Storage.BlobTargetOption.generationMatch(),
+                    Storage.BlobTargetOption.metagenerationMatch()));
+        } catch (com.google.cloud.storage.StorageException e) {
+            if (e.getCode() == PRECONDITION_FAILED || e.getCode() == NOT_FOUND) {
+                return null;
+            }
+            throw new StorageException("Failed to update metadata of " + blob.getName(), e);
+        } finally {
+            blobCache.invalidateListings(blob.getName());
+        }
+    }
+
+    /**
+     * @return whether the blob existed
+     */
+    boolean delete(String blobName) {
+        try {
+            return deleteTimer.record(() -> storage.delete(blobId(blobName)));
+        } catch (Exception e) {
+            throw new StorageException("Failed to delete from Cloud Storage: " + blobName, e);
+        } finally {
+            blobCache.invalidate(blobName);
+            blobCache.invalidateListings(blobName);
+        }
+    }
+
+    /**
+     * Deletes up to {@value #MAX_BATCH_SIZE} blobs in one call; an ID with a generation deletes
+     * only that generation.
+     */
+    void delete(List<BlobId> blobIds) {
+        try {
+            deleteTimer.record(() -> storage.delete(blobIds));
+        } catch (Exception e) {
+            throw new StorageException("Failed to delete " + blobIds.size() + " blobs from Cloud Storage", e);
+        } finally {
+            blobIds.forEach(blobId -> blobCache.invalidate(blobId.getName()));
+        }
+    }
+
+    Iterable<Blob> list(Storage.BlobListOption... options) {
+        return listTimer.record(() -> storage.list(bucketName, options)).iterateAll();
+    }
+
+    Iterable<Blob> list(String prefix) {
+        return list(Storage.BlobListOption.prefix(prefix));
+    }
+
+    /**
+     * Served from {@link BlobCache} while the prefix's last listing is within the listing TTL.
+     */
+    BlobListing listJson(String prefix) {
+        BlobListing cached = blobCache.getListing(prefix);
+        if (cached != null) {
+            return cached;
+        }
+        long version = blobCache.listingVersion();
+        long listedAt = System.nanoTime();
+        BlobListing listing = listJsonUncached(prefix);
+        blobCache.putListing(listing, version, listedAt);
+        return listing;
+    }
+
+    private BlobListing listJsonUncached(String prefix) {
+        try {
+            List<Blob> blobs = new ArrayList<>();
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Blob blob : list(prefix)) {
+                if (blob.getName().endsWith(".json")) {
+                    blobs.add(blob);
+                    digest.update((blob.getName() + ':' + blob.getGeneration() + ':' + blob.getMetageneration() + '\n')
+                            .getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            String etag = "W/\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()) + "\"";
+            return new BlobListing(prefix, List.copyOf(blobs), etag);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (Exception e) {
+            throw new StorageException("Failed to list Cloud Storage with prefix: " + prefix, e);
+        }
+    }
+
+    byte[] readContent(Blob blob) {
+        byte[] content = blobCache.get(blob.getName(), blob.getGeneration());
+        if (content == null) {
+            content = gunzipIfCompressed(readTimer.record(() -> blob.getContent()));
+            blobCache.put(blob.getName(), blob.getGeneration(), content);
+        }
+        return content;
+    }
+
+    <T> T parse(Blob blob, Class<T> type) {
+        try {
+            return objectMapper.readValue(readContent(blob), type);
+        } catch (Exception e) {
+            throw new StorageException("Failed to read from Cloud Storage: " + blob.getName(), e);
+        }
+    }
+
+    /**
+     * @return the parsed blob, or {@code null} if this generation of it no longer exists
+     */
+    <T> T parseCurrent(Blob blob, Class<T> type) {
+        try {
+            return objectMapper.readValue(readContent(blob), type);
+        } catch (com.google.cloud.storage.StorageException e) {
+            if (e.getCode() == NOT_FOUND) {
+                return null;
+            }
+            throw new StorageException("Failed to read from Cloud Storage: " + blob.getName(), e);
+        } catch (Exception e) {
+            throw new StorageException("Failed to read from Cloud Storage: " + blob.getName(), e);
+        }
+    }
+
+    <T> CompletableFuture<T> readAsync(Supplier<T> read) {
+        return CompletableFuture.supplyAsync(read, readExecutor);
+    }
+
+    /**
+     * Downloads every JSON blob under the prefix, {@code reggie.storage.read-parallelism} at a time, in
+     * listing order; blobs that cannot be read or parsed are reported instead of failing the call.
+     */
+    <T> ReadResult<T> readAll(String prefix, Function<Blob, T> reader) {
+        Semaphore permits = new Semaphore(readParallelism);
+        List<Blob> blobs = new ArrayList<>();
+        List<CompletableFuture<T>> reads = new ArrayList<>();
+        try {
+            for (Blob blob : list(prefix)) {
+                if (blob.getName().endsWith(".json")) {
+                    permits.acquire();
+                    blobs.add(blob);
+                    reads.add(readAsync(() -> {
+                        try {
+                            return reader.apply(blob);
+                        } finally {
+                            permits.release();
+                        }
+                    }));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted while reading from Cloud Storage with prefix: " + prefix, e);
+        } catch (Exception e) {
+            throw new StorageException("Failed to read from Cloud Storage with prefix: " + prefix, e);
+        }
+
+        List<T> items = new ArrayList<>(reads.size());
+        List<String> failedBlobs = new ArrayList<>();
+        for (int i = 0; i < reads.size(); i++) {
+            try {
+                items.add(reads.get(i).join());
+            } catch (CompletionException e) {
+                log.warn("Failed to read {} from Cloud Storage", blobs.get(i).getName(), e.getCause());
+                failedBlobs.add(blobs.get(i).getName());
+            }
+        }
+        return new ReadResult<>(items, failedBlobs);
+    }
+
+    static <T> List<List<T>> batches(List<T> items) {
+        List<List<T>> batches = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += MAX_BATCH_SIZE) {
+            batches.add(items.subList(from, Math.min(items.size(), from + MAX_BATCH_SIZE)));
+        }
+        return batches;
+    }
+
+    static String etag(Blob blob) {
+        Long metageneration = blob.getMetageneration();
+        return "\"" + blob.getGeneration() + (metageneration != null ? "." + metageneration : "") + "\"";
+    }
+
+    /**
+     * @return whether {@code etag}, weak or strong, names the blob's current generation and metageneration
+     */
+    static boolean sameVersion(Blob blob, String etag) {
+        return etag(blob).equals("\"" + etag.trim().replace("W/", "").replace("\"", "") + "\"");
+    }
+
+    static String crc32c(byte[] content) {
+        CRC32C crc = new CRC32C();
+        crc.update(content);
+        return Base64.getEncoder().encodeToString(ByteBuffer.allocate(4).putInt((int) crc.getValue()).array());
+    }
+
+    private static long generationOf(String etag) {
+        String value = etag.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        int dot = value.indexOf('.');
+        try {
+            return Long.parseLong(dot >= 0 ? value.substring(0, dot) : value);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("Not an ETag issued by this service: " + etag);
+        }
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Checks the gzip magic number; GCS may already have decompressed the object in transit.
+     */
+    private static byte[] gunzipIfCompressed(byte[] content) {
+        if (content.length < 2 || content[0] != (byte) 0x1f || content[1] != (byte) 0x8b) {
+            return content;
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        readExecutor.shutdownNow();
+    }
+
+    /**
+     * @param metadata      metadata besides the CRC32C, or {@code null}
+     * @param preconditions e.g. {@link Storage.BlobTargetOption#doesNotExist()}
+     */
+    record WriteOptions(BlobInfo target, Map<String, String> metadata,
+                        List<Storage.BlobTargetOption> preconditions) {
+
+        static WriteOptions unconditional(BlobId blobId) {
+            return new WriteOptions(BlobInfo.newBuilder(blobId).build(), null, List.of());
+        }
+
+        static WriteOptions ifAbsent(BlobId blobId) {
+            return new WriteOptions(BlobInfo.newBuilder(blobId).build(), null,
+                    List.of(Storage.BlobTargetOption.doesNotExist()));
+        }
+
+        /**
+         * @param blobId an ID with the generation the stored blob must still have
+         */
+        static WriteOptions ifGeneration(BlobId blobId) {
+            return new WriteOptions(BlobInfo.newBuilder(blobId).build(), null,
+                    List.of(Storage.BlobTargetOption.generationMatch()));
+        }
+
+        /**
+         * Replaces {@code current} only if neither its content nor its metadata changed since it was read.
+         */
+        static WriteOptions ifUnchanged(Blob current) {
+            return new WriteOptions(current, null, List.of(Storage.BlobTargetOption.generationMatch(),
+                    Storage.BlobTargetOption.metagenerationMatch()));
+        }
+
+        WriteOptions withMetadata(Map<String, String> metadata) {
+            return new WriteOptions(target, metadata, preconditions);
+        }
+    }
+}
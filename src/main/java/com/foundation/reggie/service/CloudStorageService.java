@@ -1,128 +1,534 @@
 package com.foundation.reggie.service;
 
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
 import tools.jackson.databind.ObjectMapper;
+import com.foundation.reggie.exception.BadRequestException;
+import com.foundation.reggie.exception.PreconditionFailedException;
+import com.foundation.reggie.exception.ResourceNotFoundException;
 import com.foundation.reggie.exception.StorageException;
+import com.foundation.reggie.dto.ArchiveRecord;
+import com.foundation.reggie.dto.ImportItemResult;
+import com.foundation.reggie.dto.ScenarioSummaryPage;
 import com.foundation.reggie.model.MessageSample;
 import com.foundation.reggie.model.Scenario;
+import com.foundation.reggie.model.ScenarioManifest;
+import com.foundation.reggie.model.ScenarioOperation;
+import com.foundation.reggie.model.ScenarioSummary;
+import com.foundation.reggie.service.BlobStore.WriteOptions;
+import com.foundation.reggie.service.ScenarioJournal.Appended;
+import com.foundation.reggie.service.ScenarioJournal.JournaledScenario;
 import com.google.cloud.storage.Blob;
-import com.google.cloud.storage.BlobId;
-import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Storage;
-import org.springframework.beans.factory.annotation.Qualifier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import static com.foundation.reggie.service.BlobStore.PRECONDITION_FAILED;
+import static com.foundation.reggie.service.BlobStore.crc32c;
+import static com.foundation.reggie.service.BlobStore.etag;
+
+/**
+ * Scenarios, message samples and archives in the storage bucket. Scenario journals and
+ * manifests are kept by {@link ScenarioJournal} and {@link ScenarioManifests}.
+ */
+@Slf4j
 @Service
 public class CloudStorageService {
 
     private static final String SCENARIOS_SUFFIX = "/scenarios/";
     private static final String MESSAGE_SAMPLES_PREFIX = "message-samples/";
-    private static final String JSON_CONTENT_TYPE = "application/json";
+    /**
+     * Field of the object that ends a streamed listing when some blobs had to be skipped.
+     */
+    public static final String FAILED_BLOBS_FIELD = "failedBlobs";
+    static final Pattern SCENARIO_BLOB = Pattern.compile("([^/]+)/scenarios/([^/]+)\\.json");
+    private static final Pattern MESSAGE_SAMPLE_BLOB = Pattern.compile("message-samples/([^/]+)\\.json");
 
-    private final Storage storage;
-    private final String bucketName;
+    private final BlobStore blobStore;
+    private final ScenarioJournal scenarioJournal;
+    private final ScenarioManifests scenarioManifests;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CloudStorageService(
-            Storage storage,
-            @Qualifier("storageBucketName") String bucketName,
-            ObjectMapper objectMapper) {
-        this.storage = storage;
-        this.bucketName = bucketName;
+    public CloudStorageService(BlobStore blobStore, ScenarioJournal scenarioJournal,
+                               ScenarioManifests scenarioManifests, ObjectMapper objectMapper,
+                               ApplicationEventPublisher eventPublisher) {
+        this.blobStore = blobStore;
+        this.scenarioJournal = scenarioJournal;
+        this.scenarioManifests = scenarioManifests;
         this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    static String scenarioPrefix(String userId) {
+        return userId + SCENARIOS_SUFFIX;
+    }
+
+    static String scenarioBlobName(String userId, String id) {
+        return userId + SCENARIOS_SUFFIX + id + ".json";
     }
 
     public Scenario upsertScenario(String userId, Scenario scenario) {
-        String blobName = userId + SCENARIOS_SUFFIX + scenario.getId() + ".json";
-        writeJson(blobName, scenario);
-        return scenario;
+        return upsertScenario(userId, scenario, null).value();
+    }
+
+    /**
+     * Replaces the whole scenario, discarding its change journal.
+     *
+     * @param ifMatch an ETag from a previous read, or {@code *}; the write fails with
+     *                {@link PreconditionFailedException} if the stored scenario has changed since
+     */
+    public Versioned<Scenario> upsertScenario(String userId, Scenario scenario, String ifMatch) {
+        Blob written = scenarioJournal.replace(userId, scenario, ifMatch);
+        scenarioManifests.update(userId, summaries -> summaries.put(scenario.getId(), ScenarioSummary.of(scenario)));
+        return new Versioned<>(scenario, etag(written));
     }
 
-    public List<Scenario> getAllScenarios(String userId) {
-        return readAllFromPrefix(userId + SCENARIOS_SUFFIX, Scenario.class);
+    /**
+     * @return the scenario with the operations applied
+     * @see ScenarioJournal#append
+     */
+    public Versioned<Scenario> patchScenario(String userId, String id, List<ScenarioOperation> operations,
+                                             String ifMatch) {
+        Appended appended = scenarioJournal.append(userId, id, operations, ifMatch);
+        if (appended.summaryChanged()) {
+            ScenarioSummary summary = ScenarioSummary.of(appended.scenario().value());
+            scenarioManifests.update(userId, summaries -> summaries.put(id, summary));
+        }
+        return appended.scenario();
+    }
+
+    public Scenario getScenario(String userId, String id) {
+        return getScenario(userId, id, etag -> false).value();
+    }
+
+    /**
+     * @param notModified tests the current ETag against the request's {@code If-None-Match}
+     * @return the scenario, or {@code null} if {@code notModified} accepted the ETag
+     */
+    public Versioned<Scenario> getScenario(String userId, String id, Predicate<String> notModified) {
+        JournaledScenario current = scenarioJournal.read(userId, id, notModified);
+        return current != null ? current.versioned() : null;
+    }
+
+    public ReadResult<Scenario> getAllScenarios(String userId) {
+        return blobStore.readAll(scenarioPrefix(userId), scenarioJournal::readScenario);
+    }
+
+    public ScenarioSummaryPage getScenarioSummaries(String userId, String pageToken, int pageSize) {
+        return getScenarioSummaries(userId, pageToken, pageSize, etag -> false).value();
+    }
+
+    /**
+     * Versioned by the manifest's ETag, which changes with every scenario upsert or delete.
+     *
+     * @return the page, or {@code null} if {@code notModified} accepted the manifest's ETag
+     */
+    public Versioned<ScenarioSummaryPage> getScenarioSummaries(String userId, String pageToken, int pageSize,
+                                                               Predicate<String> notModified) {
+        Versioned<ScenarioManifest> manifest = scenarioManifests.read(userId, notModified);
+        if (manifest == null) {
+            return null;
+        }
+        List<ScenarioSummary> summaries = manifest.value().getScenarios();
+        String after = pageToken == null || pageToken.isEmpty() ? null : decodePageToken(pageToken);
+        int start = 0;
+        if (after != null) {
+            while (start < summaries.size() && summaries.get(start).getId().compareTo(after) <= 0) {
+                start++;
+            }
+        }
+        int end = Math.min(summaries.size(), start + pageSize);
+        String nextPageToken = end < summaries.size()
+                ? Base64.getUrlEncoder().withoutPadding().encodeToString(
+                        summaries.get(end - 1).getId().getBytes(StandardCharsets.UTF_8))
+                : null;
+        return new Versioned<>(new ScenarioSummaryPage(List.copyOf(summaries.subList(start, end)), nextPageToken),
+                manifest.etag());
+    }
+
+    /**
+     * @return names of the blobs left out because they could not be read or are not valid JSON
+     */
+    public List<String> streamAllScenarios(String userId, OutputStream out) throws IOException {
+        return streamAllFromPrefix(scenarioPrefix(userId), out);
+    }
+
+    /**
+     * Lists the user's scenario blobs without downloading them, with an ETag over their names and generations.
+     */
+    public BlobListing listScenarios(String userId) {
+        return blobStore.listJson(scenarioPrefix(userId));
+    }
+
+    /**
+     * @return names of the blobs left out because they could not be read or are not valid JSON
+     */
+    public List<String> streamListing(BlobListing listing, OutputStream out) throws IOException {
+        return streamBlobs(listing.blobs(), listing.prefix(), out);
     }
 
     public List<String> getAllUserIds() {
         List<String> userIds = new ArrayList<>();
+        forEachUserId(userIds::add);
+        return userIds;
+    }
+
+    /**
+     * Writes the user IDs as a JSON array while the listing is paged through.
+     */
+    public void streamAllUserIds(OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.writeStartArray();
+            forEachUserId(generator::writeString);
+            generator.writeEndArray();
+        }
+    }
+
+    private void forEachUserId(Consumer<String> consumer) {
         try {
-            var page = storage.list(bucketName, Storage.BlobListOption.delimiter("/"));
-            for (Blob blob : page.iterateAll()) {
+            for (Blob blob : blobStore.list(Storage.BlobListOption.delimiter("/"))) {
                 String name = blob.getName();
                 // Skip message-samples directory
                 if (name.endsWith("/") && !name.startsWith("message-samples")) {
-                    userIds.add(name.substring(0, name.length() - 1));
+                    consumer.accept(name.substring(0, name.length() - 1));
                 }
             }
         } catch (Exception e) {
             throw new StorageException("Failed to list user IDs from Cloud Storage", e);
         }
-        return userIds;
     }
 
     public MessageSample upsertMessageSample(MessageSample messageSample) {
+        return upsertMessageSample(messageSample, null).value();
+    }
+
+    public Versioned<MessageSample> upsertMessageSample(MessageSample messageSample, String ifMatch) {
         String blobName = MESSAGE_SAMPLES_PREFIX + messageSample.getMessageId() + ".json";
-        writeJson(blobName, messageSample);
-        return messageSample;
+        Blob written;
+        try {
+            written = blobStore.writeJson(blobName, messageSample, blobStore.ifMatch(blobName, ifMatch));
+        } catch (com.google.cloud.storage.StorageException e) {
+            if (ifMatch != null && e.getCode() == PRECONDITION_FAILED) {
+                throw new PreconditionFailedException("Blob was modified since " + ifMatch + ": " + blobName);
+            }
+            throw new StorageException("Failed to write to Cloud Storage: " + blobName, e);
+        } catch (PreconditionFailedException | StorageException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new StorageException("Failed to write to Cloud Storage: " + blobName, e);
+        }
+        eventPublisher.publishEvent(new MessageSampleChangedEvent(messageSample.getMessageId(), messageSample));
+        return new Versioned<>(messageSample, etag(written));
+    }
+
+    /**
+     * Writes an imported scenario unless the stored one already has the same content.
+     * The manifest is not updated; see {@link #addScenarioSummaries}.
+     *
+     * @param crc32c the CRC32C recorded in the archive, or {@code null} to compute it
+     */
+    public ImportItemResult.Status importScenario(String userId, Scenario scenario, String crc32c) {
+        Blob existing = blobStore.get(scenarioBlobName(userId, scenario.getId()));
+        if (existing != null && !ScenarioJournal.hasLiveEntries(existing) && matches(existing, scenario, crc32c)) {
+            return ImportItemResult.Status.UNCHANGED;
+        }
+        scenarioJournal.replace(userId, scenario, null);
+        return existing != null ? ImportItemResult.Status.UPDATED : ImportItemResult.Status.CREATED;
     }
 
-    public List<MessageSample> getAllMessageSamples() {
-        return readAllFromPrefix(MESSAGE_SAMPLES_PREFIX, MessageSample.class);
+    /**
+     * @param crc32c the CRC32C recorded in the archive, or {@code null} to compute it
+     */
+    public ImportItemResult.Status importMessageSample(MessageSample messageSample, String crc32c) {
+        String blobName = MESSAGE_SAMPLES_PREFIX + messageSample.getMessageId() + ".json";
+        Blob existing = blobStore.get(blobName);
+        if (existing != null && matches(existing, messageSample, crc32c)) {
+            return ImportItemResult.Status.UNCHANGED;
+        }
+        try {
+            blobStore.writeJson(blobName, messageSample, WriteOptions.unconditional(blobStore.blobId(blobName)));
+        } catch (RuntimeException e) {
+            throw new StorageException("Failed to write to Cloud Storage: " + blobName, e);
+        }
+        eventPublisher.publishEvent(new MessageSampleChangedEvent(messageSample.getMessageId(), messageSample));
+        return existing != null ? ImportItemResult.Status.UPDATED : ImportItemResult.Status.CREATED;
     }
 
-    public void deleteScenario(String userId, String id) {
-        String blobName = userId + SCENARIOS_SUFFIX + id + ".json";
-        deleteBlob(blobName);
+    /**
+     * Records imported scenarios in the user's manifest with a single update.
+     */
+    public void addScenarioSummaries(String userId, Collection<ScenarioSummary> imported) {
+        if (!imported.isEmpty()) {
+            scenarioManifests.update(userId,
+                    summaries -> imported.forEach(summary -> summaries.put(summary.getId(), summary)));
+        }
     }
 
-    public void deleteMessageSample(String messageId) {
-        String blobName = MESSAGE_SAMPLES_PREFIX + messageId + ".json";
-        deleteBlob(blobName);
+    private boolean matches(Blob existing, Object incoming, String crc32c) {
+        String stored = existing.getMetadata() != null ? existing.getMetadata().get(BlobStore.CRC32C_METADATA) : null;
+        if (stored == null) {
+            stored = crc32c(blobStore.readContent(existing));
+        }
+        return stored.equals(crc32c != null ? crc32c : crc32c(objectMapper.writeValueAsBytes(incoming)));
     }
 
-    private void deleteBlob(String blobName) {
+    /**
+     * Writes every scenario and message sample under {@code prefix}, or the whole bucket, as one
+     * {@link ArchiveRecord} per line; unreadable blobs are named in a final {@link ArchiveRecord#FAILED_BLOBS}.
+     */
+    public void exportArchive(String prefix, OutputStream out) {
+        String scope = prefix != null ? prefix : "";
+        Deque<PendingRead> window = new ArrayDeque<>();
+        List<String> failedBlobs = new ArrayList<>();
+        // Not closed: the caller owns the stream and may still need to finish it
+        JsonGenerator generator = objectMapper.createGenerator(out);
         try {
-            BlobId blobId = BlobId.of(bucketName, blobName);
-            boolean deleted = storage.delete(blobId);
-            if (!deleted) {
-                throw new StorageException("Blob not found: " + blobName, null);
+            for (Blob blob : blobStore.list(scope)) {
+                String name = blob.getName();
+                if (SCENARIO_BLOB.matcher(name).matches() || MESSAGE_SAMPLE_BLOB.matcher(name).matches()) {
+                    window.add(new PendingRead(blob.getName(),
+                            blobStore.readAsync(() -> scenarioJournal.currentContent(blob))));
+                    while (window.size() >= blobStore.readParallelism()) {
+                        writeArchiveRecord(window.poll(), generator, failedBlobs);
+                    }
+                }
+            }
+            while (!window.isEmpty()) {
+                writeArchiveRecord(window.poll(), generator, failedBlobs);
             }
+            if (!failedBlobs.isEmpty()) {
+                generator.writeStartObject();
+                generator.writeStringProperty("kind", ArchiveRecord.FAILED_BLOBS);
+                generator.writeName("data");
+                generator.writeStartArray();
+                failedBlobs.forEach(generator::writeString);
+                generator.writeEndArray();
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+            generator.flush();
         } catch (StorageException e) {
             throw e;
         } catch (Exception e) {
-            throw new StorageException("Failed to delete from Cloud Storage: " + blobName, e);
+            throw new StorageException("Failed to export from Cloud Storage with prefix: " + scope, e);
+        }
+    }
+
+    private void writeArchiveRecord(PendingRead read, JsonGenerator generator, List<String> failedBlobs) {
+        if (read.deleted()) {
+            return;
+        }
+        byte[] content = validContent(read);
+        if (content == null) {
+            failedBlobs.add(read.blobName());
+            return;
+        }
+        generator.writeStartObject();
+        Matcher scenario = SCENARIO_BLOB.matcher(read.blobName());
+        if (scenario.matches()) {
+            generator.writeStringProperty("kind", ArchiveRecord.SCENARIO);
+            generator.writeStringProperty("userId", scenario.group(1));
+            generator.writeStringProperty("id", scenario.group(2));
+        } else {
+            Matcher sample = MESSAGE_SAMPLE_BLOB.matcher(read.blobName());
+            sample.matches();
+            generator.writeStringProperty("kind", ArchiveRecord.MESSAGE_SAMPLE);
+            generator.writeStringProperty("id", sample.group(1));
         }
+        generator.writeStringProperty("crc32c", crc32c(content));
+        generator.writeName("data");
+        generator.writeRawValue(new String(content, StandardCharsets.UTF_8));
+        generator.writeEndObject();
+        generator.writeRaw('\n');
     }
 
-    private void writeJson(String blobName, Object obj) {
+    public MessageSample getMessageSample(String messageId) {
+        String blobName = MESSAGE_SAMPLES_PREFIX + messageId + ".json";
+        Blob blob = blobStore.get(blobName);
+        if (blob == null) {
+            throw new ResourceNotFoundException("Blob not found: " + blobName);
+        }
+        return blobStore.parse(blob, MessageSample.class);
+    }
+
+    public BlobListing listMessageSamples() {
+        return blobStore.listJson(MESSAGE_SAMPLES_PREFIX);
+    }
+
+    public ReadResult<MessageSample> getAllMessageSamples() {
+        return blobStore.readAll(MESSAGE_SAMPLES_PREFIX, blob -> blobStore.parse(blob, MessageSample.class));
+    }
+
+    /**
+     * @return names of the blobs left out because they could not be read or are not valid JSON
+     */
+    public List<String> streamAllMessageSamples(OutputStream out) throws IOException {
+        return streamAllFromPrefix(MESSAGE_SAMPLES_PREFIX, out);
+    }
+
+    public void deleteScenario(String userId, String id) {
+        deleteBlob(scenarioBlobName(userId, id));
+        scenarioJournal.deleteAll(userId, id);
+        scenarioManifests.update(userId, summaries -> summaries.remove(id));
+    }
+
+    public void deleteMessageSample(String messageId) {
+        deleteBlob(MESSAGE_SAMPLES_PREFIX + messageId + ".json");
+        eventPublisher.publishEvent(new MessageSampleChangedEvent(messageId, null));
+    }
+
+    private void deleteBlob(String blobName) {
+        if (!blobStore.delete(blobName)) {
+            throw new StorageException("Blob not found: " + blobName, null);
+        }
+    }
+
+    private static String decodePageToken(String pageToken) {
         try {
-            String json = objectMapper.writeValueAsString(obj);
-            BlobId blobId = BlobId.of(bucketName, blobName);
-            BlobInfo blobInfo = BlobInfo.newBuilder(blobId)
-                    .setContentType(JSON_CONTENT_TYPE)
-                    .build();
-            storage.create(blobInfo, json.getBytes(StandardCharsets.UTF_8));
-        } catch (Exception e) {
-            throw new StorageException("Failed to write to Cloud Storage: " + blobName, e);
+            return new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid pageToken: " + pageToken);
         }
     }
 
-    private <T> List<T> readAllFromPrefix(String prefix, Class<T> type) {
-        List<T> results = new ArrayList<>();
+    /**
+     * Copies each blob's stored bytes into a JSON array as they download. Blobs that are not a
+     * single JSON value are skipped and named in a final {@code {"failedBlobs": [...]}} element.
+     *
+     * @return names of the skipped blobs
+     */
+    private List<String> streamAllFromPrefix(String prefix, OutputStream out) throws IOException {
+        return streamBlobs(null, prefix, out);
+    }
+
+    /**
+     * @param blobs an existing listing of {@code prefix}, or {@code null} to page through a new one
+     */
+    private List<String> streamBlobs(Iterable<Blob> blobs, String prefix, OutputStream out) throws IOException {
+        Deque<PendingRead> window = new ArrayDeque<>();
+        List<String> failedBlobs = new ArrayList<>();
+        boolean first = true;
+        out.write('[');
         try {
-            Iterable<Blob> blobs = storage.list(bucketName, Storage.BlobListOption.prefix(prefix)).iterateAll();
-            for (Blob blob : blobs) {
+            for (Blob blob : blobs != null ? blobs : blobStore.list(prefix)) {
                 if (blob.getName().endsWith(".json")) {
-                    byte[] content = blob.getContent();
-                    T obj = objectMapper.readValue(content, type);
-                    results.add(obj);
+                    window.add(new PendingRead(blob.getName(),
+                            blobStore.readAsync(() -> scenarioJournal.currentContent(blob))));
+                    while (window.size() >= blobStore.readParallelism()) {
+                        first = writeElement(window.poll(), out, first, failedBlobs);
+                    }
                 }
             }
+        } catch (StorageException | IOException e) {
+            throw e;
         } catch (Exception e) {
             throw new StorageException("Failed to read from Cloud Storage with prefix: " + prefix, e);
         }
-        return results;
+        while (!window.isEmpty()) {
+            first = writeElement(window.poll(), out, first, failedBlobs);
+        }
+        if (!failedBlobs.isEmpty()) {
+            if (!first) {
+                out.write(',');
+            }
+            out.write(objectMapper.writeValueAsBytes(Map.of(FAILED_BLOBS_FIELD, failedBlobs)));
+        }
+        out.write(']');
+        return failedBlobs;
+    }
+
+    /**
+     * @return whether the next element is still the first one written
+     */
+    private boolean writeElement(PendingRead read, OutputStream out, boolean first, List<String> failedBlobs)
+            throws IOException {
+        if (read.deleted()) {
+            return first;
+        }
+        byte[] content = validContent(read);
+        if (content == null) {
+            failedBlobs.add(read.blobName());
+            return first;
+        }
+        if (!first) {
+            out.write(',');
+        }
+        out.write(content);
+        return false;
+    }
+
+    /**
+     * @return the downloaded content if it is exactly one JSON value, otherwise {@code null}
+     */
+    private byte[] validContent(PendingRead read) {
+        byte[] content;
+        try {
+            content = read.content().join();
+        } catch (CompletionException e) {
+            log.warn("Failed to read {} from Cloud Storage", read.blobName(), e.getCause());
+            return null;
+        }
+        // Tokenizes without building a tree; the bytes are still copied as stored
+        try (JsonParser parser = objectMapper.createParser(content)) {
+            if (parser.nextToken() != null) {
+                parser.skipChildren();
+                if (parser.nextToken() == null) {
+                    return content;
+                }
+            }
+            log.warn("Skipping {}: not a single JSON value", read.blobName());
+        } catch (JacksonException e) {
+            log.warn("Skipping {}: invalid JSON: {}", read.blobName(), e.getOriginalMessage());
+        }
+        return null;
+    }
+
+    /**
+     * @param content completes with {@code null} if the blob was deleted after it was listed
+     */
+    private record PendingRead(String blobName, CompletableFuture<byte[]> content) {
+        boolean deleted() {
+            return content.exceptionally(failure -> new byte[0]).join() == null;
+        }
+    }
+
+    /**
+     * @param failedBlobs names of blobs that could not be downloaded or parsed
+     */
+    public record ReadResult<T>(List<T> items, List<String> failedBlobs) {
+    }
+
+    /**
+     * A stored value together with the ETag of the version it was read or written as.
+     *
+     * @param etag quoted ETag of the stored version, or {@code null} if unknown
+     */
+    public record Versioned<T>(T value, String etag) {
+    }
+
+    /**
+     * JSON blobs under a prefix, listed but not downloaded.
+     */
+    public record BlobListing(String prefix, List<Blob> blobs, String etag) {
     }
 }
@@ -0,0 +1,22 @@
+package com.foundation.reggie.service;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * Helpers for the {@link java.util.concurrent.CompletableFuture}s returned by the publish pipeline.
+ */
+final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * @return the failure a {@link CompletionException} wraps, or {@code e} itself
+     */
+    static Throwable unwrap(Throwable e) {
+        while (e instanceof CompletionException && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+}
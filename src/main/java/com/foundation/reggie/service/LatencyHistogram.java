@@ -0,0 +1,39 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.dto.LatencyPercentiles;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe latency distribution recorded in microseconds, capped at ten minutes,
+ * with three significant digits.
+ */
+public class LatencyHistogram {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+    public void recordMicros(long micros) {
+        histogram.recordValue(Math.clamp(micros, 0, HIGHEST_TRACKABLE_MICROS));
+    }
+
+    public void recordNanos(long nanos) {
+        recordMicros(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    public LatencyPercentiles percentiles() {
+        Histogram copy = histogram.copy();
+        return new LatencyPercentiles(
+                copy.getTotalCount(),
+                millis(copy.getValueAtPercentile(50)),
+                millis(copy.getValueAtPercentile(99)),
+                millis(copy.getValueAtPercentile(99.9)),
+                millis(copy.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
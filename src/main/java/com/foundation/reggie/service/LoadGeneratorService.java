@@ -0,0 +1,239 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.dto.LoadTestRequest;
+import com.foundation.reggie.exception.BadRequestException;
+import com.foundation.reggie.exception.ResourceNotFoundException;
+import com.foundation.reggie.exception.TooManyRequestsException;
+import com.foundation.reggie.model.MessageSample;
+import com.foundation.reggie.model.PubSubPayload;
+import com.foundation.reggie.model.Scenario;
+import com.foundation.reggie.model.ScenarioMessage;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a scenario or message sample through the publish pipeline at a target rate and/or concurrency.
+ * Paced runs measure latency from each publish's scheduled time.
+ */
+@Slf4j
+@Service
+public class LoadGeneratorService {
+    private final CloudStorageService cloudStorageService;
+    private final ScenarioWriteBehind scenarioStore;
+    private final MessagePublishService messagePublishService;
+    private final ObjectMapper objectMapper;
+    private final int defaultConcurrency;
+    private final long defaultTotalMessages;
+    private final int retainedRuns;
+    private final int maxRunning;
+
+    private final Map<String, LoadTestRun> runs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public LoadGeneratorService(
+            CloudStorageService cloudStorageService,
+            ScenarioWriteBehind scenarioStore,
+            MessagePublishService messagePublishService,
+            ObjectMapper objectMapper,
+            @Value("${reggie.load-test.concurrency:100}") int defaultConcurrency,
+            @Value("${reggie.load-test.total-messages:10000}") long defaultTotalMessages,
+            @Value("${reggie.load-test.retained-runs:20}") int retainedRuns,
+            @Value("${reggie.load-test.max-running:4}") int maxRunning) {
+        this.cloudStorageService = cloudStorageService;
+        this.scenarioStore = scenarioStore;
+        this.messagePublishService = messagePublishService;
+        this.objectMapper = objectMapper;
+        this.defaultConcurrency = defaultConcurrency;
+        this.defaultTotalMessages = defaultTotalMessages;
+        this.retainedRuns = retainedRuns;
+        this.maxRunning = maxRunning;
+    }
+
+    /**
+     * @throws TooManyRequestsException if {@code reggie.load-test.max-running} runs are already running
+     */
+    public LoadTestRun start(LoadTestRequest request) {
+        if (request.totalMessages() != null && request.totalMessages() <= 0) {
+            throw new BadRequestException("totalMessages must be positive");
+        }
+        if (request.durationSeconds() != null && request.durationSeconds() <= 0) {
+            throw new BadRequestException("durationSeconds must be positive");
+        }
+        String source;
+        List<Payload> payloads;
+        if (request.messageSampleId() != null) {
+            source = "sample:" + request.messageSampleId();
+            MessageSample sample = cloudStorageService.getMessageSample(request.messageSampleId());
+            payloads = List.of(new Payload(sample.getClassName(), sample.getTopic(),
+                    PayloadTemplate.literal(sample.getMessage(), sample.getAttributes(), sample.getOrderingKey())));
+        } else if (request.userId() != null && request.scenarioId() != null) {
+            source = "scenario:" + request.userId() + "/" + request.scenarioId();
+            payloads = payloadsOf(scenarioStore.getScenario(request.userId(), request.scenarioId()));
+        } else {
+            throw new BadRequestException("Either messageSampleId or userId and scenarioId are required");
+        }
+        if (payloads.isEmpty()) {
+            throw new BadRequestException("Nothing to replay: " + source + " has no messages");
+        }
+
+        int concurrency = request.concurrency() != null && request.concurrency() > 0
+                ? request.concurrency() : defaultConcurrency;
+        Double targetRate = request.targetRate() != null && request.targetRate() > 0 ? request.targetRate() : null;
+        long totalMessages = request.totalMessages() != null ? request.totalMessages()
+                : request.durationSeconds() != null ? Long.MAX_VALUE : defaultTotalMessages;
+        long deadline = request.durationSeconds() != null
+                ? System.nanoTime() + TimeUnit.SECONDS.toNanos(request.durationSeconds()) : Long.MAX_VALUE;
+
+        LoadTestRun run = new LoadTestRun(UUID.randomUUID().toString(), source, targetRate, concurrency);
+        synchronized (runs) {
+            if (runs.values().stream().filter(LoadTestRun::isRunning).count() >= maxRunning) {
+                throw new TooManyRequestsException(maxRunning + " load tests are already running", null);
+            }
+            evictFinishedRuns();
+            runs.put(run.getId(), run);
+        }
+        executor.execute(() -> execute(run, payloads, concurrency, targetRate, totalMessages, deadline));
+        log.info("Started load test {} replaying {} (rate {}, concurrency {})", run.getId(), source,
+                targetRate != null ? targetRate + "/s" : "unbounded", concurrency);
+        return run;
+    }
+
+    public LoadTestRun getRun(String runId) {
+        LoadTestRun run = runs.get(runId);
+        if (run == null) {
+            throw new ResourceNotFoundException("Load test not found: " + runId);
+        }
+        return run;
+    }
+
+    private void execute(LoadTestRun run, List<Payload> payloads, int concurrency, Double targetRate,
+                         long totalMessages, long deadline) {
+        Semaphore permits = new Semaphore(concurrency);
+        long intervalNanos = targetRate != null ? (long) (TimeUnit.SECONDS.toNanos(1) / targetRate) : 0;
+        long start = System.nanoTime();
+        try {
+            for (long i = 0; i < totalMessages && run.isRunning(); i++) {
+                long due = 0;
+                if (intervalNanos > 0) {
+                    // Pace against the schedule rather than the previous send so stalls are caught up
+                    due = start + i * intervalNanos;
+                    long wait = due - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+                if (System.nanoTime() - deadline >= 0) {
+                    break;
+                }
+                permits.acquire();
+                Payload payload = payloads.get((int) (i % payloads.size()));
+                long seq = i / payloads.size() + 1;
+                long sentAt = intervalNanos > 0 ? due : System.nanoTime();
+                run.recordSent();
+                publish(run, payload, seq, sentAt, permits);
+            }
+            // Wait for outstanding acknowledgements so the final percentiles are complete
+            permits.acquire(concurrency);
+            run.complete();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.cancel();
+        } catch (Exception e) {
+            log.error("Load test {} failed", run.getId(), e);
+            run.fail(e.getMessage());
+        }
+    }
+
+    /**
+     * Publishes once admitted, waiting out each {@link PublishLimiter} rejection's {@code Retry-After}.
+     */
+    private void publish(LoadTestRun run, Payload payload, long seq, long sentAt, Semaphore permits)
+            throws InterruptedException {
+        while (true) {
+            try {
+                messagePublishService.publishAsync(payload.className(), payload.topic(),
+                                payload.template().renderMessage(seq), payload.template().renderAttributes(seq),
+                                payload.template().renderOrderingKey(seq))
+                        .whenComplete((published, e) -> {
+                            permits.release();
+                            if (e == null) {
+                                run.recordSuccess(System.nanoTime() - sentAt);
+                            } else {
+                                run.recordFailure(Futures.unwrap(e).getMessage());
+                            }
+                        });
+                return;
+            } catch (TooManyRequestsException e) {
+                if (!run.isRunning()) {
+                    permits.release();
+                    run.recordFailure(e.getMessage());
+                    return;
+                }
+                run.recordThrottled();
+                if (e.getRetryAfter() != null) {
+                    Thread.sleep(e.getRetryAfter());
+                }
+            } catch (RuntimeException e) {
+                permits.release();
+                run.recordFailure(e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private List<Payload> payloadsOf(Scenario scenario) {
+        if (scenario.getMessages() == null) {
+            return List.of();
+        }
+        return scenario.getMessages().stream()
+                .sorted(Comparator.comparingInt(ScenarioMessage::getColumn))
+                .map(this::payloadOf)
+                .toList();
+    }
+
+    private Payload payloadOf(ScenarioMessage message) {
+        PubSubPayload payload = message.getPayload();
+        JsonNode tree = objectMapper.valueToTree(payload.getMessage());
+        return new Payload(payload.getClassName(), payload.getTopic(), message.isTemplate()
+                ? PayloadTemplate.compile(tree, payload.getAttributes(), payload.getOrderingKey())
+                : PayloadTemplate.literal(tree, payload.getAttributes(), payload.getOrderingKey()));
+    }
+
+    private void evictFinishedRuns() {
+        if (runs.size() < retainedRuns) {
+            return;
+        }
+        runs.values().stream()
+                .filter(run -> !run.isRunning())
+                .sorted(Comparator.comparingLong(LoadTestRun::getFinishedAt))
+                .limit(runs.size() - retainedRuns + 1L)
+                .forEach(run -> runs.remove(run.getId()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runs.values().forEach(LoadTestRun::cancel);
+        executor.shutdownNow();
+    }
+
+    /**
+     * A message compiled once; templated scenario messages render fresh placeholder values on every pass.
+     */
+    private record Payload(String className, String topic, PayloadTemplate template) {
+    }
+}
@@ -0,0 +1,104 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.dto.LoadTestReport;
+import com.foundation.reggie.dto.LoadTestReport.Status;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters and latency histogram of one load test. Latencies are recorded in
+ * microseconds from the publish call to the transport acknowledgement.
+ */
+public class LoadTestRun {
+    private static final int MAX_ERRORS = 10;
+
+    @Getter
+    private final String id;
+    @Getter
+    private final String source;
+    private final Double targetRate;
+    private final int concurrency;
+    private final long startedAt = System.nanoTime();
+
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+
+    private volatile Status status = Status.RUNNING;
+    private volatile long finishedAt;
+
+    LoadTestRun(String id, String source, Double targetRate, int concurrency) {
+        this.id = id;
+        this.source = source;
+        this.targetRate = targetRate;
+        this.concurrency = concurrency;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void cancel() {
+        finish(Status.CANCELLED);
+    }
+
+    boolean isRunning() {
+        return status == Status.RUNNING;
+    }
+
+    long getFinishedAt() {
+        return finishedAt;
+    }
+
+    void recordSent() {
+        sent.incrementAndGet();
+    }
+
+    void recordSuccess(long latencyNanos) {
+        latencies.recordNanos(latencyNanos);
+        succeeded.incrementAndGet();
+    }
+
+    void recordThrottled() {
+        throttled.incrementAndGet();
+    }
+
+    void recordFailure(String error) {
+        failed.incrementAndGet();
+        if (errors.size() < MAX_ERRORS && !errors.contains(error)) {
+            errors.add(error);
+        }
+    }
+
+    void complete() {
+        finish(Status.COMPLETED);
+    }
+
+    void fail(String error) {
+        errors.add(error);
+        finish(Status.FAILED);
+    }
+
+    private synchronized void finish(Status target) {
+        if (status == Status.RUNNING) {
+            status = target;
+            finishedAt = System.nanoTime();
+        }
+    }
+
+    public LoadTestReport snapshot() {
+        long end = status == Status.RUNNING ? System.nanoTime() : finishedAt;
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(end - startedAt);
+        long acked = succeeded.get();
+        double throughput = elapsedMs > 0 ? acked * 1000.0 / elapsedMs : 0;
+        return new LoadTestReport(id, status, source, targetRate, concurrency, sent.get(), acked, failed.get(),
+                throttled.get(), elapsedMs, throughput, latencies.percentiles(), List.copyOf(errors));
+    }
+}
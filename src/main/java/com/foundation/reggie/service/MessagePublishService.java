@@ -0,0 +1,107 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.config.PayloadEncodingProperties;
+import com.foundation.reggie.exception.MessageDeserializationException;
+import com.foundation.reggie.registry.MessageRegistry;
+import com.foundation.reggie.registry.MessageType;
+import com.foundation.reggie.registry.PayloadEncoding;
+import com.google.protobuf.ByteString;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.JsonNode;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Deserializes into the registered type, serializes once in its {@link PayloadEncoding} and publishes
+ * those bytes. Only the acknowledgement is async; bad input is thrown on the calling thread.
+ */
+@Service
+@RequiredArgsConstructor
+public class MessagePublishService {
+    private final MessageRegistry messageRegistry;
+    private final PubSubPublisher pubSubPublisher;
+    private final PublishMetrics publishMetrics;
+    private final PayloadEncodingProperties encodingProperties;
+    private final PublishLedger publishLedger;
+
+    /**
+     * @param orderingKey optional; publishes with the same key are delivered in call order
+     */
+    public CompletableFuture<PublishedMessage> publishAsync(String className, String topic, JsonNode message,
+                                                            Map<String, String> attributes, String orderingKey) {
+        long start = System.nanoTime();
+        MessageType type = messageRegistry.getType(className);
+        Object typed = deserialize(topic, className, () -> messageRegistry.deserialize(className, message));
+        return send(type, topic, typed, attributes, orderingKey, start);
+    }
+
+    public CompletableFuture<PublishedMessage> publishAsync(String className, String topic, InputStream message,
+                                                            Map<String, String> attributes, String orderingKey) {
+        long start = System.nanoTime();
+        MessageType type = messageRegistry.getType(className);
+        Object typed = deserialize(topic, className, () -> messageRegistry.deserialize(className, message));
+        return send(type, topic, typed, attributes, orderingKey, start);
+    }
+
+    private Object deserialize(String topic, String className, Supplier<Object> deserializer) {
+        long start = System.nanoTime();
+        try {
+            return deserializer.get();
+        } catch (MessageDeserializationException e) {
+            publishMetrics.deserializationFailed(className);
+            throw e;
+        } finally {
+            publishMetrics.recordDeserialize(topic, className, System.nanoTime() - start);
+        }
+    }
+
+    private CompletableFuture<PublishedMessage> send(MessageType type, String topic, Object message,
+                                                     Map<String, String> attributes, String orderingKey, long start) {
+        long serializeStart = System.nanoTime();
+        long publishedAtMicros = publishLedger.stampsPublishedAt() ? PublishLedger.nowMicros() : 0;
+        PayloadEncoding encoding = encodingProperties.encodingFor(topic, type.name());
+        ByteString.Output out = ByteString.newOutput();
+        messageRegistry.serialize(type, message, encoding, out);
+        ByteString data = out.toByteString();
+        long ackStart = System.nanoTime();
+        publishMetrics.recordSerialize(topic, type.name(), ackStart - serializeStart);
+        publishMetrics.recordPayloadSize(topic, encoding, data.size());
+        return pubSubPublisher.publishAsync(topic, data, withReggieAttributes(attributes, encoding, publishedAtMicros),
+                        orderingKey)
+                .thenApply(messageId -> {
+                    if (publishedAtMicros > 0) {
+                        publishLedger.record(messageId, publishedAtMicros);
+                    }
+                    long now = System.nanoTime();
+                    publishMetrics.recordAck(topic, type.name(), now - ackStart);
+                    publishMetrics.recordLatency(topic, type.name(), now - start);
+                    return new PublishedMessage(messageId, type, message, encoding, data);
+                });
+    }
+
+    /**
+     * @param publishedAtMicros zero to leave out {@link PublishLedger#PUBLISHED_AT_ATTRIBUTE}
+     */
+    private static Map<String, String> withReggieAttributes(Map<String, String> attributes, PayloadEncoding encoding,
+                                                            long publishedAtMicros) {
+        Map<String, String> merged = attributes == null ? new HashMap<>(4) : new HashMap<>(attributes);
+        merged.put(PayloadEncoding.ATTRIBUTE, encoding.attributeValue());
+        if (publishedAtMicros > 0) {
+            merged.put(PublishLedger.PUBLISHED_AT_ATTRIBUTE, Long.toString(publishedAtMicros / 1_000));
+        }
+        return merged;
+    }
+
+    /**
+     * @param message the deserialized message
+     * @param data    the exact bytes handed to Pub/Sub, in {@code encoding}
+     */
+    public record PublishedMessage(String messageId, MessageType type, Object message, PayloadEncoding encoding,
+                                   ByteString data) {
+    }
+}
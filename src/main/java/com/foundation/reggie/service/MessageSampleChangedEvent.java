@@ -0,0 +1,11 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.model.MessageSample;
+
+/**
+ * Published by {@link CloudStorageService} after a message sample is written or deleted.
+ *
+ * @param sample the stored sample, or {@code null} if it was deleted
+ */
+public record MessageSampleChangedEvent(String messageId, MessageSample sample) {
+}
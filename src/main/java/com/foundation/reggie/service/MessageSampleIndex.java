@@ -0,0 +1,371 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.dto.MessageSamplePage;
+import com.foundation.reggie.exception.BadRequestException;
+import com.foundation.reggie.model.MessageSample;
+import com.foundation.reggie.service.CloudStorageService.ReadResult;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.JsonNode;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over message samples, kept current from local writes and reloaded every
+ * {@code reggie.search.refresh-interval}. Words are lower-cased and camelCase is split.
+ */
+@Slf4j
+@Service
+public class MessageSampleIndex {
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern CAMEL_CASE = Pattern.compile("(?<=\\p{Ll})(?=\\p{Lu})|(?<=\\p{L})(?=\\p{N})");
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private final CloudStorageService cloudStorageService;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService refreshScheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("message-sample-index").daemon().factory());
+    private final Timer queryTimer;
+    private final Timer reloadTimer;
+
+    // Guarded by lock
+    private final NavigableMap<String, Document> documents = new TreeMap<>();
+    private final NavigableMap<String, NavigableSet<String>> postings = new TreeMap<>();
+    private final Map<String, NavigableSet<String>> byClassName = new HashMap<>();
+    /**
+     * Changes seen while a reload is reading storage, re-applied on top of what it read.
+     */
+    private Map<String, MessageSample> changedDuringReload;
+
+    private volatile boolean loaded;
+
+    public MessageSampleIndex(
+            CloudStorageService cloudStorageService,
+            @Value("${reggie.search.refresh-interval:5m}") Duration refreshInterval,
+            MeterRegistry meterRegistry) {
+        this.cloudStorageService = cloudStorageService;
+        this.queryTimer = Timer.builder("reggie.search.query")
+                .description("Message sample search latency")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.reloadTimer = Timer.builder("reggie.search.reload")
+                .description("Time to load every message sample from storage into the search index")
+                .register(meterRegistry);
+        Gauge.builder("reggie.search.index.documents", this, index -> index.size(index.documents))
+                .description("Message samples in the search index")
+                .register(meterRegistry);
+        Gauge.builder("reggie.search.index.terms", this, index -> index.size(index.postings))
+                .description("Distinct terms in the search index")
+                .register(meterRegistry);
+        if (!refreshInterval.isZero()) {
+            long interval = refreshInterval.toMillis();
+            refreshScheduler.scheduleWithFixedDelay(this::reloadQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refreshScheduler.execute(this::reloadQuietly);
+    }
+
+    @EventListener
+    public void onChange(MessageSampleChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringReload != null) {
+                changedDuringReload.put(event.messageId(), event.sample());
+            }
+            remove(event.messageId());
+            if (event.sample() != null) {
+                add(event.sample());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Samples matching every word of {@code query} as a prefix, ordered by message ID.
+     *
+     * @param className optional exact class name the samples must have
+     * @param pageToken token from a previous page, or {@code null} for the first page
+     */
+    public MessageSamplePage search(String query, String className, int limit, String pageToken) {
+        ensureLoaded();
+        String after = pageToken == null || pageToken.isEmpty() ? null : decodePageToken(pageToken);
+        Set<String> words = query == null ? Set.of() : terms(query);
+        return queryTimer.record(() -> {
+            lock.readLock().lock();
+            try {
+                return page(matching(words, className), limit, after);
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    private static String decodePageToken(String pageToken) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid pageToken: " + pageToken);
+        }
+    }
+
+    private List<NavigableSet<String>> matching(Set<String> words, String className) {
+        List<NavigableSet<String>> constraints = new ArrayList<>();
+        if (className != null && !className.isEmpty()) {
+            constraints.add(byClassName.getOrDefault(className, Collections.emptyNavigableSet()));
+        }
+        for (String word : words) {
+            NavigableMap<String, NavigableSet<String>> prefixed =
+                    postings.subMap(word, true, word + Character.MAX_VALUE, false);
+            if (prefixed.size() == 1) {
+                constraints.add(prefixed.firstEntry().getValue());
+            } else {
+                NavigableSet<String> union = new TreeSet<>();
+                prefixed.values().forEach(union::addAll);
+                constraints.add(union);
+            }
+        }
+        if (constraints.isEmpty()) {
+            constraints.add(documents.navigableKeySet());
+        }
+        // Walk the smallest set and probe the others
+        constraints.sort(Comparator.comparingInt(Set::size));
+        return constraints;
+    }
+
+    private MessageSamplePage page(List<NavigableSet<String>> constraints, int limit, String after) {
+        List<NavigableSet<String>> others = constraints.subList(1, constraints.size());
+        List<MessageSample> items = new ArrayList<>();
+        int total = 0;
+        boolean more = false;
+        for (String id : constraints.getFirst()) {
+            if (!others.stream().allMatch(set -> set.contains(id))) {
+                continue;
+            }
+            total++;
+            if (after != null && id.compareTo(after) <= 0) {
+                continue;
+            }
+            if (items.size() < limit) {
+                items.add(documents.get(id).sample());
+            } else {
+                more = true;
+            }
+        }
+        String nextPageToken = more
+                ? Base64.getUrlEncoder().withoutPadding().encodeToString(
+                        items.getLast().getMessageId().getBytes(StandardCharsets.UTF_8))
+                : null;
+        return new MessageSamplePage(items, total, nextPageToken);
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Failed to load message samples into the search index", e);
+        }
+    }
+
+    /**
+     * Replaces the index with every sample in storage, then re-applies local writes made meanwhile.
+     */
+    private synchronized void reload() {
+        lock.writeLock().lock();
+        try {
+            changedDuringReload = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ReadResult<MessageSample> read;
+        long start = System.nanoTime();
+        try {
+            read = cloudStorageService.getAllMessageSamples();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringReload = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        if (!read.failedBlobs().isEmpty()) {
+            log.warn("Search index skipped {} unreadable message samples: {}",
+                    read.failedBlobs().size(), read.failedBlobs());
+        }
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            byClassName.clear();
+            read.items().forEach(this::add);
+            changedDuringReload.forEach((messageId, sample) -> {
+                remove(messageId);
+                if (sample != null) {
+                    add(sample);
+                }
+            });
+            changedDuringReload = null;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        reloadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.debug("Indexed {} message samples", read.items().size());
+    }
+
+    private void add(MessageSample sample) {
+        String id = sample.getMessageId();
+        if (id == null) {
+            return;
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        addTerms(terms, id);
+        addTerms(terms, sample.getClassName());
+        addTerms(terms, sample.getTopic());
+        addTerms(terms, sample.getOrderingKey());
+        if (sample.getAttributes() != null) {
+            sample.getAttributes().forEach((key, value) -> {
+                addTerms(terms, key);
+                addTerms(terms, value);
+            });
+        }
+        addTerms(terms, sample.getMessage());
+        documents.put(id, new Document(sample, terms));
+        for (String term : terms) {
+            postings.computeIfAbsent(term, t -> new TreeSet<>()).add(id);
+        }
+        if (sample.getClassName() != null) {
+            byClassName.computeIfAbsent(sample.getClassName(), c -> new TreeSet<>()).add(id);
+        }
+    }
+
+    private void remove(String id) {
+        Document removed = documents.remove(id);
+        if (removed == null) {
+            return;
+        }
+        for (String term : removed.terms()) {
+            NavigableSet<String> ids = postings.get(term);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        String className = removed.sample().getClassName();
+        NavigableSet<String> ids = className != null ? byClassName.get(className) : null;
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            byClassName.remove(className);
+        }
+    }
+
+    private static void addTerms(Set<String> terms, JsonNode node) {
+        if (node == null || node.isNull()) {
+            return;
+        }
+        if (node.isObject()) {
+            for (Map.Entry<String, JsonNode> property : node.properties()) {
+                addTerms(terms, property.getKey());
+                addTerms(terms, property.getValue());
+            }
+        } else if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                addTerms(terms, node.get(i));
+            }
+        } else {
+            addTerms(terms, node.isString() ? node.stringValue() : node.toString());
+        }
+    }
+
+    private static void addTerms(Set<String> terms, String text) {
+        if (text != null) {
+            terms.addAll(terms(text));
+        }
+    }
+
+    /**
+     * Lower-cased words of {@code text}, plus the parts of camelCase and letter-digit words.
+     */
+    private static Set<String> terms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String word : WORD_SEPARATOR.split(text)) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            addTerm(terms, word);
+            String[] parts = CAMEL_CASE.split(word);
+            if (parts.length > 1) {
+                for (String part : parts) {
+                    addTerm(terms, part);
+                }
+            }
+        }
+        return terms;
+    }
+
+    private static void addTerm(Set<String> terms, String word) {
+        String term = word.toLowerCase();
+        terms.add(term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term);
+    }
+
+    /**
+     * Checks {@link #loaded} before taking the monitor {@link #reload()} holds.
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                reload();
+            }
+        }
+    }
+
+    private int size(Map<?, ?> map) {
+        lock.readLock().lock();
+        try {
+            return map.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshScheduler.shutdownNow();
+    }
+
+    private record Document(MessageSample sample, Set<String> terms) {
+    }
+}
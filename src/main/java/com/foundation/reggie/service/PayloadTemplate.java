@@ -0,0 +1,272 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.exception.BadRequestException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.JsonNodeFactory;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A payload, attributes and ordering key compiled once and rendered per publish. Placeholders:
+ * {@code {{seq}}}, {@code {{uuid}}}, {@code {{random:min:max}}}, {@code {{pick:a|b|c}}} and {@code {{now}}}.
+ */
+public final class PayloadTemplate {
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{\\s*(\\w+)(?::(.*?))?\\s*}}");
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private final Part message;
+    private final Map<String, List<Segment>> attributes;
+    private final Map<String, String> literalAttributes;
+    private final List<Segment> orderingKey;
+    private final String literalOrderingKey;
+
+    private PayloadTemplate(Part message, Map<String, List<Segment>> attributes, Map<String, String> literalAttributes,
+                            List<Segment> orderingKey, String literalOrderingKey) {
+        this.message = message;
+        this.attributes = attributes;
+        this.literalAttributes = literalAttributes;
+        this.orderingKey = orderingKey;
+        this.literalOrderingKey = literalOrderingKey;
+    }
+
+    /**
+     * @throws BadRequestException for an unknown or malformed placeholder
+     */
+    public static PayloadTemplate compile(JsonNode message, Map<String, String> attributes, String orderingKey) {
+        Map<String, List<Segment>> templatedAttributes = new LinkedHashMap<>();
+        if (attributes != null) {
+            attributes.forEach((name, value) -> {
+                List<Segment> segments = parse(value);
+                if (segments != null) {
+                    templatedAttributes.put(name, segments);
+                }
+            });
+        }
+        return new PayloadTemplate(compile(message), templatedAttributes, attributes,
+                orderingKey != null ? parse(orderingKey) : null, orderingKey);
+    }
+
+    /**
+     * A template that renders the payload and attributes unchanged.
+     */
+    public static PayloadTemplate literal(JsonNode message, Map<String, String> attributes, String orderingKey) {
+        return new PayloadTemplate(new Constant(message), Map.of(), attributes, null, orderingKey);
+    }
+
+    public JsonNode renderMessage(long seq) {
+        return message.render(seq);
+    }
+
+    public Map<String, String> renderAttributes(long seq) {
+        if (attributes.isEmpty()) {
+            return literalAttributes;
+        }
+        Map<String, String> rendered = new LinkedHashMap<>(literalAttributes);
+        attributes.forEach((name, segments) -> rendered.put(name, renderText(segments, seq)));
+        return rendered;
+    }
+
+    public String renderOrderingKey(long seq) {
+        return orderingKey != null ? renderText(orderingKey, seq) : literalOrderingKey;
+    }
+
+    private static Part compile(JsonNode node) {
+        if (node == null) {
+            return new Constant(null);
+        }
+        if (node.isObject()) {
+            Map<String, Part> properties = new LinkedHashMap<>();
+            boolean templated = false;
+            for (Map.Entry<String, JsonNode> property : node.properties()) {
+                Part part = compile(property.getValue());
+                properties.put(property.getKey(), part);
+                templated |= !(part instanceof Constant);
+            }
+            return templated ? new ObjectPart(properties) : new Constant(node);
+        }
+        if (node.isArray()) {
+            List<Part> elements = new ArrayList<>(node.size());
+            boolean templated = false;
+            for (int i = 0; i < node.size(); i++) {
+                Part part = compile(node.get(i));
+                elements.add(part);
+                templated |= !(part instanceof Constant);
+            }
+            return templated ? new ArrayPart(elements) : new Constant(node);
+        }
+        if (node.isString()) {
+            List<Segment> segments = parse(node.stringValue());
+            if (segments != null) {
+                return segments.size() == 1 && segments.getFirst() instanceof Placeholder placeholder
+                        ? new TypedPart(placeholder) : new TextPart(segments);
+            }
+        }
+        return new Constant(node);
+    }
+
+    /**
+     * @return the segments, or {@code null} if the text has no placeholders
+     */
+    private static List<Segment> parse(String text) {
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        List<Segment> segments = null;
+        int last = 0;
+        while (matcher.find()) {
+            if (segments == null) {
+                segments = new ArrayList<>();
+            }
+            if (matcher.start() > last) {
+                segments.add(new Literal(text.substring(last, matcher.start())));
+            }
+            segments.add(Placeholder.of(matcher.group(1), matcher.group(2), matcher.group()));
+            last = matcher.end();
+        }
+        if (segments != null && last < text.length()) {
+            segments.add(new Literal(text.substring(last)));
+        }
+        return segments;
+    }
+
+    private static String renderText(List<Segment> segments, long seq) {
+        StringBuilder text = new StringBuilder();
+        for (Segment segment : segments) {
+            switch (segment) {
+                case Literal literal -> text.append(literal.text());
+                case Placeholder placeholder -> text.append(placeholder.render(seq).asString());
+            }
+        }
+        return text.toString();
+    }
+
+    private sealed interface Part permits Constant, ObjectPart, ArrayPart, TextPart, TypedPart {
+        JsonNode render(long seq);
+    }
+
+    private record Constant(JsonNode node) implements Part {
+        @Override
+        public JsonNode render(long seq) {
+            return node;
+        }
+    }
+
+    private record ObjectPart(Map<String, Part> properties) implements Part {
+        @Override
+        public JsonNode render(long seq) {
+            ObjectNode object = NODES.objectNode();
+            properties.forEach((name, part) -> object.set(name, part.render(seq)));
+            return object;
+        }
+    }
+
+    private record ArrayPart(List<Part> elements) implements Part {
+        @Override
+        public JsonNode render(long seq) {
+            ArrayNode array = NODES.arrayNode(elements.size());
+            elements.forEach(part -> array.add(part.render(seq)));
+            return array;
+        }
+    }
+
+    private record TextPart(List<Segment> segments) implements Part {
+        @Override
+        public JsonNode render(long seq) {
+            return NODES.stringNode(renderText(segments, seq));
+        }
+    }
+
+    private record TypedPart(Placeholder placeholder) implements Part {
+        @Override
+        public JsonNode render(long seq) {
+            return placeholder.render(seq);
+        }
+    }
+
+    private sealed interface Segment permits Literal, Placeholder {
+    }
+
+    private record Literal(String text) implements Segment {
+    }
+
+    private record Placeholder(String name, BigDecimal min, BigDecimal max, String[] choices) implements Segment {
+
+        static Placeholder of(String name, String args, String source) {
+            switch (name) {
+                case "seq", "uuid", "now" -> {
+                    return new Placeholder(name, null, null, null);
+                }
+                case "random" -> {
+                    String[] bounds = args == null ? new String[0] : args.split(":");
+                    if (bounds.length != 2) {
+                        throw new BadRequestException("Expected {{random:min:max}} but got " + source);
+                    }
+                    BigDecimal min;
+                    BigDecimal max;
+                    try {
+                        min = new BigDecimal(bounds[0].trim());
+                        max = new BigDecimal(bounds[1].trim());
+                    } catch (NumberFormatException e) {
+                        throw new BadRequestException("Non-numeric bound in " + source);
+                    }
+                    if (min.compareTo(max) > 0) {
+                        throw new BadRequestException("Empty range in " + source);
+                    }
+                    // Integer ranges render through nextLong(min, max + 1)
+                    if (Math.max(min.scale(), max.scale()) <= 0
+                            && (!fitsInLong(min) || !fitsInLong(max) || max.longValue() == Long.MAX_VALUE)) {
+                        throw new BadRequestException("Integer bounds must be between " + Long.MIN_VALUE + " and "
+                                + (Long.MAX_VALUE - 1) + " in " + source);
+                    }
+                    return new Placeholder(name, min, max, null);
+                }
+                case "pick" -> {
+                    if (args == null || args.isEmpty()) {
+                        throw new BadRequestException("Expected {{pick:a|b|...}} but got " + source);
+                    }
+                    return new Placeholder(name, null, null, args.split("\\|", -1));
+                }
+                default -> throw new BadRequestException("Unknown placeholder " + source);
+            }
+        }
+
+        private static boolean fitsInLong(BigDecimal value) {
+            try {
+                value.longValueExact();
+                return true;
+            } catch (ArithmeticException e) {
+                return false;
+            }
+        }
+
+        JsonNode render(long seq) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return switch (name) {
+                case "seq" -> NODES.numberNode(seq);
+                case "uuid" -> NODES.stringNode(UUID.randomUUID().toString());
+                case "now" -> NODES.stringNode(Instant.now().toString());
+                case "pick" -> NODES.stringNode(choices[random.nextInt(choices.length)]);
+                case "random" -> {
+                    int scale = Math.max(Math.max(min.scale(), max.scale()), 0);
+                    if (scale == 0) {
+                        yield NODES.numberNode(random.nextLong(min.longValueExact(), max.longValueExact() + 1));
+                    }
+                    BigDecimal span = max.subtract(min);
+                    yield NODES.numberNode(min.add(span.multiply(BigDecimal.valueOf(random.nextDouble())))
+                            .setScale(scale, RoundingMode.HALF_UP));
+                }
+                default -> throw new IllegalStateException(name);
+            };
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.dto.MessageResult;
+import com.foundation.reggie.dto.PlaybackSnapshot;
+import com.foundation.reggie.model.PlaybackStatus;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mutable state of one server-side playback. Pause takes effect at the next column boundary.
+ */
+public class PlaybackRun {
+    @Getter
+    private final String id;
+    @Getter
+    private final String userId;
+    @Getter
+    private final String scenarioId;
+    @Getter
+    private final long columnDelayMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition stateChanged = lock.newCondition();
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+    private final Map<String, MessageResult> messageResults = new ConcurrentHashMap<>();
+    private final AtomicLong publishedMessages = new AtomicLong();
+    private final AtomicLong failedMessages = new AtomicLong();
+
+    private volatile PlaybackStatus status = PlaybackStatus.PLAYING;
+    private volatile int currentColumn;
+    private volatile int completedColumns;
+    private volatile long finishedAt;
+
+    PlaybackRun(String id, String userId, String scenarioId, long columnDelayMs) {
+        this.id = id;
+        this.userId = userId;
+        this.scenarioId = scenarioId;
+        this.columnDelayMs = columnDelayMs;
+    }
+
+    public PlaybackStatus getStatus() {
+        return status;
+    }
+
+    public void pause() {
+        transition(PlaybackStatus.PLAYING, PlaybackStatus.PAUSED);
+    }
+
+    public void resume() {
+        transition(PlaybackStatus.PAUSED, PlaybackStatus.PLAYING);
+    }
+
+    public void cancel() {
+        finish(PlaybackStatus.CANCELLED);
+    }
+
+    long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public PlaybackSnapshot snapshot() {
+        return new PlaybackSnapshot(id, userId, scenarioId, status, currentColumn, completedColumns,
+                columnDelayMs, publishedMessages.get(), failedMessages.get(), List.copyOf(errors),
+                Map.copyOf(messageResults));
+    }
+
+    /**
+     * Blocks while the run is paused.
+     *
+     * @return {@code true} if the next column should be published
+     */
+    boolean awaitTurn() throws InterruptedException {
+        lock.lock();
+        try {
+            while (status == PlaybackStatus.PAUSED) {
+                stateChanged.await();
+            }
+            return status == PlaybackStatus.PLAYING;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits out the inter-column delay, returning early if the run is cancelled.
+     */
+    void awaitColumnDelay() throws InterruptedException {
+        await(TimeUnit.MILLISECONDS.toNanos(columnDelayMs));
+    }
+
+    /**
+     * Waits before retrying a rejected publish, returning early if the run is cancelled.
+     */
+    void awaitRetry(Duration retryAfter) throws InterruptedException {
+        await(retryAfter != null ? retryAfter.toNanos() : 0);
+    }
+
+    private void await(long nanos) throws InterruptedException {
+        long remaining = nanos;
+        lock.lock();
+        try {
+            while (remaining > 0 && status != PlaybackStatus.CANCELLED) {
+                remaining = stateChanged.awaitNanos(remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void startColumn(int column) {
+        currentColumn = column;
+    }
+
+    void completeColumn(int column) {
+        completedColumns = column;
+    }
+
+    boolean isCancelled() {
+        return status == PlaybackStatus.CANCELLED;
+    }
+
+    void recordPublish(boolean success) {
+        (success ? publishedMessages : failedMessages).incrementAndGet();
+    }
+
+    void recordResult(String messageId, MessageResult result) {
+        messageResults.put(messageId, result);
+    }
+
+    void fail(List<String> failures) {
+        errors.addAll(failures);
+        finish(PlaybackStatus.FAILED);
+    }
+
+    void complete() {
+        finish(PlaybackStatus.COMPLETED);
+    }
+
+    private void finish(PlaybackStatus finalStatus) {
+        lock.lock();
+        try {
+            if (!status.isFinished()) {
+                status = finalStatus;
+                finishedAt = System.nanoTime();
+                stateChanged.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void transition(PlaybackStatus from, PlaybackStatus to) {
+        lock.lock();
+        try {
+            if (status == from) {
+                status = to;
+                stateChanged.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
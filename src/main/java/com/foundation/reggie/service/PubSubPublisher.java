@@ -1,70 +1,111 @@
 package com.foundation.reggie.service;
 
-import tools.jackson.databind.ObjectMapper;
+import com.foundation.reggie.exception.BadRequestException;
 import com.foundation.reggie.exception.PublishException;
-import com.google.api.core.ApiFuture;
-import com.google.cloud.pubsub.v1.Publisher;
+import com.foundation.reggie.exception.TooManyRequestsException;
+import com.foundation.reggie.transport.PublishTransport;
 import com.google.protobuf.ByteString;
 import com.google.pubsub.v1.PubsubMessage;
-import com.google.pubsub.v1.TopicName;
-import jakarta.annotation.PreDestroy;
-import org.springframework.beans.factory.annotation.Value;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Builds {@link PubsubMessage}s and hands them to the configured {@link PublishTransport},
+ * normalizing every failure to a {@link PublishException}.
+ */
 @Service
 public class PubSubPublisher {
-    private final String projectId;
+    private final PublishTransport transport;
+    private final PublishMetrics publishMetrics;
+    private final PublishLimiter publishLimiter;
+    private final AtomicInteger outstanding = new AtomicInteger();
 
-    private final Map<String, Publisher> publishers = new ConcurrentHashMap<>();
-
-    public PubSubPublisher(
-            @Value("${gcp.project-id}") String projectId,
-            ObjectMapper objectMapper) {
-        this.projectId = projectId;
+    public PubSubPublisher(PublishTransport transport, PublishMetrics publishMetrics, PublishLimiter publishLimiter,
+                           MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.publishMetrics = publishMetrics;
+        this.publishLimiter = publishLimiter;
+        Gauge.builder("reggie.pubsub.outstanding", outstanding, AtomicInteger::get)
+                .description("Publishes awaiting a transport acknowledgement")
+                .register(meterRegistry);
     }
 
     public String publish(String topic, String jsonMessage, Map<String, String> attributes) {
+        return publish(topic, ByteString.copyFromUtf8(jsonMessage), attributes);
+    }
+
+    public String publish(String topic, ByteString data, Map<String, String> attributes) {
         try {
-            Publisher publisher = getOrCreatePublisher(topic);
+            return publishAsync(topic, data, attributes).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof PublishException publishException) {
+                throw publishException;
+            }
+            throw new PublishException("Failed to publish message to topic: " + topic, e.getCause());
+        }
+    }
+
+    /**
+     * @return the message ID once acknowledged, or a {@link PublishException}
+     */
+    public CompletableFuture<String> publishAsync(String topic, String jsonMessage, Map<String, String> attributes) {
+        return publishAsync(topic, ByteString.copyFromUtf8(jsonMessage), attributes);
+    }
 
+    public CompletableFuture<String> publishAsync(String topic, ByteString data, Map<String, String> attributes) {
+        return publishAsync(topic, data, attributes, null);
+    }
+
+    /**
+     * @param orderingKey optional; messages with the same key are delivered in call order
+     * @throws TooManyRequestsException if {@link PublishLimiter} rejects the publish
+     */
+    public CompletableFuture<String> publishAsync(String topic, ByteString data, Map<String, String> attributes,
+                                                  String orderingKey) {
+        if (orderingKey != null && !orderingKey.isEmpty() && !transport.supportsOrdering(topic)) {
+            throw new BadRequestException("Message ordering is disabled for topic " + topic
+                    + "; publish without an orderingKey");
+        }
+        PublishLimiter.Permit permit = publishLimiter.acquire(topic);
+        CompletableFuture<String> result = new CompletableFuture<>();
+        result.whenComplete((messageId, error) -> permit.release());
+        try {
             PubsubMessage.Builder messageBuilder = PubsubMessage.newBuilder()
-                    .setData(ByteString.copyFromUtf8(jsonMessage));
+                    .setData(data);
 
             if (attributes != null) {
                 messageBuilder.putAllAttributes(attributes);
             }
+            if (orderingKey != null && !orderingKey.isEmpty()) {
+                messageBuilder.setOrderingKey(orderingKey);
+            }
 
-            ApiFuture<String> future = publisher.publish(messageBuilder.build());
-            return future.get();
+            CompletableFuture<String> future = transport.publish(topic, messageBuilder.build());
+            outstanding.incrementAndGet();
+            future.whenComplete((messageId, error) -> {
+                outstanding.decrementAndGet();
+                if (error == null) {
+                    result.complete(messageId);
+                } else {
+                    fail(result, topic, error);
+                }
+            });
         } catch (Exception e) {
-            throw new PublishException("Failed to publish message to topic: " + topic, e);
+            fail(result, topic, e);
         }
+        return result;
     }
 
-    private Publisher getOrCreatePublisher(String topic) {
-        return publishers.computeIfAbsent(topic, t -> {
-            try {
-                TopicName topicName = TopicName.of(projectId, t);
-                return Publisher.newBuilder(topicName).build();
-            } catch (Exception e) {
-                throw new PublishException("Failed to create publisher for topic: " + t, e);
-            }
-        });
-    }
-
-    @PreDestroy
-    public void shutdown() {
-        publishers.values().forEach(publisher -> {
-            try {
-                publisher.shutdown();
-                publisher.awaitTermination(30, TimeUnit.SECONDS);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        });
+    private void fail(CompletableFuture<String> result, String topic, Throwable failure) {
+        Throwable error = Futures.unwrap(failure);
+        publishMetrics.publishFailed(topic);
+        result.completeExceptionally(error instanceof PublishException
+                ? error : new PublishException("Failed to publish message to topic: " + topic, error));
     }
 }
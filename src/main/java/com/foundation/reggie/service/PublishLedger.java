@@ -0,0 +1,80 @@
+package com.foundation.reggie.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publish times of the last {@code reggie.tap.ledger-size} messages, recorded while a tap is open.
+ */
+@Component
+public class PublishLedger {
+    /**
+     * Publish time in epoch milliseconds.
+     */
+    public static final String PUBLISHED_AT_ATTRIBUTE = "reggie-published-at";
+
+    private final int maxEntries;
+    private final boolean alwaysStamp;
+    private final AtomicInteger openTaps = new AtomicInteger();
+    private final Map<String, Long> publishedAtMicros = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    public PublishLedger(@Value("${reggie.tap.ledger-size:100000}") int maxEntries,
+                         @Value("${reggie.tap.published-at-attribute:false}") boolean alwaysStamp) {
+        this.maxEntries = maxEntries;
+        this.alwaysStamp = alwaysStamp;
+    }
+
+    void tapOpened() {
+        openTaps.incrementAndGet();
+    }
+
+    void tapClosed() {
+        if (openTaps.decrementAndGet() == 0) {
+            publishedAtMicros.clear();
+            insertionOrder.clear();
+        }
+    }
+
+    /**
+     * @return whether publishes should carry {@link #PUBLISHED_AT_ATTRIBUTE}
+     */
+    public boolean stampsPublishedAt() {
+        return alwaysStamp || openTaps.get() > 0;
+    }
+
+    public void record(String messageId, long epochMicros) {
+        if (maxEntries <= 0 || openTaps.get() == 0) {
+            return;
+        }
+        if (publishedAtMicros.put(messageId, epochMicros) == null) {
+            insertionOrder.add(messageId);
+            while (publishedAtMicros.size() > maxEntries) {
+                String eldest = insertionOrder.poll();
+                if (eldest == null) {
+                    break;
+                }
+                publishedAtMicros.remove(eldest);
+            }
+        }
+    }
+
+    /**
+     * @return the publish time in epoch microseconds, or {@code null} if not published here recently
+     */
+    public Long publishedAt(String messageId) {
+        return publishedAtMicros.get(messageId);
+    }
+
+    public static long nowMicros() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000L + now.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,266 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.config.PublishLimitProperties;
+import com.foundation.reggie.config.PublishLimitProperties.TopicLimits;
+import com.foundation.reggie.dto.PublishLimitsReport;
+import com.foundation.reggie.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global and per-topic in-flight limits and token buckets, checked before the transport.
+ * At most {@code reggie.publish.limits.max-topics} idle topics are kept.
+ */
+@Component
+public class PublishLimiter {
+    private static final String GLOBAL = "*";
+    private static final Permit UNLIMITED = new Permit(null, null);
+
+    private final PublishLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Limit global;
+    private final Map<String, Limit> topics = new ConcurrentHashMap<>();
+
+    public PublishLimiter(PublishLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.global = newLimit(GLOBAL, properties.getGlobal());
+    }
+
+    /**
+     * Reserves capacity for one publish; release the permit once it completes.
+     *
+     * @throws TooManyRequestsException if an in-flight limit is reached or a bucket is empty
+     */
+    public Permit acquire(String topic) {
+        if (!properties.isEnabled()) {
+            return UNLIMITED;
+        }
+        Limit limit = enterTopic(topic);
+        // Rejections are counted before leaving the topic, so it cannot be evicted in between
+        TooManyRequestsException rejection;
+        if (!global.tryEnter()) {
+            rejection = rejectInFlight(global, limit, "all topics");
+            limit.exit();
+            throw rejection;
+        }
+        long waitNanos = limit.bucket.tryTake();
+        if (waitNanos > 0) {
+            rejection = rejectRate(limit, limit, "topic " + topic, waitNanos);
+            limit.exit();
+            global.exit();
+            throw rejection;
+        }
+        waitNanos = global.bucket.tryTake();
+        if (waitNanos > 0) {
+            limit.bucket.refund();
+            rejection = rejectRate(global, limit, "all topics", waitNanos);
+            limit.exit();
+            global.exit();
+            throw rejection;
+        }
+        return new Permit(global, limit);
+    }
+
+    /**
+     * Enters the topic's in-flight limit, retrying if it was evicted in between.
+     */
+    private Limit enterTopic(String topic) {
+        while (true) {
+            Limit limit = topics.get(topic);
+            if (limit == null) {
+                evictIdle();
+                limit = topics.computeIfAbsent(topic, name -> newLimit(name, properties.limitsFor(name)));
+            }
+            if (!limit.tryEnter()) {
+                throw rejectInFlight(limit, limit, "topic " + topic);
+            }
+            if (topics.get(topic) == limit) {
+                return limit;
+            }
+            limit.exit();
+        }
+    }
+
+    /**
+     * Evicts topics with nothing in flight; busy topics are kept even beyond the bound.
+     */
+    private void evictIdle() {
+        Iterator<Limit> limits = topics.values().iterator();
+        while (topics.size() >= properties.getMaxTopics() && limits.hasNext()) {
+            Limit limit = limits.next();
+            if (limit.inFlight.get() == 0 && topics.remove(limit.name, limit)) {
+                limit.meters.forEach(meterRegistry::remove);
+            }
+        }
+    }
+
+    public PublishLimitsReport report() {
+        Map<String, PublishLimitsReport.Limit> byTopic = new TreeMap<>();
+        topics.forEach((topic, limit) -> byTopic.put(topic, limit.snapshot()));
+        return new PublishLimitsReport(properties.isEnabled(), global.snapshot(), byTopic);
+    }
+
+    private TooManyRequestsException rejectInFlight(Limit limit, Limit topic, String scope) {
+        limit.rejectedInFlight.incrementAndGet();
+        rejected(limit, topic, "in-flight");
+        return new TooManyRequestsException("Too many publishes in flight for " + scope,
+                properties.getInFlightRetryAfter());
+    }
+
+    private TooManyRequestsException rejectRate(Limit limit, Limit topic, String scope, long waitNanos) {
+        limit.rejectedRate.incrementAndGet();
+        rejected(limit, topic, "rate");
+        return new TooManyRequestsException("Publish rate limit reached for " + scope, Duration.ofNanos(waitNanos));
+    }
+
+    /**
+     * Counts the rejection on the topic's own counter.
+     */
+    private void rejected(Limit limit, Limit topic, String reason) {
+        topic.rejections.computeIfAbsent(limit.name + " " + reason, key -> {
+            Counter counter = Counter.builder("reggie.publish.limiter.rejected")
+                    .tag("topic", topic.name)
+                    .tag("limit", limit.name)
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+            topic.meters.add(counter);
+            return counter;
+        }).increment();
+    }
+
+    private Limit newLimit(String name, TopicLimits limits) {
+        Limit limit = new Limit(name, limits);
+        limit.meters.add(Gauge.builder("reggie.publish.limiter.in-flight", limit.inFlight, AtomicInteger::get)
+                .description("Publishes admitted and awaiting a transport acknowledgement")
+                .tag("topic", name)
+                .register(meterRegistry));
+        return limit;
+    }
+
+    /**
+     * Capacity held by one admitted publish; releasing more than once has no effect.
+     */
+    public static final class Permit {
+        private final Limit global;
+        private final Limit topic;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Limit global, Limit topic) {
+            this.global = global;
+            this.topic = topic;
+        }
+
+        public void release() {
+            if (topic != null && released.compareAndSet(false, true)) {
+                topic.exit();
+                global.exit();
+            }
+        }
+    }
+
+    private static final class Limit {
+        private final String name;
+        private final int maxInFlight;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final TokenBucket bucket;
+        private final AtomicLong rejectedInFlight = new AtomicLong();
+        private final AtomicLong rejectedRate = new AtomicLong();
+        private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+        private final List<Meter> meters = new CopyOnWriteArrayList<>();
+
+        Limit(String name, TopicLimits limits) {
+            this.name = name;
+            this.maxInFlight = limits.getMaxInFlight() != null ? limits.getMaxInFlight() : 0;
+            this.bucket = new TokenBucket(limits.getRate() != null ? limits.getRate() : 0, limits.getBurst());
+        }
+
+        boolean tryEnter() {
+            if (maxInFlight <= 0) {
+                inFlight.incrementAndGet();
+                return true;
+            }
+            while (true) {
+                int current = inFlight.get();
+                if (current >= maxInFlight) {
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void exit() {
+            inFlight.decrementAndGet();
+        }
+
+        PublishLimitsReport.Limit snapshot() {
+            return new PublishLimitsReport.Limit(inFlight.get(), maxInFlight, bucket.rate, bucket.burst,
+                    bucket.available(), rejectedInFlight.get(), rejectedRate.get());
+        }
+    }
+
+    private static final class TokenBucket {
+        private final double rate;
+        private final int burst;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        TokenBucket(double rate, Integer burst) {
+            this.rate = rate;
+            this.burst = rate <= 0 ? 0 : burst != null && burst > 0 ? burst : Math.max(1, (int) Math.ceil(rate));
+            this.tokens = this.burst;
+        }
+
+        /**
+         * @return zero if a token was taken, otherwise the nanoseconds until one is available
+         */
+        synchronized long tryTake() {
+            if (rate <= 0) {
+                return 0;
+            }
+            refill();
+            if (tokens >= 1) {
+                tokens--;
+                return 0;
+            }
+            return Math.max(1, (long) ((1 - tokens) / rate * TimeUnit.SECONDS.toNanos(1)));
+        }
+
+        synchronized void refund() {
+            if (rate > 0) {
+                tokens = Math.min(burst, tokens + 1);
+            }
+        }
+
+        synchronized double available() {
+            if (rate <= 0) {
+                return 0;
+            }
+            refill();
+            return tokens;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - refilledAt) * rate / TimeUnit.SECONDS.toNanos(1));
+            refilledAt = now;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.registry.PayloadEncoding;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Meters for the publish hot path, cached per topic and message type. Each cache holds at most
+ * {@code reggie.publish.metrics.max-cached} entries and evicts an arbitrary one when full.
+ */
+@Component
+public class PublishMetrics {
+    static final String PHASE_TIMER = "reggie.publish.phase";
+    static final String LATENCY_TIMER = "reggie.publish.latency";
+    static final String DESERIALIZATION_ERRORS = "reggie.registry.deserialization.errors";
+    static final String PUBLISH_ERRORS = "reggie.publish.errors";
+    static final String PAYLOAD_SIZE = "reggie.publish.payload.size";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxCached;
+    private final Map<TypeKey, TypeMeters> typeMeters = new ConcurrentHashMap<>();
+    private final Map<TypeKey, DistributionSummary> payloadSizes = new ConcurrentHashMap<>();
+    private final Map<String, Counter> deserializationErrors = new ConcurrentHashMap<>();
+    private final Map<String, Counter> publishErrors = new ConcurrentHashMap<>();
+
+    public PublishMetrics(MeterRegistry meterRegistry,
+                          @Value("${reggie.publish.metrics.max-cached:1000}") int maxCached) {
+        this.meterRegistry = meterRegistry;
+        this.maxCached = maxCached;
+    }
+
+    public void recordDeserialize(String topic, String className, long nanos) {
+        typeMeters(topic, className).deserialize().record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSerialize(String topic, String className, long nanos) {
+        typeMeters(topic, className).serialize().record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAck(String topic, String className, long nanos) {
+        typeMeters(topic, className).ack().record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLatency(String topic, String className, long nanos) {
+        typeMeters(topic, className).latency().record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPayloadSize(String topic, PayloadEncoding encoding, int bytes) {
+        cached(payloadSizes, new TypeKey(topic, encoding.attributeValue()),
+                key -> DistributionSummary.builder(PAYLOAD_SIZE)
+                        .description("Size of published payloads")
+                        .baseUnit("bytes")
+                        .tag("topic", key.topic())
+                        .tag("encoding", key.type())
+                        .register(meterRegistry))
+                .record(bytes);
+    }
+
+    public void deserializationFailed(String className) {
+        cached(deserializationErrors, className, key -> Counter.builder(DESERIALIZATION_ERRORS)
+                .tag("className", key)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    public void publishFailed(String topic) {
+        cached(publishErrors, topic, key -> Counter.builder(PUBLISH_ERRORS)
+                .tag("topic", key)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    private TypeMeters typeMeters(String topic, String className) {
+        return cached(typeMeters, new TypeKey(topic, className), key -> new TypeMeters(
+                phase("deserialize", key),
+                phase("serialize", key),
+                phase("ack", key),
+                Timer.builder(LATENCY_TIMER)
+                        .description("End-to-end publish latency from request to Pub/Sub acknowledgement")
+                        .tag("topic", key.topic())
+                        .tag("className", key.type())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)));
+    }
+
+    private Timer phase(String phase, TypeKey key) {
+        return Timer.builder(PHASE_TIMER)
+                .tag("phase", phase)
+                .tag("topic", key.topic())
+                .tag("className", key.type())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private <K, V> V cached(Map<K, V> cache, K key, Function<K, V> register) {
+        V meter = cache.get(key);
+        if (meter != null) {
+            return meter;
+        }
+        if (cache.size() >= maxCached) {
+            // The map is unordered, so whichever entry iterates first is evicted
+            Iterator<K> any = cache.keySet().iterator();
+            if (any.hasNext()) {
+                any.next();
+                any.remove();
+            }
+        }
+        return cache.computeIfAbsent(key, register);
+    }
+
+    private record TypeKey(String topic, String type) {
+    }
+
+    private record TypeMeters(Timer deserialize, Timer serialize, Timer ack, Timer latency) {
+    }
+}
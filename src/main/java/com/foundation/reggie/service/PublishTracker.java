@@ -0,0 +1,49 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.dto.PublishTracking;
+import com.foundation.reggie.exception.ResourceNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Remembers the outcome of fire-and-forget publishes. Only the most recent
+ * {@code reggie.publish.tracking.max-entries} publishes are retained.
+ */
+@Service
+public class PublishTracker {
+    private final Map<String, PublishTracking> trackings;
+
+    public PublishTracker(@Value("${reggie.publish.tracking.max-entries:10000}") int maxEntries) {
+        this.trackings = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PublishTracking> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    public PublishTracking track(CompletableFuture<String> messageId) {
+        String trackingId = UUID.randomUUID().toString();
+        PublishTracking pending = new PublishTracking(trackingId, PublishTracking.Status.PENDING, null, null);
+        trackings.put(trackingId, pending);
+        messageId.whenComplete((id, e) -> trackings.computeIfPresent(trackingId, (key, current) -> e == null
+                ? new PublishTracking(trackingId, PublishTracking.Status.PUBLISHED, id, null)
+                : new PublishTracking(trackingId, PublishTracking.Status.FAILED, null,
+                        Futures.unwrap(e).getMessage())));
+        return pending;
+    }
+
+    public PublishTracking get(String trackingId) {
+        PublishTracking tracking = trackings.get(trackingId);
+        if (tracking == null) {
+            throw new ResourceNotFoundException("Publish tracking not found: " + trackingId);
+        }
+        return tracking;
+    }
+}
@@ -0,0 +1,469 @@
+package com.foundation.reggie.service;
+
+import tools.jackson.databind.ObjectMapper;
+import com.foundation.reggie.exception.BadRequestException;
+import com.foundation.reggie.exception.ConflictException;
+import com.foundation.reggie.exception.PreconditionFailedException;
+import com.foundation.reggie.exception.ResourceNotFoundException;
+import com.foundation.reggie.exception.StorageException;
+import com.foundation.reggie.model.Scenario;
+import com.foundation.reggie.model.ScenarioJournalEntry;
+import com.foundation.reggie.model.ScenarioOperation;
+import com.foundation.reggie.model.ScenarioSummary;
+import com.foundation.reggie.service.BlobStore.WriteOptions;
+import com.foundation.reggie.service.CloudStorageService.Versioned;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+
+import static com.foundation.reggie.service.BlobStore.NOT_FOUND;
+import static com.foundation.reggie.service.BlobStore.PRECONDITION_FAILED;
+import static com.foundation.reggie.service.BlobStore.etag;
+
+/**
+ * Scenario snapshots and their change journals. Each {@code PATCH} is one entry, published by raising
+ * the journal head in the snapshot's metadata and folded into a new snapshot in the background.
+ */
+@Slf4j
+@Component
+public class ScenarioJournal {
+
+    private static final String JOURNALS_SUFFIX = "/journals/";
+    /**
+     * Snapshot metadata: the last journal entry folded into the snapshot.
+     */
+    private static final String JOURNAL_SEQ_METADATA = "reggie-journal-seq";
+    /**
+     * Snapshot metadata: the newest published entry; the entries after
+     * {@link #JOURNAL_SEQ_METADATA} up to it are live and replayed by every read.
+     */
+    private static final String JOURNAL_HEAD_METADATA = "reggie-journal-head";
+    /**
+     * Snapshot metadata: the generation of the last abandoned entry fenced off.
+     */
+    private static final String JOURNAL_FENCE_METADATA = "reggie-journal-fence";
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final BlobStore blobStore;
+    private final ObjectMapper objectMapper;
+    private final long compactBytes;
+    private final int compactEntries;
+    private final ExecutorService compactionExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<String> compacting = ConcurrentHashMap.newKeySet();
+    private final Counter skipped;
+
+    public ScenarioJournal(
+            BlobStore blobStore,
+            ObjectMapper objectMapper,
+            @Value("${reggie.storage.journal.compact-bytes:65536}") long compactBytes,
+            @Value("${reggie.storage.journal.compact-entries:100}") int compactEntries,
+            MeterRegistry meterRegistry) {
+        this.blobStore = blobStore;
+        this.objectMapper = objectMapper;
+        this.compactBytes = compactBytes;
+        this.compactEntries = compactEntries;
+        this.skipped = Counter.builder("reggie.storage.journal.skipped")
+                .description("Journal operations skipped on replay because they no longer apply")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replaces the snapshot if it is still at the version read, then deletes the superseded entries.
+     *
+     * @param ifMatch an ETag from a previous read, {@code *}, or {@code null}
+     */
+    Blob replace(String userId, Scenario scenario, String ifMatch) {
+        String blobName = CloudStorageService.scenarioBlobName(userId, scenario.getId());
+        for (int attempt = 1; ; attempt++) {
+            Blob current = blobStore.get(blobName);
+            checkIfMatch(current, blobName, ifMatch);
+            try {
+                if (current == null) {
+                    return blobStore.writeJson(blobName, scenario, WriteOptions.ifAbsent(blobStore.blobId(blobName)));
+                }
+                long head = headOf(current);
+                Map<String, String> metadata = head > 0 ? Map.of(JOURNAL_SEQ_METADATA, Long.toString(head),
+                        JOURNAL_HEAD_METADATA, Long.toString(head)) : null;
+                Blob written = blobStore.writeJson(blobName, scenario,
+                        WriteOptions.ifUnchanged(current).withMetadata(metadata));
+                deleteEntries(entryIds(current, foldedSeqOf(current), head));
+                return written;
+            } catch (com.google.cloud.storage.StorageException e) {
+                if (e.getCode() != PRECONDITION_FAILED) {
+                    throw new StorageException("Failed to write to Cloud Storage: " + blobName, e);
+                }
+                if (ifMatch != null) {
+                    throw new PreconditionFailedException("Blob was modified since " + ifMatch + ": " + blobName);
+                }
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw new StorageException("Scenario kept changing while being replaced: " + blobName, e);
+                }
+            } catch (RuntimeException e) {
+                throw new StorageException("Failed to write to Cloud Storage: " + blobName, e);
+            }
+        }
+    }
+
+    /**
+     * Appends the operations as one entry and publishes it on the snapshot version they were
+     * validated against, validating again if the scenario changed in between.
+     *
+     * @param ifMatch an ETag from a previous read, {@code *}, or {@code null}
+     * @throws ConflictException if the scenario kept changing under every attempt
+     */
+    Appended append(String userId, String id, List<ScenarioOperation> operations, String ifMatch) {
+        if (operations == null || operations.isEmpty()) {
+            throw new BadRequestException("At least one operation is required");
+        }
+        boolean pinned = ifMatch != null && !ifMatch.trim().equals("*");
+        Long leftInPlace = null;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            JournaledScenario current = read(userId, id, etag -> false);
+            Blob snapshot = current.snapshot();
+            checkIfMatch(snapshot, snapshot.getName(), ifMatch);
+            Scenario scenario = current.scenario();
+            ScenarioSummary before = ScenarioSummary.of(scenario);
+            operations.forEach(operation -> operation.applyTo(scenario));
+
+            long seq = current.journalSeq() + 1;
+            String blobName = entryBlobName(userId, id, seq);
+            ScenarioJournalEntry entry = new ScenarioJournalEntry(seq, operations, snapshot.getGeneration(),
+                    snapshot.getMetageneration());
+            Blob written;
+            try {
+                written = blobStore.writeJson(blobName, entry, WriteOptions.ifAbsent(blobStore.blobId(blobName)));
+            } catch (com.google.cloud.storage.StorageException e) {
+                if (e.getCode() != PRECONDITION_FAILED) {
+                    throw new StorageException("Failed to append to scenario journal: " + blobName, e);
+                }
+                leftInPlace = clearUnpublished(snapshot.getName(), blobName, seq, leftInPlace);
+                continue;
+            } catch (RuntimeException e) {
+                throw new StorageException("Failed to append to scenario journal: " + blobName, e);
+            }
+
+            Blob published = blobStore.updateMetadata(snapshot, Map.of(JOURNAL_HEAD_METADATA, Long.toString(seq)));
+            if (published == null) {
+                deleteEntries(List.of(written.getBlobId()));
+                if (pinned) {
+                    throw new PreconditionFailedException("Blob was modified since " + ifMatch + ": "
+                            + snapshot.getName());
+                }
+                continue;
+            }
+            long journalBytes = current.journalBytes() + (written.getSize() != null ? written.getSize() : 0);
+            if (journalBytes >= compactBytes || current.entries() + 1 >= compactEntries) {
+                compactAsync(userId, id);
+            }
+            return new Appended(new Versioned<>(scenario, etag(published)),
+                    !ScenarioSummary.of(scenario).equals(before));
+        }
+        throw new ConflictException("Scenario kept changing while being patched: " + userId + "/" + id);
+    }
+
+    /**
+     * Deletes an unpublished entry in the way, fencing it off first if its writer may still publish it.
+     *
+     * @param leftBefore the entry generation the previous attempt left in place, if any
+     * @return the entry's generation if it was left in place
+     */
+    private Long clearUnpublished(String snapshotName, String blobName, long seq, Long leftBefore) {
+        Blob pending = blobStore.get(blobName);
+        ScenarioJournalEntry entry = pending != null
+                ? blobStore.parseCurrent(pending, ScenarioJournalEntry.class) : null;
+        Blob snapshot = blobStore.get(snapshotName);
+        if (entry == null || snapshot == null || headOf(snapshot) >= seq) {
+            return null;
+        }
+        boolean publishable = Objects.equals(entry.getSnapshotGeneration(), snapshot.getGeneration())
+                && Objects.equals(entry.getSnapshotMetageneration(), snapshot.getMetageneration());
+        if (publishable) {
+            if (!pending.getGeneration().equals(leftBefore)) {
+                return pending.getGeneration();
+            }
+            if (blobStore.updateMetadata(snapshot,
+                    Map.of(JOURNAL_FENCE_METADATA, Long.toString(pending.getGeneration()))) == null) {
+                return null;
+            }
+        }
+        log.warn("Deleting unpublished scenario journal entry {}", blobName);
+        deleteEntries(List.of(pending.getBlobId()));
+        return null;
+    }
+
+    private static void checkIfMatch(Blob current, String blobName, String ifMatch) {
+        if (ifMatch == null) {
+            return;
+        }
+        if (current == null) {
+            throw new PreconditionFailedException("Blob does not exist: " + blobName);
+        }
+        if (!ifMatch.trim().equals("*") && !BlobStore.sameVersion(current, ifMatch)) {
+            throw new PreconditionFailedException("Blob was modified since " + ifMatch + ": " + blobName);
+        }
+    }
+
+    /**
+     * Reads the snapshot and replays its live journal.
+     *
+     * @return the scenario, or {@code null} if {@code notModified} accepted the snapshot's ETag
+     */
+    JournaledScenario read(String userId, String id, Predicate<String> notModified) {
+        String blobName = CloudStorageService.scenarioBlobName(userId, id);
+        for (int attempt = 1; ; attempt++) {
+            Blob snapshot = blobStore.get(blobName);
+            if (snapshot == null) {
+                throw new ResourceNotFoundException("Blob not found: " + blobName);
+            }
+            if (notModified.test(etag(snapshot))) {
+                return null;
+            }
+            JournaledScenario current = replay(snapshot);
+            if (current != null) {
+                return current;
+            }
+            if (attempt >= MAX_ATTEMPTS) {
+                throw new StorageException("Scenario kept changing while being read: " + blobName, null);
+            }
+        }
+    }
+
+    /**
+     * A listed scenario with its live journal replayed, read again by name if it was
+     * replaced since the listing.
+     */
+    Scenario readScenario(Blob blob) {
+        JournaledScenario current = replay(blob);
+        if (current == null) {
+            Matcher scenario = scenarioBlob(blob);
+            current = read(scenario.group(1), scenario.group(2), etag -> false);
+        }
+        return current.scenario();
+    }
+
+    /**
+     * @return the stored bytes, or the scenario with its live journal replayed; {@code null} if the blob
+     * was deleted after it was listed
+     */
+    byte[] currentContent(Blob blob) {
+        if (hasLiveEntries(blob) && CloudStorageService.SCENARIO_BLOB.matcher(blob.getName()).matches()) {
+            return objectMapper.writeValueAsBytes(readScenario(blob));
+        }
+        try {
+            return blobStore.readContent(blob);
+        } catch (com.google.cloud.storage.StorageException e) {
+            if (e.getCode() != NOT_FOUND) {
+                throw e;
+            }
+            Blob current = blobStore.get(blob.getName());
+            if (current == null) {
+                return null;
+            }
+            if (Objects.equals(current.getGeneration(), blob.getGeneration())) {
+                throw e;
+            }
+            return currentContent(current);
+        }
+    }
+
+    /**
+     * @return whether the snapshot alone is not the whole scenario
+     */
+    static boolean hasLiveEntries(Blob snapshot) {
+        return headOf(snapshot) > foldedSeqOf(snapshot);
+    }
+
+    /**
+     * Listed rather than taken from the snapshot, so no unpublished entry outlives the scenario.
+     */
+    void deleteAll(String userId, String id) {
+        List<BlobId> entries = new ArrayList<>();
+        try {
+            for (Blob blob : blobStore.list(userId + JOURNALS_SUFFIX + id + "/")) {
+                if (blob.getName().endsWith(".json")) {
+                    entries.add(blobStore.blobId(blob.getName()));
+                }
+            }
+        } catch (Exception e) {
+            throw new StorageException("Failed to list scenario journal: " + userId + "/" + id, e);
+        }
+        deleteEntries(entries);
+    }
+
+    /**
+     * Applies the snapshot's live entries; operations that no longer apply are skipped and counted.
+     *
+     * @return the replayed scenario, or {@code null} if the snapshot or one of its entries was replaced
+     */
+    private JournaledScenario replay(Blob snapshot) {
+        Scenario scenario = blobStore.parseCurrent(snapshot, Scenario.class);
+        if (scenario == null) {
+            return null;
+        }
+        long folded = foldedSeqOf(snapshot);
+        long head = headOf(snapshot);
+        long journalBytes = 0;
+        for (List<BlobId> batch : BlobStore.batches(entryIds(snapshot, folded, head))) {
+            for (Blob blob : blobStore.get(batch)) {
+                ScenarioJournalEntry entry = blob != null
+                        ? blobStore.parseCurrent(blob, ScenarioJournalEntry.class) : null;
+                if (entry == null) {
+                    return null;
+                }
+                for (ScenarioOperation operation : entry.getOperations()) {
+                    try {
+                        operation.applyTo(scenario);
+                    } catch (BadRequestException e) {
+                        log.warn("Skipping journal operation in {}: {}", blob.getName(), e.getMessage());
+                        skipped.increment();
+                    }
+                }
+                journalBytes += blob.getSize() != null ? blob.getSize() : 0;
+            }
+        }
+        return new JournaledScenario(snapshot, scenario, head, journalBytes, (int) (head - folded));
+    }
+
+    private void compactAsync(String userId, String id) {
+        try {
+            compactionExecutor.execute(() -> {
+                try {
+                    compact(userId, id);
+                } catch (RuntimeException e) {
+                    log.warn("Failed to compact journal of scenario {}/{}", userId, id, e);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.debug("Not compacting journal of scenario {}/{}: {}", userId, id, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the snapshot with its live journal applied if it is still at the version read,
+     * then deletes the folded entries.
+     */
+    private void compact(String userId, String id) {
+        String key = userId + "/" + id;
+        if (!compacting.add(key)) {
+            return;
+        }
+        try {
+            String blobName = CloudStorageService.scenarioBlobName(userId, id);
+            Blob snapshot = blobStore.get(blobName);
+            JournaledScenario current = snapshot != null ? replay(snapshot) : null;
+            if (current == null || current.entries() == 0) {
+                return;
+            }
+            String seq = Long.toString(current.journalSeq());
+            try {
+                blobStore.writeJson(blobName, current.scenario(), WriteOptions.ifUnchanged(snapshot)
+                        .withMetadata(Map.of(JOURNAL_SEQ_METADATA, seq, JOURNAL_HEAD_METADATA, seq)));
+            } catch (com.google.cloud.storage.StorageException e) {
+                if (e.getCode() == PRECONDITION_FAILED) {
+                    // A patch, upsert or another replica changed the snapshot; the next patch retries
+                    return;
+                }
+                throw new StorageException("Failed to compact scenario journal: " + blobName, e);
+            }
+            deleteEntries(entryIds(snapshot, foldedSeqOf(snapshot), current.journalSeq()));
+        } finally {
+            compacting.remove(key);
+        }
+    }
+
+    private void deleteEntries(List<BlobId> entries) {
+        for (List<BlobId> batch : BlobStore.batches(entries)) {
+            try {
+                blobStore.delete(batch);
+            } catch (RuntimeException e) {
+                // Leftover entries are at or below the head, or unpublished, so readers never apply them
+                log.warn("Failed to delete {} scenario journal entries", batch.size(), e);
+            }
+        }
+    }
+
+    /**
+     * @return the journal entries of the snapshot's scenario after {@code after} up to {@code upTo}
+     */
+    private List<BlobId> entryIds(Blob snapshot, long after, long upTo) {
+        if (upTo <= after) {
+            return List.of();
+        }
+        Matcher scenario = scenarioBlob(snapshot);
+        List<BlobId> ids = new ArrayList<>((int) (upTo - after));
+        for (long seq = after + 1; seq <= upTo; seq++) {
+            ids.add(blobStore.blobId(entryBlobName(scenario.group(1), scenario.group(2), seq)));
+        }
+        return ids;
+    }
+
+    private static Matcher scenarioBlob(Blob blob) {
+        Matcher scenario = CloudStorageService.SCENARIO_BLOB.matcher(blob.getName());
+        if (!scenario.matches()) {
+            throw new StorageException("Not a scenario blob: " + blob.getName(), null);
+        }
+        return scenario;
+    }
+
+    private static String entryBlobName(String userId, String id, long seq) {
+        return userId + JOURNALS_SUFFIX + id + "/" + String.format("%012d", seq) + ".json";
+    }
+
+    /**
+     * @return the last journal entry folded into the snapshot, or {@code 0} if none
+     */
+    private static long foldedSeqOf(Blob snapshot) {
+        return seqMetadata(snapshot, JOURNAL_SEQ_METADATA);
+    }
+
+    /**
+     * @return the newest published journal entry, or {@link #foldedSeqOf} if none is live
+     */
+    private static long headOf(Blob snapshot) {
+        return Math.max(foldedSeqOf(snapshot), seqMetadata(snapshot, JOURNAL_HEAD_METADATA));
+    }
+
+    private static long seqMetadata(Blob snapshot, String key) {
+        Map<String, String> metadata = snapshot.getMetadata();
+        String seq = metadata != null ? metadata.get(key) : null;
+        return seq != null ? Long.parseLong(seq) : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        compactionExecutor.shutdown();
+        compactionExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param journalSeq the newest entry applied, or the snapshot's folded sequence if none
+     */
+    record JournaledScenario(Blob snapshot, Scenario scenario, long journalSeq, long journalBytes, int entries) {
+        Versioned<Scenario> versioned() {
+            return new Versioned<>(scenario, etag(snapshot));
+        }
+    }
+
+    /**
+     * @param summaryChanged whether the patch changed what the scenario manifest records
+     */
+    record Appended(Versioned<Scenario> scenario, boolean summaryChanged) {
+    }
+}
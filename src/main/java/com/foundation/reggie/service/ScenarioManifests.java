@@ -0,0 +1,152 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.exception.StorageException;
+import com.foundation.reggie.model.Scenario;
+import com.foundation.reggie.model.ScenarioManifest;
+import com.foundation.reggie.model.ScenarioSummary;
+import com.foundation.reggie.service.BlobStore.WriteOptions;
+import com.foundation.reggie.service.CloudStorageService.ReadResult;
+import com.foundation.reggie.service.CloudStorageService.Versioned;
+import com.google.cloud.storage.Blob;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static com.foundation.reggie.service.BlobStore.PRECONDITION_FAILED;
+import static com.foundation.reggie.service.BlobStore.etag;
+
+/**
+ * The per-user scenario manifest at {@code {userId}/scenario-manifest.json}: every scenario's
+ * summary in one object, rebuilt from the scenario blobs when missing.
+ */
+@Slf4j
+@Component
+public class ScenarioManifests {
+
+    private static final String MANIFEST_SUFFIX = "/scenario-manifest.json";
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final BlobStore blobStore;
+    private final ScenarioJournal scenarioJournal;
+    private final Counter repairs;
+
+    public ScenarioManifests(BlobStore blobStore, ScenarioJournal scenarioJournal, MeterRegistry meterRegistry) {
+        this.blobStore = blobStore;
+        this.scenarioJournal = scenarioJournal;
+        this.repairs = Counter.builder("reggie.storage.manifest.repairs")
+                .description("Manifests deleted for rebuilding after an update failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the manifest, rebuilt if missing, or {@code null} if {@code notModified} accepted its ETag
+     */
+    Versioned<ScenarioManifest> read(String userId, Predicate<String> notModified) {
+        String blobName = userId + MANIFEST_SUFFIX;
+        Blob blob = blobStore.get(blobName);
+        if (blob != null) {
+            return notModified.test(etag(blob))
+                    ? null : new Versioned<>(blobStore.parse(blob, ScenarioManifest.class), etag(blob));
+        }
+        ReadResult<Scenario> scenarios = readScenarios(userId);
+        ScenarioManifest manifest = toManifest(scenarios.items());
+        if (!scenarios.failedBlobs().isEmpty()) {
+            // Storing it would hide the unreadable scenarios until their next upsert
+            log.warn("Not storing the scenario manifest of {}: {} scenarios could not be read", userId,
+                    scenarios.failedBlobs().size());
+            return new Versioned<>(manifest, null);
+        }
+        String etag = null;
+        try {
+            etag = etag(blobStore.writeJson(blobName, manifest, WriteOptions.ifAbsent(blobStore.blobId(blobName))));
+        } catch (com.google.cloud.storage.StorageException e) {
+            if (e.getCode() != PRECONDITION_FAILED) {
+                throw new StorageException("Failed to write scenario manifest: " + blobName, e);
+            }
+            // Another request created the manifest first; ours is equally current
+        } catch (RuntimeException e) {
+            throw new StorageException("Failed to write scenario manifest: " + blobName, e);
+        }
+        return new Versioned<>(manifest, etag);
+    }
+
+    /**
+     * Deletes the manifest instead of failing if it cannot be updated.
+     */
+    void update(String userId, Consumer<Map<String, ScenarioSummary>> change) {
+        try {
+            updateOrThrow(userId, change);
+        } catch (RuntimeException e) {
+            String blobName = userId + MANIFEST_SUFFIX;
+            log.warn("Failed to update scenario manifest {}; deleting it to be rebuilt", blobName, e);
+            repairs.increment();
+            try {
+                blobStore.delete(blobName);
+            } catch (RuntimeException deleteFailure) {
+                log.error("Failed to delete scenario manifest {}; summaries stay stale until its next update",
+                        blobName, deleteFailure);
+            }
+        }
+    }
+
+    /**
+     * Applies the change on the manifest's current generation, retrying if another write got there first.
+     */
+    private void updateOrThrow(String userId, Consumer<Map<String, ScenarioSummary>> change) {
+        String blobName = userId + MANIFEST_SUFFIX;
+        for (int attempt = 1; ; attempt++) {
+            Blob blob = blobStore.get(blobName);
+            ScenarioManifest manifest;
+            if (blob != null) {
+                manifest = blobStore.parse(blob, ScenarioManifest.class);
+            } else {
+                ReadResult<Scenario> scenarios = readScenarios(userId);
+                if (!scenarios.failedBlobs().isEmpty()) {
+                    log.warn("Not rebuilding scenario manifest {}: {} scenarios could not be read", blobName,
+                            scenarios.failedBlobs().size());
+                    return;
+                }
+                manifest = toManifest(scenarios.items());
+            }
+            Map<String, ScenarioSummary> summaries = new TreeMap<>();
+            manifest.getScenarios().forEach(summary -> summaries.put(summary.getId(), summary));
+            change.accept(summaries);
+            manifest.setScenarios(new ArrayList<>(summaries.values()));
+            try {
+                blobStore.writeJson(blobName, manifest, blob != null
+                        ? WriteOptions.ifGeneration(blob.getBlobId())
+                        : WriteOptions.ifAbsent(blobStore.blobId(blobName)));
+                return;
+            } catch (com.google.cloud.storage.StorageException e) {
+                if (e.getCode() != PRECONDITION_FAILED || attempt >= MAX_ATTEMPTS) {
+                    throw new StorageException("Failed to update scenario manifest: " + blobName, e);
+                }
+            } catch (RuntimeException e) {
+                throw new StorageException("Failed to update scenario manifest: " + blobName, e);
+            }
+        }
+    }
+
+    private ReadResult<Scenario> readScenarios(String userId) {
+        return blobStore.readAll(CloudStorageService.scenarioPrefix(userId), scenarioJournal::readScenario);
+    }
+
+    private static ScenarioManifest toManifest(List<Scenario> scenarios) {
+        ScenarioManifest manifest = new ScenarioManifest();
+        manifest.setScenarios(scenarios.stream()
+                .map(ScenarioSummary::of)
+                .sorted(Comparator.comparing(ScenarioSummary::getId))
+                .collect(Collectors.toCollection(ArrayList::new)));
+        return manifest;
+    }
+}
@@ -0,0 +1,261 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.dto.MessageResult;
+import com.foundation.reggie.exception.ResourceNotFoundException;
+import com.foundation.reggie.exception.TooManyRequestsException;
+import com.foundation.reggie.model.PubSubPayload;
+import com.foundation.reggie.model.Scenario;
+import com.foundation.reggie.model.ScenarioMessage;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Plays stored scenarios on the server, column by column, with at most
+ * {@code reggie.playback.max-in-flight} publishes awaiting an ack.
+ */
+@Slf4j
+@Service
+public class ScenarioPlaybackService {
+    private final ScenarioWriteBehind scenarioStore;
+    private final MessagePublishService messagePublishService;
+    private final ObjectMapper objectMapper;
+    private final long defaultColumnDelayMs;
+    private final int retainedRuns;
+    private final int maxInFlight;
+
+    private final Map<String, PlaybackRun> runs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ScenarioPlaybackService(
+            ScenarioWriteBehind scenarioStore,
+            MessagePublishService messagePublishService,
+            ObjectMapper objectMapper,
+            @Value("${reggie.playback.column-delay-ms:750}") long defaultColumnDelayMs,
+            @Value("${reggie.playback.retained-runs:100}") int retainedRuns,
+            @Value("${reggie.playback.max-in-flight:1000}") int maxInFlight) {
+        this.scenarioStore = scenarioStore;
+        this.messagePublishService = messagePublishService;
+        this.objectMapper = objectMapper;
+        this.defaultColumnDelayMs = defaultColumnDelayMs;
+        this.retainedRuns = retainedRuns;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public PlaybackRun play(String userId, String scenarioId, Long columnDelayMs) {
+        Scenario scenario = scenarioStore.getScenario(userId, scenarioId);
+        // Compiled before the run starts so a bad placeholder is rejected with the request
+        NavigableMap<Integer, List<PlannedMessage>> columns = plan(scenario);
+        long delay = columnDelayMs != null ? Math.max(0, columnDelayMs) : defaultColumnDelayMs;
+        PlaybackRun run = new PlaybackRun(UUID.randomUUID().toString(), userId, scenarioId, delay);
+        evictFinishedRuns();
+        runs.put(run.getId(), run);
+        executor.execute(() -> execute(run, columns));
+        return run;
+    }
+
+    public PlaybackRun getRun(String runId) {
+        PlaybackRun run = runs.get(runId);
+        if (run == null) {
+            throw new ResourceNotFoundException("Playback not found: " + runId);
+        }
+        return run;
+    }
+
+    private void execute(PlaybackRun run, NavigableMap<Integer, List<PlannedMessage>> columns) {
+        Semaphore permits = new Semaphore(maxInFlight);
+        try {
+            for (Map.Entry<Integer, List<PlannedMessage>> column : columns.entrySet()) {
+                if (!run.awaitTurn()) {
+                    return;
+                }
+                run.startColumn(column.getKey());
+
+                List<Outcome> outcomes = new ArrayList<>(column.getValue().size());
+                for (PlannedMessage message : column.getValue()) {
+                    Outcome outcome = new Outcome(message.repeat());
+                    outcomes.add(outcome);
+                    for (long seq = 1; seq <= message.repeat() && !run.isCancelled(); seq++) {
+                        permits.acquire();
+                        if (run.isCancelled()) {
+                            permits.release();
+                            break;
+                        }
+                        publish(run, message.payload(), seq).whenComplete((result, e) -> {
+                            if (outcome.record(result)) {
+                                run.recordPublish(result.status() == MessageResult.Status.success);
+                            }
+                            permits.release();
+                        });
+                    }
+                }
+                // Drain the column before judging it
+                permits.acquire(maxInFlight);
+                permits.release(maxInFlight);
+
+                // Read before the results, so none can count as complete while the rest were cut off
+                boolean cancelled = run.isCancelled();
+                List<String> failures = new ArrayList<>();
+                for (int i = 0; i < outcomes.size(); i++) {
+                    String messageId = column.getValue().get(i).id();
+                    MessageResult result = outcomes.get(i).result();
+                    run.recordResult(messageId, result);
+                    if (result.status() == MessageResult.Status.error) {
+                        failures.add("Failed to send message " + messageId + ": " + result.error());
+                    }
+                }
+                if (cancelled) {
+                    return;
+                }
+                if (!failures.isEmpty()) {
+                    run.fail(failures);
+                    return;
+                }
+                run.completeColumn(column.getKey());
+
+                if (column.getKey() < columns.lastKey()) {
+                    run.awaitColumnDelay();
+                }
+            }
+            run.complete();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.cancel();
+        } catch (Exception e) {
+            log.error("Playback {} of scenario {} failed", run.getId(), run.getScenarioId(), e);
+            run.fail(List.of(e.getMessage()));
+        }
+    }
+
+    /**
+     * Publishes once admitted, waiting out each {@link PublishLimiter} rejection's {@code Retry-After}.
+     */
+    private CompletableFuture<MessageResult> publish(PlaybackRun run, PlannedPayload payload, long seq)
+            throws InterruptedException {
+        while (true) {
+            try {
+                return messagePublishService.publishAsync(payload.className(), payload.topic(),
+                                payload.template().renderMessage(seq), payload.template().renderAttributes(seq),
+                                payload.template().renderOrderingKey(seq))
+                        .handle((published, e) -> e == null
+                                ? MessageResult.success(published.messageId())
+                                : MessageResult.error(Futures.unwrap(e).getMessage()));
+            } catch (TooManyRequestsException e) {
+                if (run.isCancelled()) {
+                    return CompletableFuture.completedFuture(MessageResult.cancelled(null, e.getMessage()));
+                }
+                run.awaitRetry(e.getRetryAfter());
+            } catch (Exception e) {
+                return CompletableFuture.completedFuture(MessageResult.error(e.getMessage()));
+            }
+        }
+    }
+
+    private NavigableMap<Integer, List<PlannedMessage>> plan(Scenario scenario) {
+        if (scenario.getMessages() == null) {
+            return new TreeMap<>();
+        }
+        return scenario.getMessages().stream()
+                .collect(groupingBy(ScenarioMessage::getColumn, TreeMap::new,
+                        mapping(this::planMessage, toList())));
+    }
+
+    private PlannedMessage planMessage(ScenarioMessage message) {
+        PubSubPayload payload = message.getPayload();
+        JsonNode tree = objectMapper.valueToTree(payload.getMessage());
+        PayloadTemplate template = message.isTemplate()
+                ? PayloadTemplate.compile(tree, payload.getAttributes(), payload.getOrderingKey())
+                : PayloadTemplate.literal(tree, payload.getAttributes(), payload.getOrderingKey());
+        return new PlannedMessage(message.getId(), Math.max(1, message.getRepeat()),
+                new PlannedPayload(payload.getClassName(), payload.getTopic(), template));
+    }
+
+    private void evictFinishedRuns() {
+        if (runs.size() < retainedRuns) {
+            return;
+        }
+        runs.values().stream()
+                .filter(run -> run.getStatus().isFinished())
+                .sorted(Comparator.comparingLong(PlaybackRun::getFinishedAt))
+                .limit(runs.size() - retainedRuns + 1L)
+                .forEach(run -> runs.remove(run.getId()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runs.values().forEach(PlaybackRun::cancel);
+        executor.shutdownNow();
+    }
+
+    private record PlannedMessage(String id, int repeat, PlannedPayload payload) {
+    }
+
+    private record PlannedPayload(String className, String topic, PayloadTemplate template) {
+    }
+
+    /**
+     * Folds the results of every repetition of one scenario message into a single result.
+     */
+    private static final class Outcome {
+        private final int planned;
+        private final AtomicLong attempts = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private volatile String lastMessageId;
+        private volatile String firstError;
+
+        Outcome(int planned) {
+            this.planned = planned;
+        }
+
+        /**
+         * @return {@code false} if the repetition was cancelled rather than attempted
+         */
+        boolean record(MessageResult result) {
+            if (result.status() == MessageResult.Status.cancelled) {
+                return false;
+            }
+            attempts.incrementAndGet();
+            if (result.status() == MessageResult.Status.success) {
+                lastMessageId = result.messageId();
+            } else if (failures.incrementAndGet() == 1) {
+                firstError = result.error();
+            }
+            return true;
+        }
+
+        MessageResult result() {
+            long failed = failures.get();
+            long total = attempts.get();
+            if (failed > 0) {
+                return MessageResult.error(total > 1
+                        ? firstError + " (" + failed + " of " + total + " failed)" : firstError);
+            }
+            if (total < planned) {
+                return MessageResult.cancelled(lastMessageId,
+                        "Cancelled after publishing " + total + " of " + planned);
+            }
+            return MessageResult.success(lastMessageId);
+        }
+    }
+}
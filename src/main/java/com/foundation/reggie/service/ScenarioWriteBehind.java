@@ -0,0 +1,265 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.dto.ImportItemResult;
+import com.foundation.reggie.dto.ScenarioSummaryPage;
+import com.foundation.reggie.exception.StorageException;
+import com.foundation.reggie.model.Scenario;
+import com.foundation.reggie.model.ScenarioOperation;
+import com.foundation.reggie.service.CloudStorageService.BlobListing;
+import com.foundation.reggie.service.CloudStorageService.Versioned;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Optional write-behind for unconditional scenario upserts, coalesced per scenario over
+ * {@code reggie.storage.write-behind.window}. Every other operation flushes first.
+ */
+@Slf4j
+@Service
+public class ScenarioWriteBehind {
+    private static final int LOCK_STRIPES = 64;
+
+    private final CloudStorageService cloudStorageService;
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxPending;
+    private final int maxAttempts;
+
+    private final Map<Key, Pending> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("scenario-write-behind").daemon().factory());
+    private final ExecutorService flushExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Timer flushLag;
+    private final Counter coalesced;
+    private final Counter dropped;
+
+    public ScenarioWriteBehind(
+            CloudStorageService cloudStorageService,
+            @Value("${reggie.storage.write-behind.enabled:false}") boolean enabled,
+            @Value("${reggie.storage.write-behind.window:2s}") Duration window,
+            @Value("${reggie.storage.write-behind.max-pending:10000}") int maxPending,
+            @Value("${reggie.storage.write-behind.max-attempts:5}") int maxAttempts,
+            MeterRegistry meterRegistry) {
+        this.cloudStorageService = cloudStorageService;
+        this.enabled = enabled;
+        this.window = window;
+        this.maxPending = maxPending;
+        this.maxAttempts = maxAttempts;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.flushLag = Timer.builder("reggie.storage.write-behind.lag")
+                .description("Time from acknowledging a buffered scenario upsert to writing it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("reggie.storage.write-behind.coalesced")
+                .description("Buffered scenario upserts replaced by a newer version before being written")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("reggie.storage.write-behind.dropped")
+                .description("Buffered scenario upserts abandoned after exhausting flush attempts")
+                .register(meterRegistry);
+        meterRegistry.gauge("reggie.storage.write-behind.pending", pending, Map::size);
+    }
+
+    /**
+     * @return the scenario with its stored ETag, or without an ETag if it was buffered
+     */
+    public Versioned<Scenario> upsertScenario(String userId, Scenario scenario, String ifMatch) {
+        Key key = new Key(userId, scenario.getId());
+        if (!enabled || ifMatch != null || (pending.size() >= maxPending && !pending.containsKey(key))) {
+            flush(key);
+            return cloudStorageService.upsertScenario(userId, scenario, ifMatch);
+        }
+        long now = System.nanoTime();
+        // Keep the oldest unwritten acknowledgement so flush lag covers the whole burst
+        Pending buffered = pending.merge(key, new Pending(scenario, now),
+                (previous, next) -> new Pending(scenario, previous.queuedAt()));
+        if (buffered.queuedAt() == now) {
+            schedule(key, window);
+        } else {
+            coalesced.increment();
+        }
+        return new Versioned<>(scenario, null);
+    }
+
+    /**
+     * @see CloudStorageService#patchScenario(String, String, List, String)
+     */
+    public Versioned<Scenario> patchScenario(String userId, String id, List<ScenarioOperation> operations,
+                                             String ifMatch) {
+        flush(new Key(userId, id));
+        return cloudStorageService.patchScenario(userId, id, operations, ifMatch);
+    }
+
+    public Scenario getScenario(String userId, String id) {
+        return getScenario(userId, id, etag -> false).value();
+    }
+
+    /**
+     * @see CloudStorageService#getScenario(String, String, Predicate)
+     */
+    public Versioned<Scenario> getScenario(String userId, String id, Predicate<String> notModified) {
+        Pending buffered = pending.get(new Key(userId, id));
+        if (buffered != null) {
+            return new Versioned<>(buffered.scenario(), null);
+        }
+        return cloudStorageService.getScenario(userId, id, notModified);
+    }
+
+    public BlobListing listScenarios(String userId) {
+        flushUser(userId);
+        return cloudStorageService.listScenarios(userId);
+    }
+
+    public Versioned<ScenarioSummaryPage> getScenarioSummaries(String userId, String pageToken, int pageSize,
+                                                              Predicate<String> notModified) {
+        flushUser(userId);
+        return cloudStorageService.getScenarioSummaries(userId, pageToken, pageSize, notModified);
+    }
+
+    public void deleteScenario(String userId, String id) {
+        Key key = new Key(userId, id);
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            // Write the buffered version first so the delete finds a blob even if it was never stored
+            flushLocked(key);
+            cloudStorageService.deleteScenario(userId, id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @see CloudStorageService#importScenario(String, Scenario, String)
+     */
+    public ImportItemResult.Status importScenario(String userId, Scenario scenario, String crc32c) {
+        Key key = new Key(userId, scenario.getId());
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            flushLocked(key);
+            return cloudStorageService.importScenario(userId, scenario, crc32c);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushUser(String userId) {
+        List<Key> keys = pending.keySet().stream().filter(key -> key.userId().equals(userId)).toList();
+        keys.forEach(this::flush);
+    }
+
+    private void schedule(Key key, Duration delay) {
+        try {
+            scheduler.schedule(() -> flushExecutor.execute(() -> flushQuietly(key)),
+                    delay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            // Shutting down; shutdown() flushes whatever is still pending
+            log.debug("Not scheduling flush of {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void flushQuietly(Key key) {
+        try {
+            flush(key);
+        } catch (RuntimeException e) {
+            Pending failed = pending.get(key);
+            if (failed == null) {
+                return;
+            }
+            int attempt = failed.attempts() + 1;
+            if (attempt >= maxAttempts) {
+                if (pending.remove(key, failed)) {
+                    dropped.increment();
+                    log.error("Dropping buffered scenario {}/{} after {} failed writes",
+                            key.userId(), key.id(), attempt, e);
+                } else {
+                    schedule(key, window);
+                }
+                return;
+            }
+            log.warn("Writing buffered scenario {}/{} failed (attempt {}), retrying",
+                    key.userId(), key.id(), attempt, e);
+            pending.replace(key, failed, failed.withAttempts(attempt));
+            schedule(key, window.multipliedBy(attempt + 1L));
+        }
+    }
+
+    /**
+     * @throws StorageException if the write fails; the buffered version is kept
+     */
+    private void flush(Key key) {
+        if (!pending.containsKey(key)) {
+            return;
+        }
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            flushLocked(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLocked(Key key) {
+        Pending buffered = pending.get(key);
+        if (buffered == null) {
+            return;
+        }
+        cloudStorageService.upsertScenario(key.userId(), buffered.scenario(), null);
+        flushLag.record(System.nanoTime() - buffered.queuedAt(), TimeUnit.NANOSECONDS);
+        if (!pending.remove(key, buffered)) {
+            schedule(key, window);
+        }
+    }
+
+    private ReentrantLock lockFor(Key key) {
+        return locks[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        scheduler.shutdownNow();
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        for (Key key : List.copyOf(pending.keySet())) {
+            try {
+                flush(key);
+            } catch (RuntimeException e) {
+                dropped.increment();
+                log.error("Dropping buffered scenario {}/{} on shutdown", key.userId(), key.id(), e);
+            }
+        }
+    }
+
+    private record Key(String userId, String id) {
+    }
+
+    private record Pending(Scenario scenario, long queuedAt, int attempts) {
+        Pending(Scenario scenario, long queuedAt) {
+            this(scenario, queuedAt, 0);
+        }
+
+        Pending withAttempts(int attempts) {
+            return new Pending(scenario, queuedAt, attempts);
+        }
+    }
+}
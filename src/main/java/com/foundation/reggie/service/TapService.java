@@ -0,0 +1,145 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.dto.TapRequest;
+import com.foundation.reggie.exception.BadRequestException;
+import com.foundation.reggie.exception.ResourceNotFoundException;
+import com.google.api.core.ApiService;
+import com.google.api.gax.batching.FlowControlSettings;
+import com.google.api.gax.batching.FlowController;
+import com.google.api.gax.core.CredentialsProvider;
+import com.google.api.gax.core.ExecutorProvider;
+import com.google.api.gax.rpc.TransportChannelProvider;
+import com.google.cloud.pubsub.v1.Subscriber;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Taps an existing subscription for publish-to-delivery latency, for at most {@code reggie.tap.max-duration}.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "reggie.publish.transport", havingValue = "pubsub", matchIfMissing = true)
+public class TapService {
+    private final String projectId;
+    private final TransportChannelProvider channelProvider;
+    private final CredentialsProvider credentialsProvider;
+    private final ExecutorProvider executorProvider;
+    private final ScheduledExecutorService scheduler;
+    private final PublishLedger publishLedger;
+    private final MeterRegistry meterRegistry;
+    private final Duration maxDuration;
+    private final long maxOutstandingMessages;
+    private final int clientBuffer;
+    private final int retainedTaps;
+
+    private final Map<String, TapSession> taps = new ConcurrentHashMap<>();
+
+    public TapService(
+            @Value("${gcp.project-id}") String projectId,
+            TransportChannelProvider channelProvider,
+            CredentialsProvider credentialsProvider,
+            ExecutorProvider executorProvider,
+            ScheduledExecutorService pubSubExecutor,
+            PublishLedger publishLedger,
+            MeterRegistry meterRegistry,
+            @Value("${reggie.tap.max-duration:10m}") Duration maxDuration,
+            @Value("${reggie.tap.max-outstanding-messages:1000}") long maxOutstandingMessages,
+            @Value("${reggie.tap.client-buffer:1000}") int clientBuffer,
+            @Value("${reggie.tap.retained-taps:20}") int retainedTaps) {
+        this.projectId = projectId;
+        this.channelProvider = channelProvider;
+        this.credentialsProvider = credentialsProvider;
+        this.executorProvider = executorProvider;
+        this.scheduler = pubSubExecutor;
+        this.publishLedger = publishLedger;
+        this.meterRegistry = meterRegistry;
+        this.maxDuration = maxDuration;
+        this.maxOutstandingMessages = maxOutstandingMessages;
+        this.clientBuffer = clientBuffer;
+        this.retainedTaps = retainedTaps;
+    }
+
+    public TapSession start(TapRequest request) {
+        if (request.subscription() == null || request.subscription().isBlank()) {
+            throw new BadRequestException("subscription is required");
+        }
+        Duration duration = maxDuration;
+        if (request.durationSeconds() != null && request.durationSeconds() > 0
+                && request.durationSeconds() < maxDuration.toSeconds()) {
+            duration = Duration.ofSeconds(request.durationSeconds());
+        }
+
+        Timer latencyTimer = Timer.builder("reggie.tap.latency")
+                .description("Publish-to-receive latency of correlated messages seen by subscriber taps")
+                .tag("subscription", request.subscription())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        evictStoppedTaps();
+        TapSession tap = new TapSession(UUID.randomUUID().toString(), request.subscription(),
+                Instant.now().plus(duration), publishLedger, latencyTimer, clientBuffer);
+
+        Subscriber subscriber = Subscriber.newBuilder(
+                        ProjectSubscriptionName.of(projectId, request.subscription()), tap::receive)
+                .setChannelProvider(channelProvider)
+                .setCredentialsProvider(credentialsProvider)
+                .setExecutorProvider(executorProvider)
+                .setParallelPullCount(1)
+                .setFlowControlSettings(FlowControlSettings.newBuilder()
+                        .setMaxOutstandingElementCount(maxOutstandingMessages)
+                        .setLimitExceededBehavior(FlowController.LimitExceededBehavior.Block)
+                        .build())
+                .build();
+        subscriber.addListener(new ApiService.Listener() {
+            @Override
+            public void failed(ApiService.State from, Throwable failure) {
+                log.warn("Tap {} on subscription {} failed", tap.getId(), request.subscription(), failure);
+                tap.fail(failure);
+            }
+        }, MoreExecutors.directExecutor());
+        tap.attach(subscriber);
+        taps.put(tap.getId(), tap);
+        subscriber.startAsync();
+        scheduler.schedule(tap::stop, duration.toMillis(), TimeUnit.MILLISECONDS);
+        return tap;
+    }
+
+    public TapSession getTap(String tapId) {
+        TapSession tap = taps.get(tapId);
+        if (tap == null) {
+            throw new ResourceNotFoundException("Tap not found: " + tapId);
+        }
+        return tap;
+    }
+
+    private void evictStoppedTaps() {
+        if (taps.size() < retainedTaps) {
+            return;
+        }
+        taps.values().stream()
+                .filter(tap -> !tap.isRunning())
+                .sorted(Comparator.comparingLong(TapSession::getFinishedAt))
+                .limit(taps.size() - retainedTaps + 1L)
+                .forEach(tap -> taps.remove(tap.getId()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        taps.values().forEach(TapSession::stop);
+    }
+}
@@ -0,0 +1,240 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.dto.TapEvent;
+import com.foundation.reggie.dto.TapSummary;
+import com.foundation.reggie.dto.TapSummary.Status;
+import com.google.cloud.pubsub.v1.AckReplyConsumer;
+import com.google.cloud.pubsub.v1.Subscriber;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One subscriber tap, fanning correlated receipts out to SSE clients. A client whose bounded
+ * queue overflows is disconnected.
+ */
+@Slf4j
+public class TapSession {
+    private static final long KEEPALIVE_SECONDS = 15;
+
+    @Getter
+    private final String id;
+    private final String subscription;
+    private final PublishLedger publishLedger;
+    private final Timer latencyTimer;
+    private final int clientBuffer;
+    private final Instant startedAt = Instant.now();
+    private final Instant expiresAt;
+
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong correlated = new AtomicLong();
+    private final AtomicLong slowClientsDisconnected = new AtomicLong();
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+
+    private volatile Subscriber subscriber;
+    private volatile Status status = Status.RUNNING;
+    private volatile String error;
+    private volatile long finishedAt;
+
+    TapSession(String id, String subscription, Instant expiresAt, PublishLedger publishLedger, Timer latencyTimer,
+               int clientBuffer) {
+        this.id = id;
+        this.subscription = subscription;
+        this.expiresAt = expiresAt;
+        this.publishLedger = publishLedger;
+        this.latencyTimer = latencyTimer;
+        this.clientBuffer = clientBuffer;
+        publishLedger.tapOpened();
+    }
+
+    void attach(Subscriber subscriber) {
+        this.subscriber = subscriber;
+    }
+
+    boolean isRunning() {
+        return status == Status.RUNNING;
+    }
+
+    long getFinishedAt() {
+        return finishedAt;
+    }
+
+    void receive(PubsubMessage message, AckReplyConsumer consumer) {
+        long receivedAtMicros = PublishLedger.nowMicros();
+        consumer.ack();
+        received.incrementAndGet();
+
+        String correlatedBy = null;
+        Long publishedAtMicros = publishLedger.publishedAt(message.getMessageId());
+        if (publishedAtMicros != null) {
+            correlatedBy = "ledger";
+        } else {
+            String attribute = message.getAttributesOrDefault(PublishLedger.PUBLISHED_AT_ATTRIBUTE, null);
+            if (attribute != null) {
+                try {
+                    publishedAtMicros = Long.parseLong(attribute) * 1_000;
+                    correlatedBy = "attribute";
+                } catch (NumberFormatException e) {
+                    log.debug("Ignoring malformed {} attribute on message {}",
+                            PublishLedger.PUBLISHED_AT_ATTRIBUTE, message.getMessageId());
+                }
+            }
+        }
+
+        Double latencyMs = null;
+        if (publishedAtMicros != null) {
+            long latencyMicros = Math.max(receivedAtMicros - publishedAtMicros, 0);
+            latencies.recordMicros(latencyMicros);
+            latencyTimer.record(latencyMicros, TimeUnit.MICROSECONDS);
+            correlated.incrementAndGet();
+            latencyMs = latencyMicros / 1000.0;
+        }
+
+        if (clients.isEmpty()) {
+            return;
+        }
+        TapEvent event = new TapEvent(
+                message.getMessageId(),
+                message.getOrderingKey().isEmpty() ? null : message.getOrderingKey(),
+                message.getAttributesMap(),
+                publishedAtMicros != null ? instantOfMicros(publishedAtMicros) : null,
+                instantOfMicros(receivedAtMicros),
+                latencyMs,
+                correlatedBy);
+        for (Client client : clients) {
+            if (!client.offer(event)) {
+                slowClientsDisconnected.incrementAndGet();
+                client.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Streams events received from now on until the tap stops or the client falls behind.
+     */
+    public SseEmitter connect() {
+        SseEmitter emitter = new SseEmitter(0L);
+        Client client = new Client(emitter, new ArrayBlockingQueue<>(clientBuffer));
+        emitter.onCompletion(client::close);
+        emitter.onTimeout(client::close);
+        emitter.onError(e -> client.close());
+        clients.add(client);
+        if (!isRunning()) {
+            client.finish();
+        }
+        Thread.ofVirtual().name("tap-" + id + "-sse").start(client::run);
+        return emitter;
+    }
+
+    public void stop() {
+        finish(Status.STOPPED, null);
+    }
+
+    void fail(Throwable failure) {
+        finish(Status.FAILED, failure.getMessage());
+    }
+
+    private void finish(Status target, String failure) {
+        synchronized (this) {
+            if (status != Status.RUNNING) {
+                return;
+            }
+            status = target;
+            error = failure;
+            finishedAt = System.nanoTime();
+        }
+        publishLedger.tapClosed();
+        Subscriber running = subscriber;
+        if (running != null) {
+            running.stopAsync();
+        }
+        clients.forEach(Client::finish);
+    }
+
+    public TapSummary summary() {
+        return new TapSummary(id, subscription, status, startedAt, expiresAt, received.get(), correlated.get(),
+                received.get() - correlated.get(), clients.size(), slowClientsDisconnected.get(),
+                latencies.percentiles(), error);
+    }
+
+    private static Instant instantOfMicros(long epochMicros) {
+        return Instant.ofEpochSecond(epochMicros / 1_000_000, (epochMicros % 1_000_000) * 1_000);
+    }
+
+    private final class Client {
+        private final SseEmitter emitter;
+        private final BlockingQueue<TapEvent> queue;
+        private volatile boolean finishing;
+        private volatile boolean overflowed;
+        private volatile boolean closed;
+
+        Client(SseEmitter emitter, BlockingQueue<TapEvent> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        boolean offer(TapEvent event) {
+            return closed || finishing || queue.offer(event);
+        }
+
+        /**
+         * Sends the remaining events and a final summary, then completes the stream.
+         */
+        void finish() {
+            finishing = true;
+        }
+
+        void disconnect() {
+            overflowed = true;
+            clients.remove(this);
+        }
+
+        void close() {
+            closed = true;
+            clients.remove(this);
+        }
+
+        void run() {
+            try {
+                while (!closed && !overflowed) {
+                    TapEvent event = finishing ? queue.poll() : queue.poll(KEEPALIVE_SECONDS, TimeUnit.SECONDS);
+                    if (event != null) {
+                        emitter.send(SseEmitter.event().id(event.messageId()).name("message")
+                                .data(event, MediaType.APPLICATION_JSON));
+                    } else if (finishing) {
+                        break;
+                    } else {
+                        emitter.send(SseEmitter.event().comment("keepalive"));
+                    }
+                }
+                if (overflowed) {
+                    queue.clear();
+                    emitter.send(SseEmitter.event().name("disconnect")
+                            .data("Client fell more than " + clientBuffer + " events behind"));
+                } else if (!closed) {
+                    emitter.send(SseEmitter.event().name("summary").data(summary(), MediaType.APPLICATION_JSON));
+                }
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                // The client went away; the emitter callbacks remove it
+                close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.foundation.reggie.transport;
+
+import com.foundation.reggie.exception.PublishException;
+import com.google.pubsub.v1.PubsubMessage;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Acknowledges messages after a simulated latency, failing a configurable fraction of them,
+ * in order per ordering key.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "reggie.publish.transport", havingValue = "in-memory")
+public class InMemoryTransport implements PublishTransport {
+    private final long ackLatencyNanos;
+    private final long ackLatencyJitterNanos;
+    private final double errorRate;
+    private final AtomicLong nextMessageId = new AtomicLong();
+    private final Map<String, CompletableFuture<String>> keyTails = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("in-memory-transport").daemon().factory());
+
+    public InMemoryTransport(
+            @Value("${reggie.publish.in-memory.ack-latency:5ms}") Duration ackLatency,
+            @Value("${reggie.publish.in-memory.ack-latency-jitter:0ms}") Duration ackLatencyJitter,
+            @Value("${reggie.publish.in-memory.error-rate:0.0}") double errorRate) {
+        this.ackLatencyNanos = ackLatency.toNanos();
+        this.ackLatencyJitterNanos = ackLatencyJitter.toNanos();
+        this.errorRate = errorRate;
+        log.info("Using in-memory publish transport (ack latency {} ± {}, error rate {})",
+                ackLatency, ackLatencyJitter, errorRate);
+    }
+
+    @Override
+    public CompletableFuture<String> publish(String topic, PubsubMessage message) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long latency = ackLatencyNanos + (ackLatencyJitterNanos > 0 ? random.nextLong(ackLatencyJitterNanos + 1) : 0);
+        boolean fail = errorRate > 0 && random.nextDouble() < errorRate;
+        Runnable ack = () -> {
+            if (fail) {
+                result.completeExceptionally(
+                        new PublishException("Simulated publish failure for topic: " + topic, null));
+            } else {
+                result.complete(Long.toString(nextMessageId.incrementAndGet()));
+            }
+        };
+        if (latency > 0) {
+            scheduler.schedule(ack, latency, TimeUnit.NANOSECONDS);
+        } else {
+            ack.run();
+        }
+        String key = message.getOrderingKey();
+        if (key.isEmpty()) {
+            return result;
+        }
+        CompletableFuture<String> ordered = keyTails.compute(key, (k, tail) -> tail == null
+                ? result : tail.handle((messageId, e) -> null).thenCompose(ignored -> result));
+        ordered.whenComplete((messageId, e) -> keyTails.remove(key, ordered));
+        return ordered;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
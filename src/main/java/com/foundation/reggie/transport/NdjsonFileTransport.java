@@ -0,0 +1,87 @@
+package com.foundation.reggie.transport;
+
+import com.foundation.reggie.exception.PublishException;
+import com.foundation.reggie.registry.PayloadEncoding;
+import com.google.pubsub.v1.PubsubMessage;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends every message to a local NDJSON file; binary payloads are base64-encoded.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "reggie.publish.transport", havingValue = "file")
+public class NdjsonFileTransport implements PublishTransport {
+    private final OutputStream out;
+    private final JsonGenerator generator;
+    private final AtomicLong nextMessageId = new AtomicLong();
+
+    public NdjsonFileTransport(
+            @Value("${reggie.publish.file.path:published.ndjson}") Path path,
+            ObjectMapper objectMapper) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.out = new BufferedOutputStream(Files.newOutputStream(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+        this.generator = objectMapper.createGenerator(out);
+        log.info("Using file publish transport writing to {}", path.toAbsolutePath());
+    }
+
+    @Override
+    public CompletableFuture<String> publish(String topic, PubsubMessage message) {
+        String messageId = Long.toString(nextMessageId.incrementAndGet());
+        try {
+            synchronized (generator) {
+                generator.writeStartObject();
+                generator.writeStringProperty("topic", topic);
+                generator.writeStringProperty("messageId", messageId);
+                if (!message.getOrderingKey().isEmpty()) {
+                    generator.writeStringProperty("orderingKey", message.getOrderingKey());
+                }
+                generator.writeName("attributes");
+                generator.writePOJO(message.getAttributesMap());
+                String encoding = message.getAttributesOrDefault(PayloadEncoding.ATTRIBUTE,
+                        PayloadEncoding.JSON.attributeValue());
+                if (encoding.equals(PayloadEncoding.JSON.attributeValue())) {
+                    generator.writeStringProperty("data", message.getData().toStringUtf8());
+                } else {
+                    generator.writeBinaryProperty("dataBase64", message.getData().toByteArray());
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                generator.flush();
+            }
+            return CompletableFuture.completedFuture(messageId);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(
+                    new PublishException("Failed to write message for topic: " + topic, e));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (generator) {
+            try {
+                generator.close();
+            } catch (RuntimeException e) {
+                log.warn("Failed to close publish file", e);
+            }
+        }
+    }
+}
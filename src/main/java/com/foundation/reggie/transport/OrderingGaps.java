@@ -0,0 +1,40 @@
+package com.foundation.reggie.transport;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Up to {@code maxTracked} ordering keys whose latest publish failed; the next delivery on one is counted as a gap.
+ */
+final class OrderingGaps {
+    private final Set<Key> failedKeys = ConcurrentHashMap.newKeySet();
+    private final int maxTracked;
+    private final Counter gaps;
+
+    OrderingGaps(int maxTracked, Counter gaps) {
+        this.maxTracked = maxTracked;
+        this.gaps = gaps;
+    }
+
+    void failed(String topic, String orderingKey) {
+        if (failedKeys.size() < maxTracked) {
+            failedKeys.add(new Key(topic, orderingKey));
+        }
+    }
+
+    /**
+     * @return {@code true} if an earlier message with this key failed since the last acknowledged one
+     */
+    boolean delivered(String topic, String orderingKey) {
+        if (failedKeys.isEmpty() || !failedKeys.remove(new Key(topic, orderingKey))) {
+            return false;
+        }
+        gaps.increment();
+        return true;
+    }
+
+    private record Key(String topic, String orderingKey) {
+    }
+}
@@ -0,0 +1,304 @@
+package com.foundation.reggie.transport;
+
+import com.foundation.reggie.config.PubSubProperties;
+import com.foundation.reggie.config.PubSubProperties.TopicSettings;
+import com.foundation.reggie.exception.PublishException;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.batching.BatchingSettings;
+import com.google.api.gax.batching.FlowControlSettings;
+import com.google.api.gax.batching.FlowController;
+import com.google.api.gax.core.CredentialsProvider;
+import com.google.api.gax.core.ExecutorProvider;
+import com.google.api.gax.rpc.TransportChannelProvider;
+import com.google.cloud.pubsub.v1.Publisher;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.pubsub.v1.PubsubMessage;
+import com.google.pubsub.v1.TopicName;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes through a pool of per-topic {@link Publisher}s; idle ones are shut down after
+ * {@code reggie.pubsub.idle-timeout} and prewarmed ones are kept. Failed ordering keys are resumed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "reggie.publish.transport", havingValue = "pubsub", matchIfMissing = true)
+public class PubSubTransport implements PublishTransport {
+    private static final long DEFAULT_ELEMENT_COUNT_THRESHOLD = 100L;
+    private static final long DEFAULT_REQUEST_BYTE_THRESHOLD = 1000L;
+    private static final Duration DEFAULT_DELAY_THRESHOLD = Duration.ofMillis(1);
+    private static final int MAX_TRACKED_GAPS = 10_000;
+
+    private final String projectId;
+    private final PubSubProperties properties;
+    private final TransportChannelProvider channelProvider;
+    private final CredentialsProvider credentialsProvider;
+    private final ExecutorProvider executorProvider;
+    private final Counter resumedKeys;
+    private final OrderingGaps orderingGaps;
+
+    private final Map<String, PooledPublisher> publishers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService evictionScheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("pubsub-publisher-eviction").daemon().factory());
+
+    public PubSubTransport(
+            @Value("${gcp.project-id}") String projectId,
+            PubSubProperties properties,
+            TransportChannelProvider pubSubChannelProvider,
+            CredentialsProvider pubSubCredentialsProvider,
+            ExecutorProvider pubSubExecutorProvider,
+            MeterRegistry meterRegistry) {
+        this.projectId = projectId;
+        this.properties = properties;
+        this.channelProvider = pubSubChannelProvider;
+        this.credentialsProvider = pubSubCredentialsProvider;
+        this.executorProvider = pubSubExecutorProvider;
+        this.resumedKeys = Counter.builder("reggie.pubsub.ordering.resumed")
+                .description("Ordering keys resumed after a failed publish")
+                .register(meterRegistry);
+        this.orderingGaps = new OrderingGaps(MAX_TRACKED_GAPS, Counter.builder("reggie.pubsub.ordering.gaps")
+                .description("Messages acknowledged after an earlier message with the same ordering key failed")
+                .register(meterRegistry));
+        Gauge.builder("reggie.pubsub.publishers", publishers, Map::size)
+                .description("Live per-topic publishers")
+                .register(meterRegistry);
+        long interval = properties.getEvictionInterval().toMillis();
+        evictionScheduler.scheduleWithFixedDelay(this::evictIdle, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarm() {
+        for (String topic : properties.getPrewarmTopics()) {
+            try {
+                PooledPublisher pooled = publishers.computeIfAbsent(topic, PooledPublisher::new);
+                pooled.pinned = true;
+                pooled.get();
+                log.info("Prewarmed publisher for topic {}", topic);
+            } catch (Exception e) {
+                log.warn("Failed to prewarm publisher for topic {}", topic, e);
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> publish(String topic, PubsubMessage message) {
+        PooledPublisher pooled = acquire(topic);
+        ApiFuture<String> future;
+        try {
+            future = pooled.get().publish(message);
+        } catch (RuntimeException e) {
+            pooled.release();
+            throw e;
+        }
+        CompletableFuture<String> result = new CompletableFuture<>();
+        ApiFutures.addCallback(future, new ApiFutureCallback<>() {
+            @Override
+            public void onSuccess(String messageId) {
+                String orderingKey = message.getOrderingKey();
+                if (!orderingKey.isEmpty() && orderingGaps.delivered(topic, orderingKey)) {
+                    log.warn("Message {} with ordering key {} on topic {} was delivered after a failed publish",
+                            messageId, orderingKey, topic);
+                }
+                pooled.release();
+                result.complete(messageId);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                if (!message.getOrderingKey().isEmpty()) {
+                    orderingGaps.failed(topic, message.getOrderingKey());
+                    resume(pooled, message.getOrderingKey());
+                }
+                pooled.release();
+                result.completeExceptionally(t);
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+
+    @Override
+    public boolean supportsOrdering(String topic) {
+        return !Boolean.FALSE.equals(properties.settingsFor(topic).getEnableMessageOrdering());
+    }
+
+    private void resume(PooledPublisher pooled, String orderingKey) {
+        try {
+            pooled.get().resumePublish(orderingKey);
+            resumedKeys.increment();
+            log.warn("Resumed ordering key {} on topic {} after a failed publish", orderingKey, pooled.topic);
+        } catch (Exception e) {
+            log.warn("Failed to resume ordering key {} on topic {}", orderingKey, pooled.topic, e);
+        }
+    }
+
+    /**
+     * Marks the topic's publisher in use, replacing it if it was evicted in between.
+     */
+    private PooledPublisher acquire(String topic) {
+        while (true) {
+            PooledPublisher pooled = publishers.computeIfAbsent(topic, PooledPublisher::new);
+            if (pooled.tryAcquire()) {
+                return pooled;
+            }
+            publishers.remove(topic, pooled);
+        }
+    }
+
+    private Publisher createPublisher(String topic) {
+        try {
+            TopicName topicName = TopicName.of(projectId, topic);
+            TopicSettings settings = properties.settingsFor(topic);
+            return Publisher.newBuilder(topicName)
+                    .setChannelProvider(channelProvider)
+                    .setCredentialsProvider(credentialsProvider)
+                    .setExecutorProvider(executorProvider)
+                    .setBatchingSettings(batchingSettings(settings))
+                    .setEnableMessageOrdering(supportsOrdering(topic))
+                    .build();
+        } catch (Exception e) {
+            throw new PublishException("Failed to create publisher for topic: " + topic, e);
+        }
+    }
+
+    static BatchingSettings batchingSettings(TopicSettings settings) {
+        FlowControlSettings.Builder flowControl = FlowControlSettings.newBuilder()
+                .setLimitExceededBehavior(settings.getLimitExceededBehavior() != null
+                        ? settings.getLimitExceededBehavior() : FlowController.LimitExceededBehavior.Ignore);
+        if (settings.getMaxOutstandingElementCount() != null) {
+            flowControl.setMaxOutstandingElementCount(settings.getMaxOutstandingElementCount());
+        }
+        if (settings.getMaxOutstandingRequestBytes() != null) {
+            flowControl.setMaxOutstandingRequestBytes(settings.getMaxOutstandingRequestBytes());
+        }
+        return BatchingSettings.newBuilder()
+                .setElementCountThreshold(settings.getElementCountThreshold() != null
+                        ? settings.getElementCountThreshold() : DEFAULT_ELEMENT_COUNT_THRESHOLD)
+                .setRequestByteThreshold(settings.getRequestByteThreshold() != null
+                        ? settings.getRequestByteThreshold() : DEFAULT_REQUEST_BYTE_THRESHOLD)
+                .setDelayThresholdDuration(settings.getDelayThreshold() != null
+                        ? settings.getDelayThreshold() : DEFAULT_DELAY_THRESHOLD)
+                .setFlowControlSettings(flowControl.build())
+                .build();
+    }
+
+    private void evictIdle() {
+        try {
+            long now = System.nanoTime();
+            long idleTimeout = properties.getIdleTimeout().toNanos();
+            List<PooledPublisher> candidates = publishers.values().stream()
+                    .filter(pooled -> !pooled.pinned)
+                    .sorted(Comparator.comparingLong(pooled -> pooled.lastUsed))
+                    .toList();
+            int excess = publishers.size() - properties.getMaxPublishers();
+            for (PooledPublisher pooled : candidates) {
+                boolean idle = idleTimeout > 0 && now - pooled.lastUsed > idleTimeout;
+                if ((idle || excess > 0) && pooled.tryClose()) {
+                    publishers.remove(pooled.topic, pooled);
+                    excess--;
+                    log.info("Evicted {} publisher for topic {}", idle ? "idle" : "least recently used", pooled.topic);
+                    shutdown(pooled);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Publisher eviction failed", e);
+        }
+    }
+
+    private void shutdown(PooledPublisher pooled) {
+        Publisher publisher = pooled.publisher;
+        if (publisher == null) {
+            return;
+        }
+        try {
+            publisher.shutdown();
+            publisher.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        evictionScheduler.shutdownNow();
+        publishers.values().forEach(pooled -> {
+            pooled.tryClose();
+            shutdown(pooled);
+        });
+    }
+
+    /**
+     * A pool slot whose {@link Publisher} is built on first use under this slot's monitor only.
+     */
+    private final class PooledPublisher {
+        private final String topic;
+        private volatile Publisher publisher;
+        private volatile long lastUsed = System.nanoTime();
+        private volatile boolean pinned;
+        private int inFlight;
+        private boolean closed;
+
+        private PooledPublisher(String topic) {
+            this.topic = topic;
+        }
+
+        Publisher get() {
+            Publisher current = publisher;
+            if (current == null) {
+                synchronized (this) {
+                    current = publisher;
+                    if (current == null) {
+                        current = createPublisher(topic);
+                        publisher = current;
+                    }
+                }
+            }
+            return current;
+        }
+
+        synchronized boolean tryAcquire() {
+            if (closed) {
+                return false;
+            }
+            inFlight++;
+            lastUsed = System.nanoTime();
+            return true;
+        }
+
+        synchronized void release() {
+            inFlight--;
+            lastUsed = System.nanoTime();
+        }
+
+        /**
+         * @return {@code true} if the slot had no publishes in flight and is now closed
+         */
+        synchronized boolean tryClose() {
+            if (closed || inFlight > 0) {
+                return false;
+            }
+            closed = true;
+            return true;
+        }
+    }
+}
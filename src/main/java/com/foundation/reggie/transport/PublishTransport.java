@@ -0,0 +1,24 @@
+package com.foundation.reggie.transport;
+
+import com.google.pubsub.v1.PubsubMessage;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Delivers built messages to a topic. Selected with {@code reggie.publish.transport}:
+ * {@code pubsub} (default), {@code in-memory} or {@code file}.
+ */
+public interface PublishTransport {
+
+    /**
+     * @return a future completing with the message ID once the message is accepted
+     */
+    CompletableFuture<String> publish(String topic, PubsubMessage message);
+
+    /**
+     * @return whether messages published to {@code topic} may carry an ordering key
+     */
+    default boolean supportsOrdering(String topic) {
+        return true;
+    }
+}
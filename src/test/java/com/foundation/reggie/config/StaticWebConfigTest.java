@@ -0,0 +1,84 @@
+package com.foundation.reggie.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.io.IOException;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitWebConfig(StaticWebConfigTest.WebConfig.class)
+class StaticWebConfigTest {
+    private static final String BUNDLE = "/_app/immutable/test-bundle.js";
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp(WebApplicationContext context) {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @Test
+    void hashedAssetsAreCachedForAYearAsImmutable() throws Exception {
+        mockMvc.perform(get(BUNDLE))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                .andExpect(content().bytes(bytes(BUNDLE)));
+    }
+
+    @Test
+    void theShellIsRevalidatedAgainstItsContentEtag() throws Exception {
+        String etag = "\"" + DigestUtils.md5DigestAsHex(bytes("/index.html")) + "\"";
+
+        mockMvc.perform(get("/index.html"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mockMvc.perform(get("/index.html").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void otherFilesAreCachedForAnHour() throws Exception {
+        mockMvc.perform(get("/favicon.svg"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600"));
+    }
+
+    @Test
+    void precompressedVariantsAreChosenByAcceptEncoding() throws Exception {
+        mockMvc.perform(get(BUNDLE).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "br"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(content().bytes(bytes(BUNDLE + ".br")));
+        mockMvc.perform(get(BUNDLE).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(content().bytes(bytes(BUNDLE + ".gz")));
+        mockMvc.perform(get(BUNDLE).header(HttpHeaders.ACCEPT_ENCODING, "identity"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(bytes(BUNDLE)));
+    }
+
+    private static byte[] bytes(String path) throws IOException {
+        return new ClassPathResource("static" + path).getContentAsByteArray();
+    }
+
+    @Configuration
+    @EnableWebMvc
+    @Import(StaticWebConfig.class)
+    static class WebConfig {
+    }
+}
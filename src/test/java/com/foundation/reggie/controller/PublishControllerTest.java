@@ -0,0 +1,119 @@
+package com.foundation.reggie.controller;
+
+import com.foundation.reggie.exception.GlobalExceptionHandler;
+import com.foundation.reggie.exception.PublishException;
+import com.foundation.reggie.service.BatchPublishService;
+import com.foundation.reggie.service.MessagePublishService;
+import com.foundation.reggie.service.MessagePublishService.PublishedMessage;
+import com.foundation.reggie.service.PublishTracker;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import tools.jackson.databind.JsonNode;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PublishControllerTest {
+    private static final String PUBLISH_REQUEST =
+            "{\"className\":\"OrderCreated\",\"topic\":\"orders\",\"message\":{\"orderId\":\"1\"}}";
+
+    private final MessagePublishService messagePublishService = mock(MessagePublishService.class);
+    private final BatchPublishService batchPublishService = mock(BatchPublishService.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(
+                    new PublishController(messagePublishService, batchPublishService, new PublishTracker(100)))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+    @Test
+    void fireAndForgetAnswers202AndIsPolledByTrackingId() throws Exception {
+        CompletableFuture<PublishedMessage> ack = new CompletableFuture<>();
+        when(messagePublishService.publishAsync(anyString(), anyString(), any(JsonNode.class), any(), any()))
+                .thenReturn(ack);
+
+        MvcResult accepted = mockMvc.perform(asyncDispatch(mockMvc.perform(post("/publish").param("await", "false")
+                                .contentType(MediaType.APPLICATION_JSON).content(PUBLISH_REQUEST))
+                        .andExpect(request().asyncStarted())
+                        .andReturn()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andReturn();
+        String trackingId = JsonPath.read(accepted.getResponse().getContentAsString(), "$.trackingId");
+
+        mockMvc.perform(get("/publish/{trackingId}", trackingId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PENDING"));
+
+        ack.complete(new PublishedMessage("message-1", null, null, null, null));
+        mockMvc.perform(get("/publish/{trackingId}", trackingId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PUBLISHED"))
+                .andExpect(jsonPath("$.messageId").value("message-1"));
+    }
+
+    @Test
+    void aFailedFireAndForgetPublishReportsItsError() throws Exception {
+        CompletableFuture<PublishedMessage> ack = new CompletableFuture<>();
+        when(messagePublishService.publishAsync(anyString(), anyString(), any(JsonNode.class), any(), any()))
+                .thenReturn(ack);
+        MvcResult accepted = mockMvc.perform(asyncDispatch(mockMvc.perform(post("/publish").param("await", "false")
+                                .contentType(MediaType.APPLICATION_JSON).content(PUBLISH_REQUEST))
+                        .andReturn()))
+                .andReturn();
+        String trackingId = JsonPath.read(accepted.getResponse().getContentAsString(), "$.trackingId");
+
+        ack.completeExceptionally(new PublishException("topic not found", null));
+
+        mockMvc.perform(get("/publish/{trackingId}", trackingId))
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andExpect(jsonPath("$.error").value("topic not found"));
+        mockMvc.perform(get("/publish/{trackingId}", "unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void batchIsNotMistakenForAMessageType() throws Exception {
+        when(batchPublishService.publishAll(anyList())).thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        mockMvc.perform(post("/publish/batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(request().asyncStarted());
+
+        verify(batchPublishService).publishAll(anyList());
+        verify(messagePublishService, never()).publishAsync(anyString(), anyString(), any(InputStream.class),
+                any(), any());
+    }
+
+    @Test
+    void rawPublishIsAddressedByType() throws Exception {
+        when(messagePublishService.publishAsync(anyString(), anyString(), any(InputStream.class), any(), any()))
+                .thenReturn(new CompletableFuture<>());
+
+        mockMvc.perform(post("/publish/types/batch").param("topic", "orders")
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(request().asyncStarted());
+
+        verify(messagePublishService).publishAsync(eq("batch"), eq("orders"), any(InputStream.class), isNull(),
+                isNull());
+        verify(batchPublishService, never()).publishAll(anyList());
+    }
+}
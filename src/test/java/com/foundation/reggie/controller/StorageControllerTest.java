@@ -0,0 +1,86 @@
+package com.foundation.reggie.controller;
+
+import com.foundation.reggie.model.Scenario;
+import com.foundation.reggie.service.CloudStorageService;
+import com.foundation.reggie.service.CloudStorageService.BlobListing;
+import com.foundation.reggie.service.CloudStorageService.Versioned;
+import com.foundation.reggie.service.MessageSampleIndex;
+import com.foundation.reggie.service.ScenarioWriteBehind;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StorageControllerTest {
+    private final CloudStorageService cloudStorageService = mock(CloudStorageService.class);
+    private final ScenarioWriteBehind scenarioStore = mock(ScenarioWriteBehind.class);
+    private final StorageController controller = new StorageController(cloudStorageService, scenarioStore,
+            mock(MessageSampleIndex.class));
+    private final BlobListing listing = new BlobListing("message-samples/", List.of(), "W/\"listing\"");
+
+    @Test
+    void streamsTheListingWithoutATrailer() throws Exception {
+        when(cloudStorageService.listMessageSamples()).thenReturn(listing);
+        when(cloudStorageService.streamListing(eq(listing), any())).thenAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write("[{\"failedBlobs\":[\"bad.json\"]}]".getBytes());
+            return List.of("bad.json");
+        });
+
+        ResponseEntity<StreamingResponseBody> entity = controller.getAllMessageSamples(webRequest());
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        entity.getBody().writeTo(body);
+
+        assertThat(entity.getHeaders().getETag()).isEqualTo(listing.etag());
+        assertThat(entity.getHeaders().containsHeader(HttpHeaders.TRAILER)).isFalse();
+        assertThat(body.toString()).isEqualTo("[{\"failedBlobs\":[\"bad.json\"]}]");
+    }
+
+    @Test
+    void answersAMatchingIfNoneMatchWithoutStreaming() {
+        when(cloudStorageService.listMessageSamples()).thenReturn(listing);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/message-samples");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, listing.etag());
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        assertThat(controller.getAllMessageSamples(new ServletWebRequest(request, servletResponse))).isNull();
+        assertThat(servletResponse.getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    void servesAScenarioWithItsEtagUnlessIfNoneMatchNamesIt() {
+        Scenario scenario = new Scenario();
+        when(scenarioStore.getScenario(eq("user-1"), eq("s-1"), any())).thenAnswer(invocation -> {
+            Predicate<String> notModified = invocation.getArgument(2);
+            return notModified.test("\"7.1\"") ? null : new Versioned<>(scenario, "\"7.1\"");
+        });
+
+        ResponseEntity<Scenario> fresh = controller.getScenario("user-1", "s-1", webRequest());
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/users/user-1/scenarios/s-1");
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, "\"7.1\"");
+        MockHttpServletResponse notModified = new MockHttpServletResponse();
+
+        assertThat(fresh.getHeaders().getETag()).isEqualTo("\"7.1\"");
+        assertThat(fresh.getBody()).isSameAs(scenario);
+        assertThat(controller.getScenario("user-1", "s-1", new ServletWebRequest(conditional, notModified))).isNull();
+        assertThat(notModified.getStatus()).isEqualTo(304);
+    }
+
+    private static ServletWebRequest webRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/message-samples"),
+                new MockHttpServletResponse());
+    }
+}
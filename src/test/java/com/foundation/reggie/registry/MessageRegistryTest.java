@@ -0,0 +1,161 @@
+package com.foundation.reggie.registry;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.foundation.reggie.exception.MessageDeserializationException;
+import com.foundation.reggie.exception.UnknownMessageTypeException;
+import com.foundation.reggie.message.OrderCreated;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MessageRegistryTest {
+
+    @ParameterizedTest
+    @EnumSource(PayloadEncoding.class)
+    void roundTripsEachEncoding(PayloadEncoding encoding) {
+        ObjectMapper objectMapper = JsonMapper.builder().build();
+        MessageRegistry registry = registry(objectMapper);
+
+        OrderCreated decoded = consumerMapper(encoding, objectMapper)
+                .readValue(encode(registry, encoding, order(99.99)), OrderCreated.class);
+
+        assertThat(decoded).isEqualTo(order(99.99));
+    }
+
+    @ParameterizedTest
+    @EnumSource(PayloadEncoding.class)
+    void binaryEncodingsFollowTheApplicationMapper(PayloadEncoding encoding) {
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .changeDefaultPropertyInclusion(inclusion -> inclusion.withValueInclusion(JsonInclude.Include.NON_NULL))
+                .build();
+        MessageRegistry registry = registry(objectMapper);
+
+        JsonNode tree = consumerMapper(encoding, objectMapper).readTree(encode(registry, encoding, order(null)));
+
+        assertThat(tree.has("orderId")).isTrue();
+        assertThat(tree.has("amount")).isFalse();
+    }
+
+    @Test
+    void typeDescriptorsAreBuiltOnceAtRegistration() {
+        MessageRegistry registry = registry(JsonMapper.builder().build());
+
+        MessageType type = registry.getType("OrderCreated");
+
+        assertThat(registry.getType("OrderCreated")).isSameAs(type);
+        assertThat(type.fieldTypes()).containsEntry("orderId", "String").containsEntry("amount", "Double");
+        assertThat(type.writer(PayloadEncoding.SMILE)).isSameAs(registry.getType("OrderCreated")
+                .writer(PayloadEncoding.SMILE));
+        assertThat(type.writers()).containsOnlyKeys(PayloadEncoding.values());
+    }
+
+    @Test
+    void eagerIndexedRegistrationLoadsEveryTypeUpFront(@TempDir Path indexRoot) throws IOException {
+        RecordingClassLoader classLoader = indexedClassLoader(indexRoot);
+        MessageRegistry registry = new MessageRegistry(JsonMapper.builder().build());
+
+        registry.registerIndexed(classLoader, true, Set.of());
+
+        assertThat(classLoader.requested).contains(OrderCreated.class.getName());
+        assertThat(registry.getType("Order").type()).isEqualTo(OrderCreated.class);
+        assertThat(registry.getClass("Missing")).isEmpty();
+    }
+
+    @Test
+    void lazyIndexedRegistrationLoadsEachTypeOnFirstUse(@TempDir Path indexRoot) throws IOException {
+        RecordingClassLoader classLoader = indexedClassLoader(indexRoot);
+        MessageRegistry registry = new MessageRegistry(JsonMapper.builder().build());
+
+        registry.registerIndexed(classLoader, false, Set.of());
+        assertThat(classLoader.requested).doesNotContain(OrderCreated.class.getName());
+
+        assertThat(registry.getType("Order").type()).isEqualTo(OrderCreated.class);
+        assertThat(classLoader.requested).contains(OrderCreated.class.getName());
+        assertThat(registry.getClass("Missing")).isEmpty();
+        assertThatThrownBy(() -> registry.getType("Missing")).isInstanceOf(UnknownMessageTypeException.class);
+    }
+
+    @Test
+    void indexedTypesListedAsStrictRejectUnknownProperties(@TempDir Path indexRoot) throws IOException {
+        MessageRegistry registry = new MessageRegistry(JsonMapper.builder().build());
+        registry.registerIndexed(indexedClassLoader(indexRoot), false, Set.of("Strict"));
+        JsonNode withUnknown = JsonMapper.builder().build().readTree("{\"orderId\":\"1\",\"extra\":true}");
+
+        assertThat(registry.deserialize("Order", withUnknown)).isInstanceOf(OrderCreated.class);
+        assertThatThrownBy(() -> registry.deserialize("Strict", withUnknown))
+                .isInstanceOf(MessageDeserializationException.class);
+    }
+
+    private static RecordingClassLoader indexedClassLoader(Path root) throws IOException {
+        Path index = root.resolve(MessageIndex.LOCATION);
+        Files.createDirectories(index.getParent());
+        Files.writeString(index, String.join("\n",
+                "Order=" + OrderCreated.class.getName(),
+                "Strict=" + OrderCreated.class.getName(),
+                "Missing=com.foundation.reggie.message.Missing"));
+        return new RecordingClassLoader(root);
+    }
+
+    private static MessageRegistry registry(ObjectMapper objectMapper) {
+        MessageRegistry registry = new MessageRegistry(objectMapper);
+        registry.register("OrderCreated", OrderCreated.class);
+        return registry;
+    }
+
+    private static byte[] encode(MessageRegistry registry, PayloadEncoding encoding, OrderCreated message) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        registry.serialize(registry.getType("OrderCreated"), message, encoding, out);
+        return out.toByteArray();
+    }
+
+    private static ObjectMapper consumerMapper(PayloadEncoding encoding, ObjectMapper objectMapper) {
+        return switch (encoding) {
+            case JSON -> objectMapper;
+            case SMILE -> SmileMapper.builder().build();
+            case CBOR -> CBORMapper.builder().build();
+        };
+    }
+
+    private static OrderCreated order(Double amount) {
+        OrderCreated message = new OrderCreated();
+        message.setOrderId("123");
+        message.setCustomerId("456");
+        message.setAmount(amount);
+        return message;
+    }
+
+    /**
+     * Reads the index from a directory and records which classes were asked for.
+     */
+    private static final class RecordingClassLoader extends URLClassLoader {
+        private final Set<String> requested = ConcurrentHashMap.newKeySet();
+
+        RecordingClassLoader(Path root) throws IOException {
+            super(new URL[]{root.toUri().toURL()}, MessageRegistryTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            requested.add(name);
+            return super.loadClass(name, resolve);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.dto.ArchiveRecord;
+import com.foundation.reggie.dto.ImportItemResult;
+import com.foundation.reggie.model.Scenario;
+import com.foundation.reggie.model.ScenarioSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.foundation.reggie.service.StorageFixture.scenario;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArchiveServiceTest {
+    private final StorageFixture fixture = new StorageFixture();
+    private final ScenarioWriteBehind writeBehind = new ScenarioWriteBehind(fixture.service, true,
+            Duration.ofHours(1), 100, 3, fixture.meterRegistry);
+    private final ArchiveService archiveService = new ArchiveService(fixture.service, writeBehind,
+            fixture.objectMapper, 1);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        archiveService.shutdown();
+        writeBehind.shutdown();
+        fixture.close();
+    }
+
+    @Test
+    void listsUnchangedScenariosMissingFromTheManifest() throws IOException {
+        fixture.service.upsertScenario("user-1", scenario("s-0", "listed"), null);
+        // Stored by an earlier import that stopped before updating the manifest
+        fixture.service.importScenario("user-1", scenario("s-1", "unlisted"), null);
+
+        List<ImportItemResult> results = importArchive(archive(scenario("s-1", "unlisted")),
+                new ByteArrayOutputStream());
+
+        assertThat(results).extracting(ImportItemResult::status).containsExactly(ImportItemResult.Status.UNCHANGED);
+        assertThat(summaryIds("user-1")).containsExactly("s-0", "s-1");
+    }
+
+    @Test
+    void updatesTheManifestWhenTheImportStopsEarly() {
+        fixture.service.upsertScenario("user-1", scenario("s-0", "listed"), null);
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Client went away");
+            }
+        };
+
+        assertThatThrownBy(() -> archiveService.importArchive(
+                archive(scenario("s-1", "first"), scenario("s-2", "second")), 1, disconnected))
+                .isInstanceOf(IOException.class);
+
+        assertThat(fixture.fakeStorage.exists("user-1/scenarios/s-1.json")).isTrue();
+        assertThat(summaryIds("user-1")).contains("s-0", "s-1");
+    }
+
+    @Test
+    void writesABufferedUpsertBeforeImportingOverIt() throws IOException, InterruptedException {
+        writeBehind.upsertScenario("user-1", scenario("s-1", "buffered"), null);
+
+        List<ImportItemResult> results = importArchive(archive(scenario("s-1", "archived")),
+                new ByteArrayOutputStream());
+        // Anything still buffered would be written now and overwrite the import
+        writeBehind.shutdown();
+
+        assertThat(results).extracting(ImportItemResult::status).containsExactly(ImportItemResult.Status.UPDATED);
+        assertThat(fixture.service.getScenario("user-1", "s-1").getName()).isEqualTo("archived");
+    }
+
+    private InputStream archive(Scenario... scenarios) {
+        StringBuilder lines = new StringBuilder();
+        for (Scenario scenario : scenarios) {
+            ArchiveRecord record = new ArchiveRecord(ArchiveRecord.SCENARIO, "user-1", scenario.getId(), null,
+                    fixture.objectMapper.valueToTree(scenario));
+            lines.append(fixture.objectMapper.writeValueAsString(record)).append('\n');
+        }
+        return new ByteArrayInputStream(lines.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<ImportItemResult> importArchive(InputStream in, ByteArrayOutputStream out) throws IOException {
+        archiveService.importArchive(in, 1, out);
+        return Arrays.stream(out.toString(StandardCharsets.UTF_8).split("\n"))
+                .map(line -> fixture.objectMapper.readValue(line, ImportItemResult.class))
+                .toList();
+    }
+
+    private List<String> summaryIds(String userId) {
+        return fixture.service.getScenarioSummaries(userId, null, 100).items().stream()
+                .map(ScenarioSummary::getId)
+                .toList();
+    }
+}
@@ -0,0 +1,98 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.dto.BatchItemResult;
+import com.foundation.reggie.dto.PublishRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchPublishServiceTest {
+    private final RecordingTransport transport = new RecordingTransport();
+    private final PublishFixture fixture = new PublishFixture(transport);
+    private final BatchPublishService batch = new BatchPublishService(fixture.publishService, fixture.objectMapper, 2);
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    void reportsEveryItemInInputOrder() {
+        List<BatchItemResult> results = batch.publishAll(List.of(
+                request("OrderCreated", "{\"orderId\":\"1\"}"),
+                request("Missing", "{}"),
+                request("OrderCreated", "{\"orderId\":\"3\"}"))).join();
+
+        assertThat(results).extracting(BatchItemResult::index).containsExactly(0L, 1L, 2L);
+        assertThat(results.get(0).messageId()).isNotNull();
+        assertThat(results.get(1).error()).contains("Missing");
+        assertThat(results.get(2).messageId()).isNotNull();
+        assertThat(transport.published()).hasSize(2);
+    }
+
+    @Test
+    void streamsOneResultLinePerNdjsonLine() throws IOException {
+        String ndjson = """
+                {"className":"OrderCreated","topic":"orders","message":{"orderId":"1"}}
+                {"className":"OrderCreated","topic":"orders","message":{"orderId":"2"},"orderingKey":"k"}
+                {"className":"OrderCreated","topic":"orders","message":{"orderId":"3"}}
+                """;
+
+        List<BatchItemResult> results = stream(ndjson);
+
+        assertThat(results).extracting(BatchItemResult::index).containsExactly(0L, 1L, 2L);
+        assertThat(results).allSatisfy(result -> assertThat(result.error()).isNull());
+        assertThat(transport.published().get(1).message().getOrderingKey()).isEqualTo("k");
+    }
+
+    @Test
+    void endsTheStreamAtAMalformedLine() throws IOException {
+        String ndjson = """
+                {"className":"OrderCreated","topic":"orders","message":{"orderId":"1"}}
+                {"className":
+                {"className":"OrderCreated","topic":"orders","message":{"orderId":"3"}}
+                """;
+
+        List<BatchItemResult> results = stream(ndjson);
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(1).index()).isEqualTo(1);
+        assertThat(results.get(1).error()).startsWith("Malformed request");
+        assertThat(transport.published()).hasSize(1);
+    }
+
+    @Test
+    void reportsTransportFailuresWithoutTheCompletionWrapper() {
+        try (PublishFixture failing = new PublishFixture(1.0)) {
+            BatchPublishService failingBatch = new BatchPublishService(failing.publishService, failing.objectMapper, 2);
+
+            List<BatchItemResult> results = failingBatch.publishAll(
+                    List.of(request("OrderCreated", "{\"orderId\":\"1\"}"))).join();
+
+            assertThat(results.getFirst().error()).startsWith("Simulated publish failure");
+        }
+    }
+
+    private List<BatchItemResult> stream(String ndjson) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        batch.publishStream(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), out);
+        return out.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> fixture.objectMapper.readValue(line, BatchItemResult.class))
+                .toList();
+    }
+
+    private PublishRequest request(String className, String message) {
+        PublishRequest request = new PublishRequest();
+        request.setClassName(className);
+        request.setTopic("orders");
+        request.setMessage(fixture.objectMapper.readTree(message));
+        return request;
+    }
+}
@@ -0,0 +1,97 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.service.CloudStorageService.BlobListing;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlobCacheTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void servesContentOnlyForTheCachedGeneration() {
+        BlobCache cache = new BlobCache(true, 1024, Duration.ofSeconds(5), 10, meterRegistry);
+        cache.put("a.json", 1L, new byte[] {1});
+
+        assertThat(cache.get("a.json", 1L)).containsExactly(1);
+        assertThat(cache.get("a.json", 2L)).isNull();
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedBeyondMaxBytes() {
+        BlobCache cache = new BlobCache(true, 4, Duration.ofSeconds(5), 10, meterRegistry);
+        cache.put("a.json", 1L, new byte[2]);
+        cache.put("b.json", 1L, new byte[2]);
+        cache.get("a.json", 1L);
+        cache.put("c.json", 1L, new byte[2]);
+
+        assertThat(cache.get("a.json", 1L)).isNotNull();
+        assertThat(cache.get("b.json", 1L)).isNull();
+        assertThat(meterRegistry.counter("reggie.storage.cache.evictions").count()).isEqualTo(1);
+    }
+
+    @Test
+    void servesAListingUntilABlobUnderItsPrefixChanges() {
+        BlobCache cache = new BlobCache(true, 1024, Duration.ofSeconds(5), 10, meterRegistry);
+        cache.putListing(listing("user-1/scenarios/"), cache.listingVersion(), System.nanoTime());
+        cache.putListing(listing("message-samples/"), cache.listingVersion(), System.nanoTime());
+
+        assertThat(cache.getListing("user-1/scenarios/")).isNotNull();
+
+        cache.invalidateListings("user-1/scenarios/s-1.json");
+
+        assertThat(cache.getListing("user-1/scenarios/")).isNull();
+        assertThat(cache.getListing("message-samples/")).isNotNull();
+        assertThat(meterRegistry.counter("reggie.storage.cache.listings", "result", "hit").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("reggie.storage.cache.listings", "result", "miss").count()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsAListingTakenBeforeAWrite() {
+        BlobCache cache = new BlobCache(true, 1024, Duration.ofSeconds(5), 10, meterRegistry);
+        long version = cache.listingVersion();
+        // A write lands while the listing is in flight, which may or may not include it
+        cache.invalidateListings("user-1/scenarios/s-1.json");
+        cache.putListing(listing("user-1/scenarios/"), version, System.nanoTime());
+
+        assertThat(cache.getListing("user-1/scenarios/")).isNull();
+    }
+
+    @Test
+    void expiresListingsAfterTheTtl() {
+        BlobCache cache = new BlobCache(true, 1024, Duration.ofSeconds(5), 10, meterRegistry);
+        cache.putListing(listing("message-samples/"), cache.listingVersion(),
+                System.nanoTime() - Duration.ofSeconds(6).toNanos());
+
+        assertThat(cache.getListing("message-samples/")).isNull();
+    }
+
+    @Test
+    void keepsAtMostMaxListings() {
+        BlobCache cache = new BlobCache(true, 1024, Duration.ofSeconds(5), 2, meterRegistry);
+        cache.putListing(listing("a/"), cache.listingVersion(), System.nanoTime());
+        cache.putListing(listing("b/"), cache.listingVersion(), System.nanoTime());
+        cache.getListing("a/");
+        cache.putListing(listing("c/"), cache.listingVersion(), System.nanoTime());
+
+        assertThat(cache.getListing("a/")).isNotNull();
+        assertThat(cache.getListing("b/")).isNull();
+        assertThat(cache.getListing("c/")).isNotNull();
+    }
+
+    @Test
+    void aZeroTtlDisablesListingCaching() {
+        BlobCache cache = new BlobCache(true, 1024, Duration.ZERO, 10, meterRegistry);
+        cache.putListing(listing("a/"), cache.listingVersion(), System.nanoTime());
+
+        assertThat(cache.getListing("a/")).isNull();
+    }
+
+    private static BlobListing listing(String prefix) {
+        return new BlobListing(prefix, List.of(), "W/\"" + prefix + "\"");
+    }
+}
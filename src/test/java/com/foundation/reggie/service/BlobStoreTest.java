@@ -0,0 +1,97 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.model.MessageSample;
+import com.foundation.reggie.service.BlobStore.WriteOptions;
+import com.foundation.reggie.service.CloudStorageService.ReadResult;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.foundation.reggie.service.StorageFixture.sample;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlobStoreTest {
+    private final StorageFixture fixture = new StorageFixture();
+    private final BlobStore blobStore = fixture.blobStore;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        fixture.close();
+    }
+
+    @Test
+    void readAllKeepsListingOrderAndReportsBlobsThatFail() {
+        for (int i = 0; i < 10; i++) {
+            fixture.service.upsertMessageSample(sample("m-" + i));
+        }
+        fixture.fakeStorage.failReads("message-samples/m-3.json");
+        fixture.fakeStorage.put("message-samples/m-5.json", "not json".getBytes(StandardCharsets.UTF_8));
+        fixture.blobCache.invalidate("message-samples/m-3.json");
+
+        ReadResult<MessageSample> result = blobStore.readAll("message-samples/",
+                blob -> blobStore.parse(blob, MessageSample.class));
+
+        assertThat(result.items()).extracting(MessageSample::getMessageId)
+                .containsExactly("m-0", "m-1", "m-2", "m-4", "m-6", "m-7", "m-8", "m-9");
+        assertThat(result.failedBlobs()).containsExactly("message-samples/m-3.json", "message-samples/m-5.json");
+    }
+
+    @Test
+    void readAllRunsAtMostReadParallelismReadsAtOnce() {
+        for (int i = 0; i < 12; i++) {
+            fixture.fakeStorage.put("message-samples/m-" + i + ".json", "{}".getBytes(StandardCharsets.UTF_8));
+        }
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        ReadResult<String> result = blobStore.readAll("message-samples/", blob -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            return blob.getName();
+        });
+
+        assertThat(result.items()).hasSize(12);
+        assertThat(maxInFlight.get()).isBetween(2, blobStore.readParallelism());
+    }
+
+    @Test
+    void largeBlobsAreStoredGzippedAndReadBackDecompressed() {
+        MessageSample large = sample("large");
+        large.setOrderingKey("k".repeat(200));
+        fixture.service.upsertMessageSample(large);
+        blobStore.writeJson("message-samples/small.json", Map.of("a", 1),
+                WriteOptions.unconditional(blobStore.blobId("message-samples/small.json")));
+        fixture.blobCache.invalidate("message-samples/large.json");
+
+        byte[] stored = fixture.fakeStorage.storage().readAllBytes(BlobId.of(StorageFixture.BUCKET,
+                "message-samples/large.json"));
+        Blob blob = blobStore.get("message-samples/large.json");
+
+        assertThat(stored[0]).isEqualTo((byte) 0x1f);
+        assertThat(stored[1]).isEqualTo((byte) 0x8b);
+        assertThat(blob.getContentEncoding()).isEqualTo("gzip");
+        assertThat(blobStore.parse(blob, MessageSample.class).getOrderingKey()).isEqualTo("k".repeat(200));
+        assertThat(blobStore.get("message-samples/small.json").getContentEncoding()).isNull();
+    }
+
+    @Test
+    void etagsNameTheGenerationAndMetageneration() {
+        fixture.service.upsertMessageSample(sample("m-1"));
+        Blob blob = blobStore.get("message-samples/m-1.json");
+        String etag = BlobStore.etag(blob);
+
+        assertThat(etag).isEqualTo("\"" + blob.getGeneration() + "." + blob.getMetageneration() + "\"");
+        assertThat(BlobStore.sameVersion(blob, "W/" + etag)).isTrue();
+        assertThat(BlobStore.sameVersion(blob, "\"1.1\"")).isFalse();
+    }
+}
@@ -0,0 +1,179 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.exception.PreconditionFailedException;
+import com.foundation.reggie.model.Scenario;
+import com.foundation.reggie.service.CloudStorageService.BlobListing;
+import com.foundation.reggie.service.CloudStorageService.Versioned;
+import com.google.cloud.storage.BlobId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static com.foundation.reggie.service.StorageFixture.sample;
+import static com.foundation.reggie.service.StorageFixture.scenario;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CloudStorageServiceTest {
+    private StorageFixture fixture = new StorageFixture();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        fixture.close();
+    }
+
+    @Test
+    void repeatedListingsAreServedFromTheCache() {
+        fixture.service.upsertMessageSample(sample("m-1"));
+        fixture.fakeStorage.resetCalls();
+
+        BlobListing first = fixture.service.listMessageSamples();
+        BlobListing second = fixture.service.listMessageSamples();
+
+        assertThat(fixture.fakeStorage.calls("list")).isEqualTo(1);
+        assertThat(second.etag()).isEqualTo(first.etag());
+        assertThat(second.blobs()).extracting(blob -> blob.getName()).containsExactly("message-samples/m-1.json");
+    }
+
+    @Test
+    void aLocalWriteInvalidatesTheCachedListing() {
+        fixture.service.upsertMessageSample(sample("m-1"));
+        BlobListing before = fixture.service.listMessageSamples();
+
+        fixture.service.upsertMessageSample(sample("m-2"));
+        BlobListing after = fixture.service.listMessageSamples();
+
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+        assertThat(after.blobs()).hasSize(2);
+
+        fixture.service.deleteMessageSample("m-1");
+        assertThat(fixture.service.listMessageSamples().blobs()).extracting(blob -> blob.getName())
+                .containsExactly("message-samples/m-2.json");
+    }
+
+    @Test
+    void writesOnlyInvalidateListingsOfTheirOwnPrefix() {
+        fixture.service.upsertMessageSample(sample("m-1"));
+        fixture.service.listMessageSamples();
+
+        fixture.service.upsertScenario("user-1", scenario("s-1", "one"));
+        fixture.fakeStorage.resetCalls();
+        fixture.service.listMessageSamples();
+
+        assertThat(fixture.fakeStorage.calls("list")).isZero();
+    }
+
+    @Test
+    void withoutAListingTtlEveryListingGoesToStorage() throws InterruptedException {
+        fixture.close();
+        fixture = new StorageFixture(Duration.ZERO, 100);
+        fixture.service.upsertMessageSample(sample("m-1"));
+        fixture.fakeStorage.resetCalls();
+
+        fixture.service.listMessageSamples();
+        fixture.service.listMessageSamples();
+
+        assertThat(fixture.fakeStorage.calls("list")).isEqualTo(2);
+    }
+
+    @Test
+    void aConditionalReadSkipsTheScenarioWhenItsEtagStillMatches() {
+        Versioned<Scenario> written = fixture.service.upsertScenario("user-1", scenario("s-1", "one"), null);
+
+        assertThat(fixture.service.getScenario("user-1", "s-1", written.etag()::equals)).isNull();
+        Versioned<Scenario> read = fixture.service.getScenario("user-1", "s-1", "\"1.1\""::equals);
+        assertThat(read.etag()).isEqualTo(written.etag());
+        assertThat(read.value().getName()).isEqualTo("one");
+    }
+
+    @Test
+    void aConditionalWriteFailsOnceTheStoredVersionHasMoved() {
+        Versioned<Scenario> first = fixture.service.upsertScenario("user-1", scenario("s-1", "one"), null);
+        Versioned<Scenario> second = fixture.service.upsertScenario("user-1", scenario("s-1", "two"), first.etag());
+
+        assertThat(second.etag()).isNotEqualTo(first.etag());
+        assertThatThrownBy(() -> fixture.service.upsertScenario("user-1", scenario("s-1", "three"), first.etag()))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> fixture.service.upsertMessageSample(sample("m-1"), "*"))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> fixture.service.upsertMessageSample(sample("m-1"), "\"not-an-etag\""))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThat(fixture.service.getScenario("user-1", "s-1").getName()).isEqualTo("two");
+    }
+
+    @Test
+    void streamingACachedListingReadsBlobsReplacedOrDeletedElsewhereAtTheirCurrentState() throws IOException {
+        fixture.fakeStorage.put("message-samples/m-1.json", "{\"messageId\":\"m-1\"}".getBytes(StandardCharsets.UTF_8));
+        fixture.fakeStorage.put("message-samples/m-2.json", "{\"messageId\":\"m-2\"}".getBytes(StandardCharsets.UTF_8));
+        fixture.service.listMessageSamples();
+
+        // Another replica rewrites one sample and deletes the other
+        fixture.fakeStorage.put("message-samples/m-1.json",
+                "{\"messageId\":\"m-1\",\"topic\":\"moved\"}".getBytes(StandardCharsets.UTF_8));
+        fixture.fakeStorage.storage().delete(BlobId.of(StorageFixture.BUCKET, "message-samples/m-2.json"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        List<String> failed = fixture.service.streamListing(fixture.service.listMessageSamples(), out);
+
+        JsonNode array = fixture.objectMapper.readTree(out.toByteArray());
+        assertThat(failed).isEmpty();
+        assertThat(array.size()).isEqualTo(1);
+        assertThat(array.get(0).get("topic").stringValue()).isEqualTo("moved");
+    }
+
+    @Test
+    void streamingSkipsBlobsThatAreNotASingleJsonValue() throws IOException {
+        fixture.service.upsertMessageSample(sample("m-1"));
+        fixture.fakeStorage.put("message-samples/truncated.json", "{\"messageId\":".getBytes(StandardCharsets.UTF_8));
+        fixture.fakeStorage.put("message-samples/two.json", "{} {}".getBytes(StandardCharsets.UTF_8));
+        fixture.service.upsertMessageSample(sample("m-2"));
+        fixture.fakeStorage.failReads("message-samples/m-2.json");
+        fixture.blobCache.invalidate("message-samples/m-2.json");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        List<String> failed = fixture.service.streamListing(fixture.service.listMessageSamples(), out);
+
+        JsonNode array = fixture.objectMapper.readTree(out.toByteArray());
+        assertThat(array.size()).isEqualTo(2);
+        assertThat(array.get(0).get("messageId").stringValue()).isEqualTo("m-1");
+        assertThat(failed).containsExactly("message-samples/m-2.json", "message-samples/truncated.json",
+                "message-samples/two.json");
+        assertThat(array.get(1).get("failedBlobs")).extracting(JsonNode::stringValue)
+                .containsExactlyElementsOf(failed);
+    }
+
+    @Test
+    void aListingOfOnlyUnreadableBlobsIsStillValidJson() throws IOException {
+        fixture.fakeStorage.put("message-samples/bad.json", "not json".getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        fixture.service.streamListing(fixture.service.listMessageSamples(), out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8))
+                .isEqualTo("[{\"failedBlobs\":[\"message-samples/bad.json\"]}]");
+    }
+
+    @Test
+    void exportNamesLeftOutBlobsInAFinalRecord() {
+        fixture.service.upsertScenario("user-1", scenario("s-1", "one"));
+        fixture.fakeStorage.put("message-samples/bad.json", "not json".getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        fixture.service.exportArchive(null, out);
+
+        List<JsonNode> records = out.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> fixture.objectMapper.readTree(line))
+                .toList();
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0).get("kind").stringValue()).isEqualTo("scenario");
+        assertThat(records.get(0).get("data").get("name").stringValue()).isEqualTo("one");
+        assertThat(records.get(1).get("kind").stringValue()).isEqualTo("failedBlobs");
+        assertThat(records.get(1).get("data").get(0).stringValue()).isEqualTo("message-samples/bad.json");
+    }
+}
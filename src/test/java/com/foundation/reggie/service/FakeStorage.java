@@ -0,0 +1,356 @@
+package com.foundation.reggie.service;
+
+import com.google.api.gax.paging.Page;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageException;
+import com.google.cloud.storage.TestBlobs;
+import org.mockito.invocation.InvocationOnMock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * An in-memory {@link Storage} covering the calls {@link CloudStorageService} makes:
+ * objects keep a generation, metageneration and metadata, and {@code doesNotExist},
+ * {@code generationMatch} and {@code metagenerationMatch} preconditions fail with 412
+ * like GCS, and a delete by an ID with a generation removes only that generation. Only
+ * the bucket given to the constructor exists.
+ */
+class FakeStorage {
+    private static final int PRECONDITION_FAILED = 412;
+    private static final int NOT_FOUND = 404;
+
+    private final String bucket;
+    private final Storage storage;
+    private final NavigableMap<String, StoredObject> objects = new ConcurrentSkipListMap<>();
+    private final AtomicLong generations = new AtomicLong(1000);
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private final Map<String, Runnable> beforeWrite = new ConcurrentHashMap<>();
+    private final Set<String> unreadable = ConcurrentHashMap.newKeySet();
+
+    FakeStorage(String bucket) {
+        this.bucket = bucket;
+        this.storage = mock(Storage.class, this::answer);
+    }
+
+    Storage storage() {
+        return storage;
+    }
+
+    /**
+     * @return how often {@code method} of {@link Storage} was called, e.g. {@code "list"}
+     */
+    int calls(String method) {
+        AtomicInteger count = calls.get(method);
+        return count != null ? count.get() : 0;
+    }
+
+    void resetCalls() {
+        calls.clear();
+    }
+
+    boolean exists(String name) {
+        return objects.containsKey(name);
+    }
+
+    Set<String> names(String prefix) {
+        return new TreeSet<>(objects.keySet().stream().filter(name -> name.startsWith(prefix)).toList());
+    }
+
+    Map<String, String> metadata(String name) {
+        StoredObject object = objects.get(name);
+        return object != null ? object.metadata() : null;
+    }
+
+    /**
+     * Stores raw bytes as another writer would, bypassing every precondition.
+     */
+    void put(String name, byte[] content) {
+        long generation = generations.incrementAndGet();
+        objects.put(name, new StoredObject(generation, 1, content, Map.of(), null));
+    }
+
+    /**
+     * Makes downloads of {@code name} fail while the object itself still lists.
+     */
+    void failReads(String name) {
+        unreadable.add(name);
+    }
+
+    /**
+     * Runs {@code action} once, right before the next create or update of {@code name} is
+     * checked against its preconditions, to interleave a concurrent writer.
+     */
+    void beforeWrite(String name, Runnable action) {
+        beforeWrite.put(name, action);
+    }
+
+    /**
+     * Waits for a create or update in progress on another thread, such as one that ran a
+     * {@link #beforeWrite} action, to finish.
+     */
+    synchronized void awaitWrites() {
+    }
+
+    private Object answer(InvocationOnMock invocation) {
+        String method = invocation.getMethod().getName();
+        calls.computeIfAbsent(method, key -> new AtomicInteger()).incrementAndGet();
+        // Varargs arrive expanded, so options are picked out by type
+        Object[] args = invocation.getArguments();
+        return switch (method) {
+            case "getOptions" -> null;
+            case "get" -> get(args);
+            case "create" -> create((BlobInfo) args[0], (byte[]) args[1],
+                    options(args, Storage.BlobTargetOption.class));
+            case "update" -> update((BlobInfo) args[0], options(args, Storage.BlobTargetOption.class));
+            case "list" -> list(options(args, Storage.BlobListOption.class));
+            case "delete" -> delete(args);
+            case "readAllBytes" -> read((BlobId) args[0]);
+            default -> throw new UnsupportedOperationException("FakeStorage does not support " + method);
+        };
+    }
+
+    private Object get(Object[] args) {
+        if (args[0] instanceof BlobId blobId) {
+            return blob(blobId.getName());
+        }
+        List<Blob> blobs = new ArrayList<>();
+        for (BlobId blobId : blobIds(args[0])) {
+            blobs.add(blob(blobId.getName()));
+        }
+        return blobs;
+    }
+
+    private Object delete(Object[] args) {
+        if (args[0] instanceof BlobId blobId) {
+            return delete(blobId);
+        }
+        List<Boolean> deleted = new ArrayList<>();
+        for (BlobId blobId : blobIds(args[0])) {
+            deleted.add(delete(blobId));
+        }
+        return deleted;
+    }
+
+    private boolean delete(BlobId blobId) {
+        StoredObject current = objects.get(blobId.getName());
+        if (current == null || (blobId.getGeneration() != null && blobId.getGeneration() != current.generation())) {
+            return false;
+        }
+        return objects.remove(blobId.getName(), current);
+    }
+
+    private synchronized Blob create(BlobInfo info, byte[] content, List<Storage.BlobTargetOption> options) {
+        String name = info.getName();
+        runBeforeWrite(name);
+        StoredObject current = objects.get(name);
+        for (Storage.BlobTargetOption option : options) {
+            if (same(option, Storage.BlobTargetOption.doesNotExist())) {
+                require(current == null, name);
+            } else if (same(option, Storage.BlobTargetOption.generationMatch())) {
+                require(current != null
+                        && Objects.equals(current.generation(), info.getBlobId().getGeneration()), name);
+            } else if (same(option, Storage.BlobTargetOption.metagenerationMatch())) {
+                require(current != null && Objects.equals(current.metageneration(), info.getMetageneration()), name);
+            } else {
+                throw new UnsupportedOperationException("FakeStorage does not support " + option + " on create");
+            }
+        }
+        long generation = generations.incrementAndGet();
+        Map<String, String> metadata = info.getMetadata() != null ? Map.copyOf(info.getMetadata()) : Map.of();
+        StoredObject created = new StoredObject(generation, 1, content, metadata, info.getContentEncoding());
+        objects.put(name, created);
+        return toBlob(name, created);
+    }
+
+    private synchronized Blob update(BlobInfo info, List<Storage.BlobTargetOption> options) {
+        String name = info.getName();
+        runBeforeWrite(name);
+        StoredObject current = objects.get(name);
+        if (current == null) {
+            throw new StorageException(NOT_FOUND, "No such object: " + name);
+        }
+        for (Storage.BlobTargetOption option : options) {
+            if (same(option, Storage.BlobTargetOption.generationMatch())) {
+                require(Objects.equals(current.generation(), info.getBlobId().getGeneration()), name);
+            } else if (same(option, Storage.BlobTargetOption.metagenerationMatch())) {
+                require(Objects.equals(current.metageneration(), info.getMetageneration()), name);
+            } else {
+                throw new UnsupportedOperationException("FakeStorage does not support " + option + " on update");
+            }
+        }
+        Map<String, String> metadata = new HashMap<>(current.metadata());
+        if (info.getMetadata() != null) {
+            info.getMetadata().forEach((key, value) -> {
+                if (value == null) {
+                    metadata.remove(key);
+                } else {
+                    metadata.put(key, value);
+                }
+            });
+        }
+        StoredObject updated = new StoredObject(current.generation(), current.metageneration() + 1, current.content(),
+                Map.copyOf(metadata), current.contentEncoding());
+        objects.put(name, updated);
+        return toBlob(name, updated);
+    }
+
+    private Page<Blob> list(List<Storage.BlobListOption> options) {
+        boolean delimited = options.stream().anyMatch(option -> same(option, Storage.BlobListOption.delimiter("/")));
+        String prefix = null;
+        for (Storage.BlobListOption option : options) {
+            if (!same(option, Storage.BlobListOption.delimiter("/"))) {
+                prefix = prefixOf(option);
+            }
+        }
+        List<Blob> blobs = new ArrayList<>();
+        if (prefix == null && !options.isEmpty() && !delimited) {
+            // A prefix nothing is stored under
+            return page(blobs);
+        }
+        String scope = prefix != null ? prefix : "";
+        Set<String> directories = new TreeSet<>();
+        for (Map.Entry<String, StoredObject> entry : objects.tailMap(scope).entrySet()) {
+            String name = entry.getKey();
+            if (!name.startsWith(scope)) {
+                break;
+            }
+            int slash = name.indexOf('/', scope.length());
+            if (delimited && slash >= 0) {
+                directories.add(name.substring(0, slash + 1));
+            } else {
+                blobs.add(toBlob(name, entry.getValue()));
+            }
+        }
+        for (String directory : directories) {
+            blobs.add(TestBlobs.blob(storage, BlobInfo.newBuilder(BlobId.of(bucket, directory)).build(), 0, 0));
+        }
+        return page(blobs);
+    }
+
+    /**
+     * Options cannot be inspected through the public API, so the prefix is found by comparing
+     * against every prefix that could match a stored object.
+     */
+    private String prefixOf(Storage.BlobListOption option) {
+        Set<String> candidates = new TreeSet<>();
+        candidates.add("");
+        for (String name : objects.keySet()) {
+            for (int slash = name.indexOf('/'); slash >= 0; slash = name.indexOf('/', slash + 1)) {
+                candidates.add(name.substring(0, slash + 1));
+            }
+        }
+        for (String candidate : candidates) {
+            if (same(option, Storage.BlobListOption.prefix(candidate))) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private byte[] read(BlobId blobId) {
+        StoredObject object = objects.get(blobId.getName());
+        if (object == null || (blobId.getGeneration() != null && blobId.getGeneration() != object.generation())) {
+            throw new StorageException(NOT_FOUND, "No such object: " + blobId.getName());
+        }
+        if (unreadable.contains(blobId.getName())) {
+            throw new StorageException(503, "Simulated read failure: " + blobId.getName());
+        }
+        return object.content();
+    }
+
+    private Blob blob(String name) {
+        StoredObject object = objects.get(name);
+        return object != null ? toBlob(name, object) : null;
+    }
+
+    private Blob toBlob(String name, StoredObject object) {
+        BlobInfo.Builder info = BlobInfo.newBuilder(BlobId.of(bucket, name, object.generation()))
+                .setMetadata(object.metadata())
+                .setContentType("application/json");
+        if (object.contentEncoding() != null) {
+            info.setContentEncoding(object.contentEncoding());
+        }
+        return TestBlobs.blob(storage, info.build(), object.metageneration(), object.content().length);
+    }
+
+    private void runBeforeWrite(String name) {
+        Runnable action = beforeWrite.remove(name);
+        if (action != null) {
+            action.run();
+        }
+    }
+
+    private static void require(boolean condition, String name) {
+        if (!condition) {
+            throw new StorageException(PRECONDITION_FAILED, "Precondition failed: " + name);
+        }
+    }
+
+    private static boolean same(Object option, Object expected) {
+        return option.equals(expected) || option.toString().equals(expected.toString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Iterable<BlobId> blobIds(Object target) {
+        return (Iterable<BlobId>) target;
+    }
+
+    private static <T> List<T> options(Object[] args, Class<T> type) {
+        List<T> options = new ArrayList<>();
+        for (Object arg : args) {
+            if (type.isInstance(arg)) {
+                options.add(type.cast(arg));
+            }
+        }
+        return options;
+    }
+
+    private static Page<Blob> page(List<Blob> blobs) {
+        return new Page<>() {
+            @Override
+            public boolean hasNextPage() {
+                return false;
+            }
+
+            @Override
+            public String getNextPageToken() {
+                return null;
+            }
+
+            @Override
+            public Page<Blob> getNextPage() {
+                return null;
+            }
+
+            @Override
+            public Iterable<Blob> iterateAll() {
+                return blobs;
+            }
+
+            @Override
+            public Iterable<Blob> getValues() {
+                return blobs;
+            }
+        };
+    }
+
+    private record StoredObject(long generation, long metageneration, byte[] content, Map<String, String> metadata,
+                                String contentEncoding) {
+    }
+}
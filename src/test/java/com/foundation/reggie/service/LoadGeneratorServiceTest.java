@@ -0,0 +1,130 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.config.PublishLimitProperties;
+import com.foundation.reggie.dto.LoadTestReport;
+import com.foundation.reggie.dto.LoadTestRequest;
+import com.foundation.reggie.exception.BadRequestException;
+import com.foundation.reggie.exception.TooManyRequestsException;
+import com.foundation.reggie.model.MessageSample;
+import com.foundation.reggie.transport.InMemoryTransport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LoadGeneratorServiceTest {
+    private final CloudStorageService cloudStorageService = mock(CloudStorageService.class);
+    private PublishFixture fixture;
+    private LoadGeneratorService loadGenerator;
+
+    @AfterEach
+    void tearDown() {
+        loadGenerator.shutdown();
+        fixture.close();
+    }
+
+    @Test
+    void publishesTheRequestedNumberOfMessages() throws InterruptedException {
+        RecordingTransport transport = new RecordingTransport();
+        start(new PublishFixture(transport));
+
+        LoadTestReport report = awaitFinished(loadGenerator.start(
+                new LoadTestRequest(null, null, "m-1", null, 4, 10L, null)));
+
+        assertThat(report.status()).isEqualTo(LoadTestReport.Status.COMPLETED);
+        assertThat(report.succeeded()).isEqualTo(10);
+        assertThat(report.latencyMs().count()).isEqualTo(10);
+        assertThat(transport.published()).hasSize(10);
+    }
+
+    @Test
+    void measuresFromTheScheduleWhenTheTransportFallsBehind() throws InterruptedException {
+        // Due every 5ms, but one publish at a time taking 20ms each
+        start(new PublishFixture(new InMemoryTransport(Duration.ofMillis(20), Duration.ZERO, 0.0)));
+
+        LoadTestReport report = awaitFinished(loadGenerator.start(
+                new LoadTestRequest(null, null, "m-1", 200.0, 1, 10L, null)));
+
+        assertThat(report.succeeded()).isEqualTo(10);
+        // The last message is sent about 135ms after it was due; timing from the send would report ~20ms
+        assertThat(report.latencyMs().max()).isGreaterThan(100);
+    }
+
+    @Test
+    void waitsOutRateLimitRejectionsInsteadOfFailing() throws InterruptedException {
+        start(new PublishFixture());
+        PublishLimitProperties.TopicLimits limits = new PublishLimitProperties.TopicLimits();
+        limits.setRate(100.0);
+        limits.setBurst(1);
+        fixture.limitProperties.getTopics().put("orders-topic", limits);
+
+        LoadTestReport report = awaitFinished(loadGenerator.start(
+                new LoadTestRequest(null, null, "m-1", null, 4, 5L, null)));
+
+        assertThat(report.status()).isEqualTo(LoadTestReport.Status.COMPLETED);
+        assertThat(report.succeeded()).isEqualTo(5);
+        assertThat(report.failed()).isZero();
+        assertThat(report.throttled()).isPositive();
+    }
+
+    @Test
+    void rejectsARequestWithoutASource() {
+        start(new PublishFixture());
+
+        assertThatThrownBy(() -> loadGenerator.start(new LoadTestRequest(null, null, null, null, null, 1L, null)))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void rejectsANonPositiveMessageCountOrDuration() {
+        start(new PublishFixture());
+
+        assertThatThrownBy(() -> loadGenerator.start(new LoadTestRequest(null, null, "m-1", null, null, -1L, null)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("totalMessages");
+        assertThatThrownBy(() -> loadGenerator.start(new LoadTestRequest(null, null, "m-1", null, null, null, 0L)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("durationSeconds");
+    }
+
+    @Test
+    void capsTheRunsRunningAtOnce() throws InterruptedException {
+        start(new PublishFixture(new InMemoryTransport(Duration.ofMillis(10), Duration.ZERO, 0.0)), 1);
+        LoadTestRun running = loadGenerator.start(new LoadTestRequest(null, null, "m-1", null, 1, null, 30L));
+
+        assertThatThrownBy(() -> loadGenerator.start(new LoadTestRequest(null, null, "m-1", null, 1, 1L, null)))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        running.cancel();
+        awaitFinished(running);
+        assertThat(awaitFinished(loadGenerator.start(new LoadTestRequest(null, null, "m-1", null, 1, 1L, null)))
+                .succeeded()).isEqualTo(1);
+    }
+
+    private void start(PublishFixture publishFixture) {
+        start(publishFixture, 4);
+    }
+
+    private void start(PublishFixture publishFixture, int maxRunning) {
+        fixture = publishFixture;
+        MessageSample sample = StorageFixture.sample("m-1");
+        sample.setMessage(fixture.objectMapper.readTree("{\"orderId\":\"order-1\",\"amount\":1.5}"));
+        when(cloudStorageService.getMessageSample("m-1")).thenReturn(sample);
+        loadGenerator = new LoadGeneratorService(cloudStorageService, mock(ScenarioWriteBehind.class),
+                fixture.publishService, fixture.objectMapper, 100, 10_000, 20, maxRunning);
+    }
+
+    private static LoadTestReport awaitFinished(LoadTestRun run) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (run.getStatus() == LoadTestReport.Status.RUNNING && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(run.getStatus()).as("load test finished").isNotEqualTo(LoadTestReport.Status.RUNNING);
+        return run.snapshot();
+    }
+}
@@ -0,0 +1,105 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.service.MessagePublishService.PublishedMessage;
+import com.google.pubsub.v1.PubsubMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class MessagePublishServiceTest {
+    private final RecordingTransport transport = new RecordingTransport();
+    private final PublishFixture fixture = new PublishFixture(transport);
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    void recordsAndStampsPublishesOnlyWhileATapIsOpen() {
+        String untapped = publish();
+
+        TapSession tap = new TapSession("tap-1", "orders-sub", Instant.now().plusSeconds(60), fixture.publishLedger,
+                fixture.meterRegistry.timer("reggie.tap.latency"), 10);
+        String tapped = publish();
+        assertThat(fixture.publishLedger.publishedAt(tapped)).isNotNull();
+        tap.stop();
+        String afterTap = publish();
+
+        assertThat(fixture.publishLedger.publishedAt(untapped)).isNull();
+        assertThat(fixture.publishLedger.publishedAt(afterTap)).isNull();
+        assertThat(transport.published()).extracting(published -> published.message().getAttributesMap()
+                        .containsKey(PublishLedger.PUBLISHED_AT_ATTRIBUTE))
+                .containsExactly(false, true, false);
+    }
+
+    @Test
+    void forgetsTheLedgerWhenTheLastTapCloses() {
+        TapSession first = new TapSession("tap-1", "orders-sub", Instant.now().plusSeconds(60),
+                fixture.publishLedger, fixture.meterRegistry.timer("reggie.tap.latency"), 10);
+        TapSession second = new TapSession("tap-2", "orders-sub", Instant.now().plusSeconds(60),
+                fixture.publishLedger, fixture.meterRegistry.timer("reggie.tap.latency"), 10);
+        String messageId = publish();
+
+        first.stop();
+        first.stop();
+        assertThat(fixture.publishLedger.publishedAt(messageId)).isNotNull();
+        second.stop();
+        assertThat(fixture.publishLedger.publishedAt(messageId)).isNull();
+    }
+
+    @Test
+    void stampsEveryPublishWhenConfiguredWithoutRecordingThem() {
+        PublishLedger alwaysStamp = new PublishLedger(1000, true);
+        MessagePublishService publishService = new MessagePublishService(fixture.messageRegistry,
+                fixture.pubSubPublisher, fixture.publishMetrics, fixture.encodingProperties, alwaysStamp);
+
+        String messageId = publishService.publishAsync("OrderCreated", "orders",
+                fixture.objectMapper.readTree("{\"orderId\":\"1\"}"), null, null).join().messageId();
+
+        PubsubMessage published = transport.published().getFirst().message();
+        assertThat(Long.parseLong(published.getAttributesOrThrow(PublishLedger.PUBLISHED_AT_ATTRIBUTE)))
+                .isCloseTo(System.currentTimeMillis(), within(60_000L));
+        assertThat(alwaysStamp.publishedAt(messageId)).isNull();
+    }
+
+    @Test
+    void serializesEachMessageOnceAndPublishesThoseBytes() {
+        fixture.messageRegistry.register("Counting", CountingMessage.class);
+        CountingMessage.READS.set(0);
+
+        PublishedMessage published = fixture.publishService.publishAsync("Counting", "orders",
+                fixture.objectMapper.readTree("{\"orderId\":\"1\"}"), null, null).join();
+
+        assertThat(CountingMessage.READS).hasValue(1);
+        assertThat(published.data().toStringUtf8()).isEqualTo("{\"orderId\":\"1\"}");
+        assertThat(transport.published().getFirst().message().getData()).isSameAs(published.data());
+    }
+
+    private String publish() {
+        return fixture.publishService.publishAsync("OrderCreated", "orders",
+                fixture.objectMapper.readTree("{\"orderId\":\"1\"}"), null, null).join().messageId();
+    }
+
+    /**
+     * Counts serializations through its only getter.
+     */
+    public static class CountingMessage {
+        static final AtomicInteger READS = new AtomicInteger();
+        private String orderId;
+
+        public String getOrderId() {
+            READS.incrementAndGet();
+            return orderId;
+        }
+
+        public void setOrderId(String orderId) {
+            this.orderId = orderId;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.dto.MessageSamplePage;
+import com.foundation.reggie.service.CloudStorageService.ReadResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MessageSampleIndexTest {
+    private final CloudStorageService cloudStorageService = mock(CloudStorageService.class);
+    private final MessageSampleIndex index = new MessageSampleIndex(cloudStorageService, Duration.ZERO,
+            new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    @Test
+    void searchesDoNotWaitForARefreshReadingStorage() throws Exception {
+        CountDownLatch refreshStarted = new CountDownLatch(1);
+        CountDownLatch storageAnswers = new CountDownLatch(1);
+        when(cloudStorageService.getAllMessageSamples())
+                .thenReturn(new ReadResult<>(List.of(StorageFixture.sample("order-created")), List.of()))
+                .thenAnswer(invocation -> {
+                    refreshStarted.countDown();
+                    storageAnswers.await();
+                    return new ReadResult<>(List.of(), List.of());
+                });
+        assertThat(index.search("order", null, 10, null).total()).isEqualTo(1);
+
+        index.load();
+        assertThat(refreshStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        try {
+            MessageSamplePage page = CompletableFuture.supplyAsync(() -> index.search("order", null, 10, null))
+                    .get(1, TimeUnit.SECONDS);
+
+            assertThat(page.total()).isEqualTo(1);
+        } finally {
+            storageAnswers.countDown();
+        }
+    }
+}
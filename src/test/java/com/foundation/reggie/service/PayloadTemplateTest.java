@@ -0,0 +1,97 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PayloadTemplateTest {
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    @Test
+    void rendersPlaceholdersInStringsAttributesAndOrderingKey() {
+        PayloadTemplate template = PayloadTemplate.compile(json("{\"orderId\":\"order-{{seq}}\",\"id\":\"{{uuid}}\"}"),
+                Map.of("batch", "b-{{seq}}"), "key-{{seq}}");
+
+        JsonNode rendered = template.renderMessage(7);
+
+        assertThat(rendered.get("orderId").stringValue()).isEqualTo("order-7");
+        assertThat(rendered.get("id").stringValue()).hasSize(36);
+        assertThat(template.renderAttributes(7)).containsEntry("batch", "b-7");
+        assertThat(template.renderOrderingKey(7)).isEqualTo("key-7");
+    }
+
+    @Test
+    void rendersALoneNumericPlaceholderAsANumber() {
+        PayloadTemplate template = PayloadTemplate.compile(
+                json("{\"seq\":\"{{seq}}\",\"qty\":\"{{random:1:3}}\",\"price\":\"{{random:0.5:1.50}}\"}"), null, null);
+
+        JsonNode rendered = template.renderMessage(4);
+
+        assertThat(rendered.get("seq").isNumber()).isTrue();
+        assertThat(rendered.get("seq").asLong()).isEqualTo(4);
+        assertThat(rendered.get("qty").asLong()).isBetween(1L, 3L);
+        assertThat(rendered.get("price").decimalValue().scale()).isEqualTo(2);
+    }
+
+    @Test
+    void picksOneOfTheListedValues() {
+        PayloadTemplate template = PayloadTemplate.compile(json("{\"region\":\"{{pick:eu|us}}\"}"), null, null);
+
+        assertThat(template.renderMessage(1).get("region").stringValue()).isIn("eu", "us");
+    }
+
+    @Test
+    void sharesPartsWithoutPlaceholdersBetweenRenders() {
+        PayloadTemplate template = PayloadTemplate.compile(
+                json("{\"fixed\":{\"a\":1},\"seq\":\"{{seq}}\"}"), Map.of("static", "value"), "key");
+
+        assertThat(template.renderMessage(1).get("fixed")).isSameAs(template.renderMessage(2).get("fixed"));
+        assertThat(template.renderAttributes(1)).isEqualTo(Map.of("static", "value"));
+        assertThat(template.renderOrderingKey(1)).isEqualTo("key");
+    }
+
+    @Test
+    void literalLeavesPlaceholdersUntouched() {
+        JsonNode message = json("{\"orderId\":\"order-{{seq}}\"}");
+
+        assertThat(PayloadTemplate.literal(message, null, null).renderMessage(3)).isSameAs(message);
+    }
+
+    @Test
+    void rejectsMalformedPlaceholdersWhenCompiled() {
+        assertThatThrownBy(() -> PayloadTemplate.compile(json("{\"a\":\"{{nope}}\"}"), null, null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Unknown placeholder");
+        assertThatThrownBy(() -> PayloadTemplate.compile(json("{\"a\":\"{{random:5:1}}\"}"), null, null))
+                .hasMessageContaining("Empty range");
+        assertThatThrownBy(() -> PayloadTemplate.compile(json("{\"a\":\"{{random:x:1}}\"}"), null, null))
+                .hasMessageContaining("Non-numeric bound");
+        assertThatThrownBy(() -> PayloadTemplate.compile(json("{\"a\":\"{{random:1:99999999999999999999}}\"}"),
+                null, null))
+                .hasMessageContaining("Integer bounds");
+        assertThatThrownBy(() -> PayloadTemplate.compile(json("{\"a\":\"{{random:0:" + Long.MAX_VALUE + "}}\"}"),
+                null, null))
+                .hasMessageContaining("Integer bounds");
+        assertThatThrownBy(() -> PayloadTemplate.compile(json("{}"), null, "{{pick}}"))
+                .hasMessageContaining("{{pick:a|b|...}}");
+    }
+
+    @Test
+    void rendersTheWidestIntegerRange() {
+        String range = "{{random:" + Long.MIN_VALUE + ":" + (Long.MAX_VALUE - 1) + "}}";
+        PayloadTemplate template = PayloadTemplate.compile(json("{\"a\":\"" + range + "\"}"), null, null);
+
+        assertThat(template.renderMessage(1).get("a").isIntegralNumber()).isTrue();
+    }
+
+    private JsonNode json(String content) {
+        return objectMapper.readTree(content);
+    }
+}
@@ -0,0 +1,48 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.exception.BadRequestException;
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PubSubPublisherTest {
+    private final RecordingTransport transport = new RecordingTransport() {
+        @Override
+        public boolean supportsOrdering(String topic) {
+            return !"unordered".equals(topic);
+        }
+    };
+    private final PublishFixture fixture = new PublishFixture(transport);
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    void rejectsAnOrderingKeyOnATopicWithoutOrdering() {
+        ByteString data = ByteString.copyFromUtf8("{}");
+
+        assertThatThrownBy(() -> fixture.pubSubPublisher.publishAsync("unordered", data, Map.of(), "order-1"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("unordered");
+        assertThat(transport.published()).isEmpty();
+    }
+
+    @Test
+    void publishesWithoutAKeyOrOnOrderedTopics() {
+        ByteString data = ByteString.copyFromUtf8("{}");
+
+        fixture.pubSubPublisher.publishAsync("unordered", data, Map.of(), null).join();
+        fixture.pubSubPublisher.publishAsync("ordered", data, Map.of(), "order-1").join();
+
+        assertThat(transport.published()).extracting(RecordingTransport.Published::topic)
+                .containsExactly("unordered", "ordered");
+        assertThat(transport.published().get(1).message().getOrderingKey()).isEqualTo("order-1");
+    }
+}
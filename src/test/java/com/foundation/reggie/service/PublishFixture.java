@@ -0,0 +1,62 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.config.PayloadEncodingProperties;
+import com.foundation.reggie.config.PublishLimitProperties;
+import com.foundation.reggie.message.OrderCreated;
+import com.foundation.reggie.registry.MessageRegistry;
+import com.foundation.reggie.transport.InMemoryTransport;
+import com.foundation.reggie.transport.PublishTransport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+
+/**
+ * The publish pipeline from {@link MessagePublishService} down to a {@link PublishTransport},
+ * wired by hand with {@code OrderCreated} registered and no network.
+ */
+class PublishFixture implements AutoCloseable {
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    final ObjectMapper objectMapper = JsonMapper.builder().build();
+    final MessageRegistry messageRegistry = new MessageRegistry(objectMapper);
+    final PayloadEncodingProperties encodingProperties = new PayloadEncodingProperties();
+    final PublishLimitProperties limitProperties = new PublishLimitProperties();
+    final PublishLedger publishLedger = new PublishLedger(1000, false);
+    final PublishTransport transport;
+    final PublishMetrics publishMetrics;
+    final PublishLimiter publishLimiter;
+    final PubSubPublisher pubSubPublisher;
+    final MessagePublishService publishService;
+
+    /**
+     * Acknowledges instantly through an {@link InMemoryTransport}.
+     */
+    PublishFixture() {
+        this(0.0);
+    }
+
+    /**
+     * @param errorRate fraction of publishes the {@link InMemoryTransport} fails
+     */
+    PublishFixture(double errorRate) {
+        this(new InMemoryTransport(Duration.ZERO, Duration.ZERO, errorRate));
+    }
+
+    PublishFixture(PublishTransport transport) {
+        this.transport = transport;
+        messageRegistry.register("OrderCreated", OrderCreated.class);
+        publishMetrics = new PublishMetrics(meterRegistry, 1000);
+        publishLimiter = new PublishLimiter(limitProperties, meterRegistry);
+        pubSubPublisher = new PubSubPublisher(transport, publishMetrics, publishLimiter, meterRegistry);
+        publishService = new MessagePublishService(messageRegistry, pubSubPublisher, publishMetrics,
+                encodingProperties, publishLedger);
+    }
+
+    @Override
+    public void close() {
+        if (transport instanceof InMemoryTransport inMemory) {
+            inMemory.shutdown();
+        }
+    }
+}
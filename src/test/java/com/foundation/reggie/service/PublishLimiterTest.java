@@ -0,0 +1,50 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.config.PublishLimitProperties;
+import com.foundation.reggie.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PublishLimiterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PublishLimitProperties properties = new PublishLimitProperties();
+    private final PublishLimiter limiter = new PublishLimiter(properties, meterRegistry);
+
+    @Test
+    void evictsIdleTopicsWithTheirMeters() {
+        properties.setMaxTopics(1);
+        PublishLimitProperties.TopicLimits limits = new PublishLimitProperties.TopicLimits();
+        limits.setRate(0.001);
+        limits.setBurst(1);
+        properties.getTopics().put("topic-a", limits);
+        limiter.acquire("topic-a").release();
+        assertThatThrownBy(() -> limiter.acquire("topic-a")).isInstanceOf(TooManyRequestsException.class);
+        assertThat(meterRegistry.find("reggie.publish.limiter.rejected").tag("topic", "topic-a").counter())
+                .isNotNull();
+
+        limiter.acquire("topic-b").release();
+
+        assertThat(limiter.report().topics()).containsOnlyKeys("topic-b");
+        assertThat(meterRegistry.find("reggie.publish.limiter.rejected").tag("topic", "topic-a").counter()).isNull();
+        assertThat(meterRegistry.find("reggie.publish.limiter.in-flight").tag("topic", "topic-a").gauge()).isNull();
+        assertThat(meterRegistry.find("reggie.publish.limiter.in-flight").tag("topic", "topic-b").gauge())
+                .isNotNull();
+        // Evicted state is rebuilt from configuration, so the topic starts with a full bucket
+        limiter.acquire("topic-a").release();
+    }
+
+    @Test
+    void keepsTopicsWithPublishesInFlight() {
+        properties.setMaxTopics(1);
+        PublishLimiter.Permit permit = limiter.acquire("topic-a");
+
+        limiter.acquire("topic-b").release();
+
+        assertThat(limiter.report().topics()).containsOnlyKeys("topic-a", "topic-b");
+        permit.release();
+        assertThat(limiter.report().topics().get("topic-a").inFlight()).isZero();
+    }
+}
@@ -0,0 +1,71 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.registry.PayloadEncoding;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PublishMetricsTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void recordsIntoOneMeterPerTopicAndType() {
+        PublishMetrics metrics = new PublishMetrics(meterRegistry, 10);
+
+        metrics.recordSerialize("orders", "OrderCreated", 1_000);
+        metrics.recordSerialize("orders", "OrderCreated", 3_000);
+        metrics.recordSerialize("orders", "OrderShipped", 5_000);
+
+        Timer timer = meterRegistry.get(PublishMetrics.PHASE_TIMER)
+                .tags("phase", "serialize", "topic", "orders", "className", "OrderCreated").timer();
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(timer.totalTime(TimeUnit.NANOSECONDS)).isEqualTo(4_000);
+        assertThat(meterRegistry.get(PublishMetrics.PHASE_TIMER)
+                .tags("phase", "serialize", "className", "OrderShipped").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void phaseAndLatencyTimersPublishHistograms() {
+        Map<String, Boolean> histograms = new HashMap<>();
+        meterRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                boolean histogram = Boolean.TRUE.equals(config.isPercentileHistogram());
+                histograms.merge(id.getName(), histogram, Boolean::logicalAnd);
+                return config;
+            }
+        });
+        PublishMetrics metrics = new PublishMetrics(meterRegistry, 10);
+
+        metrics.recordAck("orders", "OrderCreated", 1_000);
+
+        assertThat(histograms).containsOnly(Map.entry(PublishMetrics.PHASE_TIMER, true),
+                Map.entry(PublishMetrics.LATENCY_TIMER, true));
+    }
+
+    @Test
+    void evictedMetersKeepCountingInTheRegistry() {
+        PublishMetrics metrics = new PublishMetrics(meterRegistry, 1);
+
+        metrics.publishFailed("orders");
+        metrics.publishFailed("payments");
+        metrics.publishFailed("orders");
+        metrics.recordPayloadSize("orders", PayloadEncoding.JSON, 10);
+        metrics.recordPayloadSize("orders", PayloadEncoding.SMILE, 20);
+        metrics.recordPayloadSize("orders", PayloadEncoding.JSON, 30);
+
+        assertThat(meterRegistry.get(PublishMetrics.PUBLISH_ERRORS).tag("topic", "orders").counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get(PublishMetrics.PAYLOAD_SIZE).tag("encoding", PayloadEncoding.JSON.attributeValue())
+                .summary().totalAmount()).isEqualTo(40);
+    }
+}
@@ -0,0 +1,33 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.transport.PublishTransport;
+import com.google.pubsub.v1.PubsubMessage;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Acknowledges every message immediately and keeps it for assertions.
+ */
+class RecordingTransport implements PublishTransport {
+    private final List<Published> published = new CopyOnWriteArrayList<>();
+    private final AtomicLong nextMessageId = new AtomicLong();
+
+    @Override
+    public CompletableFuture<String> publish(String topic, PubsubMessage message) {
+        published.add(new Published(topic, message));
+        return CompletableFuture.completedFuture(Long.toString(nextMessageId.incrementAndGet()));
+    }
+
+    List<Published> published() {
+        return published;
+    }
+
+    record Published(String topic, PubsubMessage message) {
+        String data() {
+            return message.getData().toStringUtf8();
+        }
+    }
+}
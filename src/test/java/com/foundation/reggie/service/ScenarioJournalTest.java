@@ -0,0 +1,228 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.exception.BadRequestException;
+import com.foundation.reggie.exception.PreconditionFailedException;
+import com.foundation.reggie.model.Scenario;
+import com.foundation.reggie.model.ScenarioMessage;
+import com.foundation.reggie.model.ScenarioOperation;
+import com.foundation.reggie.service.CloudStorageService.BlobListing;
+import com.foundation.reggie.service.CloudStorageService.Versioned;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static com.foundation.reggie.service.StorageFixture.scenario;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScenarioJournalTest {
+    private static final String SNAPSHOT = "user-1/scenarios/s-1.json";
+    private static final String JOURNAL = "user-1/journals/s-1/";
+
+    private StorageFixture fixture = new StorageFixture();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        fixture.close();
+    }
+
+    @Test
+    void patchesAreReplayedByEveryReadWithoutWriting() throws IOException {
+        fixture.service.upsertScenario("user-1", scenario("s-1", "one", "m-1"));
+        Versioned<Scenario> patched = fixture.service.patchScenario("user-1", "s-1", List.of(rename("renamed")), null);
+        BlobListing before = fixture.service.listScenarios("user-1");
+        fixture.service.patchScenario("user-1", "s-1", List.of(new ScenarioOperation.RemoveMessage("m-1")), null);
+        fixture.fakeStorage.resetCalls();
+
+        Versioned<Scenario> read = fixture.service.getScenario("user-1", "s-1", etag -> false);
+        assertThat(read.value().getName()).isEqualTo("renamed");
+        assertThat(read.value().getMessages()).isEmpty();
+        assertThat(read.etag()).isNotEqualTo(patched.etag());
+        assertThat(fixture.service.getAllScenarios("user-1").items()).extracting(Scenario::getName)
+                .containsExactly("renamed");
+
+        BlobListing listing = fixture.service.listScenarios("user-1");
+        assertThat(listing.etag()).isNotEqualTo(before.etag());
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        assertThat(fixture.service.streamListing(listing, streamed)).isEmpty();
+        assertThat(fixture.objectMapper.readTree(streamed.toByteArray()).get(0).get("name").stringValue())
+                .isEqualTo("renamed");
+
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        fixture.service.exportArchive("user-1/", exported);
+        JsonNode record = fixture.objectMapper.readTree(exported.toString(StandardCharsets.UTF_8).lines()
+                .findFirst().orElseThrow());
+        assertThat(record.get("data").get("name").stringValue()).isEqualTo("renamed");
+
+        assertThat(fixture.fakeStorage.calls("create") + fixture.fakeStorage.calls("update")).isZero();
+        assertThat(fixture.fakeStorage.names(JOURNAL)).hasSize(2);
+    }
+
+    @Test
+    void compactionFoldsTheJournalIntoTheSnapshot() throws InterruptedException {
+        fixture.close();
+        fixture = new StorageFixture(Duration.ofSeconds(5), 2);
+        fixture.service.upsertScenario("user-1", scenario("s-1", "one"));
+
+        fixture.service.patchScenario("user-1", "s-1", List.of(rename("two")), null);
+        Versioned<Scenario> patched = fixture.service.patchScenario("user-1", "s-1", List.of(rename("three")), null);
+        await(() -> fixture.fakeStorage.names(JOURNAL).isEmpty());
+
+        assertThat(fixture.fakeStorage.metadata(SNAPSHOT))
+                .containsEntry("reggie-journal-seq", "2")
+                .containsEntry("reggie-journal-head", "2");
+        Versioned<Scenario> read = fixture.service.getScenario("user-1", "s-1", etag -> false);
+        assertThat(read.value().getName()).isEqualTo("three");
+        assertThat(read.etag()).isNotEqualTo(patched.etag());
+
+        fixture.service.patchScenario("user-1", "s-1", List.of(rename("four")), null);
+        assertThat(fixture.fakeStorage.names(JOURNAL)).containsExactly(JOURNAL + "000000000003.json");
+        assertThat(fixture.service.getScenario("user-1", "s-1").getName()).isEqualTo("four");
+    }
+
+    @Test
+    void aPatchPublishedDuringCompactionIsKept() throws InterruptedException {
+        fixture.close();
+        fixture = new StorageFixture(Duration.ofSeconds(5), 2);
+        fixture.service.upsertScenario("user-1", scenario("s-1", "one"));
+        fixture.service.patchScenario("user-1", "s-1", List.of(rename("two")), null);
+        AtomicBoolean raced = new AtomicBoolean();
+        // The first write is this patch publishing its entry; the next is the compaction it starts
+        fixture.fakeStorage.beforeWrite(SNAPSHOT, () -> fixture.fakeStorage.beforeWrite(SNAPSHOT, () -> {
+            fixture.service.patchScenario("user-1", "s-1", List.of(rename("four")), null);
+            raced.set(true);
+        }));
+
+        fixture.service.patchScenario("user-1", "s-1", List.of(rename("three")), null);
+        await(raced::get);
+        fixture.fakeStorage.awaitWrites();
+
+        // The compaction backed off instead of folding only two entries; the raced patch may start another
+        assertThat(fixture.fakeStorage.metadata(SNAPSHOT)).containsEntry("reggie-journal-head", "3");
+        assertThat(fixture.fakeStorage.metadata(SNAPSHOT).get("reggie-journal-seq")).isIn(null, "3");
+        assertThat(fixture.service.getAllScenarios("user-1").items()).extracting(Scenario::getName)
+                .containsExactly("four");
+        assertThat(fixture.service.getScenario("user-1", "s-1").getName()).isEqualTo("four");
+    }
+
+    @Test
+    void anUpsertSupersedesTheJournalWithoutListingIt() {
+        fixture.service.upsertScenario("user-1", scenario("s-1", "one"));
+        Versioned<Scenario> patched = fixture.service.patchScenario("user-1", "s-1", List.of(rename("two")), null);
+        fixture.fakeStorage.resetCalls();
+
+        fixture.service.upsertScenario("user-1", scenario("s-1", "replaced"), patched.etag());
+
+        assertThat(fixture.fakeStorage.calls("list")).isZero();
+        assertThat(fixture.fakeStorage.names(JOURNAL)).isEmpty();
+        assertThat(fixture.fakeStorage.metadata(SNAPSHOT)).containsEntry("reggie-journal-seq", "1");
+        assertThat(fixture.service.getScenario("user-1", "s-1").getName()).isEqualTo("replaced");
+        fixture.service.patchScenario("user-1", "s-1", List.of(rename("three")), null);
+        assertThat(fixture.fakeStorage.names(JOURNAL)).containsExactly(JOURNAL + "000000000002.json");
+    }
+
+    @Test
+    void aPatchIsValidatedAgainIfTheScenarioIsReplacedBeforeItIsPublished() {
+        fixture.service.upsertScenario("user-1", scenario("s-1", "one", "m-1"));
+        fixture.fakeStorage.beforeWrite(SNAPSHOT,
+                () -> fixture.service.upsertScenario("user-1", scenario("s-1", "replaced", "m-2")));
+
+        Versioned<Scenario> patched = fixture.service.patchScenario("user-1", "s-1", List.of(rename("renamed")), null);
+
+        assertThat(patched.value().getName()).isEqualTo("renamed");
+        assertThat(patched.value().getMessages()).extracting(ScenarioMessage::getId).containsExactly("m-2");
+        assertThat(fixture.fakeStorage.names(JOURNAL)).containsExactly(JOURNAL + "000000000001.json");
+        assertThat(fixture.service.getScenario("user-1", "s-1", etag -> false)).isEqualTo(patched);
+    }
+
+    @Test
+    void aPatchThatNoLongerAppliesToTheReplacedScenarioIsRejected() {
+        fixture.service.upsertScenario("user-1", scenario("s-1", "one", "m-1"));
+        fixture.fakeStorage.beforeWrite(SNAPSHOT,
+                () -> fixture.service.upsertScenario("user-1", scenario("s-1", "replaced", "m-2")));
+
+        assertThatThrownBy(() -> fixture.service.patchScenario("user-1", "s-1",
+                List.of(new ScenarioOperation.RemoveMessage("m-1")), null))
+                .isInstanceOf(BadRequestException.class);
+
+        assertThat(fixture.fakeStorage.names(JOURNAL)).isEmpty();
+        assertThat(fixture.service.getScenario("user-1", "s-1").getMessages()).extracting(ScenarioMessage::getId)
+                .containsExactly("m-2");
+    }
+
+    @Test
+    void aPatchWithIfMatchFailsIfTheScenarioChangesBeforeItIsPublished() {
+        String etag = fixture.service.upsertScenario("user-1", scenario("s-1", "one"), null).etag();
+        assertThatThrownBy(() -> fixture.service.patchScenario("user-1", "s-1", List.of(rename("two")), "\"1.1\""))
+                .isInstanceOf(PreconditionFailedException.class);
+        fixture.fakeStorage.beforeWrite(SNAPSHOT,
+                () -> fixture.service.upsertScenario("user-1", scenario("s-1", "replaced")));
+
+        assertThatThrownBy(() -> fixture.service.patchScenario("user-1", "s-1", List.of(rename("two")), etag))
+                .isInstanceOf(PreconditionFailedException.class);
+
+        assertThat(fixture.fakeStorage.names(JOURNAL)).isEmpty();
+        assertThat(fixture.service.getScenario("user-1", "s-1").getName()).isEqualTo("replaced");
+    }
+
+    @Test
+    void anAbandonedEntryIsFencedOffAndDeleted() {
+        fixture.service.upsertScenario("user-1", scenario("s-1", "one", "m-1"));
+        Blob snapshot = fixture.fakeStorage.storage().get(BlobId.of(StorageFixture.BUCKET, SNAPSHOT));
+        // Validated against the current snapshot by a writer that stopped before publishing it
+        fixture.fakeStorage.put(JOURNAL + "000000000001.json", ("""
+                {"seq":1,"operations":[{"op":"remove","messageId":"m-1"}],
+                 "snapshotGeneration":%d,"snapshotMetageneration":%d}
+                """.formatted(snapshot.getGeneration(), snapshot.getMetageneration()))
+                .getBytes(StandardCharsets.UTF_8));
+
+        Versioned<Scenario> patched = fixture.service.patchScenario("user-1", "s-1", List.of(rename("mine")), null);
+
+        assertThat(patched.value().getName()).isEqualTo("mine");
+        assertThat(patched.value().getMessages()).hasSize(1);
+        assertThat(fixture.fakeStorage.metadata(SNAPSHOT))
+                .containsEntry("reggie-journal-head", "1")
+                .containsKey("reggie-journal-fence");
+        assertThat(fixture.service.getScenario("user-1", "s-1", etag -> false)).isEqualTo(patched);
+        assertThat(fixture.meterRegistry.counter("reggie.storage.journal.skipped").count()).isZero();
+    }
+
+    @Test
+    void anEntryValidatedAgainstAnotherVersionIsDeletedWithoutFencing() {
+        fixture.service.upsertScenario("user-1", scenario("s-1", "one", "m-1"));
+        // Written before entries recorded their snapshot version
+        fixture.fakeStorage.put(JOURNAL + "000000000001.json", """
+                {"seq":1,"operations":[{"op":"remove","messageId":"m-9"},{"op":"rename","name":"orphan"}]}
+                """.getBytes(StandardCharsets.UTF_8));
+
+        Versioned<Scenario> patched = fixture.service.patchScenario("user-1", "s-1", List.of(rename("mine")), null);
+
+        assertThat(patched.value().getName()).isEqualTo("mine");
+        assertThat(fixture.fakeStorage.metadata(SNAPSHOT))
+                .containsEntry("reggie-journal-head", "1")
+                .doesNotContainKey("reggie-journal-fence");
+        assertThat(fixture.service.getScenario("user-1", "s-1").getName()).isEqualTo("mine");
+    }
+
+    private static ScenarioOperation rename(String name) {
+        return new ScenarioOperation.Rename(name, null);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).as("condition met").isTrue();
+    }
+}
@@ -0,0 +1,91 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.dto.ScenarioSummaryPage;
+import com.foundation.reggie.model.ScenarioSummary;
+import com.foundation.reggie.service.CloudStorageService.Versioned;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.StorageException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.foundation.reggie.service.StorageFixture.scenario;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScenarioManifestsTest {
+    private static final String MANIFEST = "user-1/scenario-manifest.json";
+
+    private final StorageFixture fixture = new StorageFixture();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        fixture.close();
+    }
+
+    @Test
+    void summariesAreServedFromAStoredManifest() {
+        fixture.service.upsertScenario("user-1", scenario("s-2", "two", "m-1", "m-2"));
+        fixture.service.upsertScenario("user-1", scenario("s-1", "one"));
+
+        Versioned<ScenarioSummaryPage> page = fixture.service.getScenarioSummaries("user-1", null, 10, etag -> false);
+
+        assertThat(page.value().items()).extracting(ScenarioSummary::getId).containsExactly("s-1", "s-2");
+        assertThat(page.value().items().get(1).getMessageCount()).isEqualTo(2);
+        assertThat(page.etag()).isNotNull();
+        assertThat(fixture.service.getScenarioSummaries("user-1", null, 10, page.etag()::equals)).isNull();
+    }
+
+    @Test
+    void concurrentManifestUpdatesAreBothKept() {
+        fixture.service.upsertScenario("user-1", scenario("s-1", "one"));
+        // Another upsert lands between reading the manifest and writing it back
+        fixture.fakeStorage.beforeWrite(MANIFEST,
+                () -> fixture.service.upsertScenario("user-1", scenario("s-3", "three")));
+
+        fixture.service.upsertScenario("user-1", scenario("s-2", "two"));
+
+        assertThat(fixture.service.getScenarioSummaries("user-1", null, 10).items())
+                .extracting(ScenarioSummary::getId).containsExactly("s-1", "s-2", "s-3");
+    }
+
+    @Test
+    void aManifestIsNotStoredWhileScenariosCannotBeRead() {
+        fixture.service.upsertScenario("user-1", scenario("s-1", "one"));
+        fixture.fakeStorage.storage().delete(BlobId.of(StorageFixture.BUCKET, MANIFEST));
+        fixture.fakeStorage.put("user-1/scenarios/bad.json", "{not json".getBytes(StandardCharsets.UTF_8));
+
+        Versioned<ScenarioSummaryPage> partial = fixture.service.getScenarioSummaries("user-1", null, 10,
+                etag -> false);
+
+        assertThat(partial.value().items()).extracting(ScenarioSummary::getId).containsExactly("s-1");
+        assertThat(partial.etag()).isNull();
+        assertThat(fixture.fakeStorage.exists(MANIFEST)).isFalse();
+
+        // Upserts leave it missing too, rather than storing a manifest without "bad"
+        fixture.service.upsertScenario("user-1", scenario("s-2", "two"));
+        assertThat(fixture.fakeStorage.exists(MANIFEST)).isFalse();
+
+        fixture.service.upsertScenario("user-1", scenario("bad", "fixed"));
+        assertThat(fixture.service.getScenarioSummaries("user-1", null, 10, etag -> false).etag()).isNotNull();
+        assertThat(fixture.service.getScenarioSummaries("user-1", null, 10).items())
+                .extracting(ScenarioSummary::getId).containsExactly("bad", "s-1", "s-2");
+    }
+
+    @Test
+    void aFailedManifestUpdateDoesNotFailTheUpsert() {
+        fixture.service.upsertScenario("user-1", scenario("s-1", "one"));
+        fixture.fakeStorage.beforeWrite(MANIFEST, () -> {
+            throw new StorageException(503, "Simulated outage");
+        });
+
+        fixture.service.upsertScenario("user-1", scenario("s-2", "two"));
+
+        assertThat(fixture.fakeStorage.exists("user-1/scenarios/s-2.json")).isTrue();
+        assertThat(fixture.fakeStorage.exists(MANIFEST)).isFalse();
+        assertThat(fixture.meterRegistry.counter("reggie.storage.manifest.repairs").count()).isEqualTo(1);
+        assertThat(fixture.service.getScenarioSummaries("user-1", null, 10).items())
+                .extracting(ScenarioSummary::getId).containsExactly("s-1", "s-2");
+        assertThat(fixture.fakeStorage.exists(MANIFEST)).isTrue();
+    }
+}
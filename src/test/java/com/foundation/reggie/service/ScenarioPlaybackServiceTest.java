@@ -0,0 +1,185 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.config.PublishLimitProperties;
+import com.foundation.reggie.dto.MessageResult;
+import com.foundation.reggie.dto.PlaybackSnapshot;
+import com.foundation.reggie.model.PlaybackStatus;
+import com.foundation.reggie.model.PubSubPayload;
+import com.foundation.reggie.model.Scenario;
+import com.foundation.reggie.model.ScenarioMessage;
+import com.google.pubsub.v1.PubsubMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ScenarioPlaybackServiceTest {
+    private final ScenarioWriteBehind scenarioStore = mock(ScenarioWriteBehind.class);
+    private PublishFixture fixture;
+    private ScenarioPlaybackService playback;
+
+    @AfterEach
+    void tearDown() {
+        playback.shutdown();
+        fixture.close();
+    }
+
+    @Test
+    void playsEveryColumnAndRepetition() throws InterruptedException {
+        RecordingTransport transport = new RecordingTransport();
+        start(new PublishFixture(transport));
+        stored(scenario(message("a", 1, "order-a", false, 3), message("b", 2, "order-b", false, 1)));
+
+        PlaybackSnapshot snapshot = awaitFinished(playback.play("user-1", "scenario-1", 0L));
+
+        assertThat(snapshot.status()).isEqualTo(PlaybackStatus.COMPLETED);
+        assertThat(snapshot.completedColumns()).isEqualTo(2);
+        assertThat(snapshot.publishedMessages()).isEqualTo(4);
+        assertThat(snapshot.messageResults()).containsOnlyKeys("a", "b");
+        assertThat(transport.published()).hasSize(4);
+        // Column 2 starts only after column 1 has drained
+        assertThat(transport.published().getLast().data()).contains("order-b");
+    }
+
+    @Test
+    void rendersTemplatesPerRepetition() throws InterruptedException {
+        RecordingTransport transport = new RecordingTransport();
+        start(new PublishFixture(transport));
+        stored(scenario(message("a", 1, "order-{{seq}}", true, 3)));
+
+        assertThat(awaitFinished(playback.play("user-1", "scenario-1", 0L)).status())
+                .isEqualTo(PlaybackStatus.COMPLETED);
+
+        assertThat(transport.published()).extracting(RecordingTransport.Published::data)
+                .anySatisfy(data -> assertThat(data).contains("\"orderId\":\"order-1\""))
+                .anySatisfy(data -> assertThat(data).contains("\"orderId\":\"order-3\""));
+    }
+
+    @Test
+    void failsTheRunWhenAColumnHasErrors() throws InterruptedException {
+        start(new PublishFixture(1.0));
+        stored(scenario(message("a", 1, "order-a", false, 2), message("b", 2, "order-b", false, 1)));
+
+        PlaybackSnapshot snapshot = awaitFinished(playback.play("user-1", "scenario-1", 0L));
+
+        assertThat(snapshot.status()).isEqualTo(PlaybackStatus.FAILED);
+        assertThat(snapshot.completedColumns()).isZero();
+        assertThat(snapshot.failedMessages()).isEqualTo(2);
+        assertThat(snapshot.messageResults().get("a").status()).isEqualTo(MessageResult.Status.error);
+        assertThat(snapshot.messageResults().get("a").error()).contains("(2 of 2 failed)");
+        assertThat(snapshot.messageResults()).doesNotContainKey("b");
+    }
+
+    @Test
+    void reportsMessagesCutOffByACancelAsCancelled() throws InterruptedException {
+        List<CompletableFuture<String>> held = new CopyOnWriteArrayList<>();
+        RecordingTransport transport = new RecordingTransport() {
+            @Override
+            public CompletableFuture<String> publish(String topic, PubsubMessage message) {
+                CompletableFuture<String> ack = super.publish(topic, message);
+                if (published().size() == 1) {
+                    return ack;
+                }
+                CompletableFuture<String> pending = new CompletableFuture<>();
+                held.add(pending);
+                return pending;
+            }
+        };
+        start(new PublishFixture(transport));
+        stored(scenario(message("a", 1, "order-a", false, 4), message("b", 1, "order-b", false, 1)));
+
+        PlaybackRun run = playback.play("user-1", "scenario-1", 0L);
+        // Two permits: repetitions 2 and 3 hold them, so repetition 4 waits
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (held.size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        run.cancel();
+        held.forEach(ack -> ack.complete("held"));
+        while (run.snapshot().messageResults().size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        PlaybackSnapshot snapshot = run.snapshot();
+
+        assertThat(snapshot.status()).isEqualTo(PlaybackStatus.CANCELLED);
+        assertThat(transport.published()).hasSize(3);
+        assertThat(snapshot.messageResults().get("a").status()).isEqualTo(MessageResult.Status.cancelled);
+        assertThat(snapshot.messageResults().get("a").error()).isEqualTo("Cancelled after publishing 3 of 4");
+        assertThat(snapshot.messageResults().get("b").status()).isEqualTo(MessageResult.Status.cancelled);
+    }
+
+    @Test
+    void waitsOutRateLimitRejectionsInsteadOfFailing() throws InterruptedException {
+        RecordingTransport transport = new RecordingTransport();
+        start(new PublishFixture(transport));
+        PublishLimitProperties.TopicLimits limits = new PublishLimitProperties.TopicLimits();
+        limits.setRate(100.0);
+        limits.setBurst(1);
+        fixture.limitProperties.getTopics().put("orders", limits);
+        stored(scenario(message("a", 1, "order-a", false, 5)));
+
+        PlaybackSnapshot snapshot = awaitFinished(playback.play("user-1", "scenario-1", 0L));
+
+        assertThat(snapshot.status()).isEqualTo(PlaybackStatus.COMPLETED);
+        assertThat(snapshot.publishedMessages()).isEqualTo(5);
+        assertThat(snapshot.failedMessages()).isZero();
+        assertThat(transport.published()).hasSize(5);
+    }
+
+    @Test
+    void rejectsABadPlaceholderBeforeStarting() {
+        start(new PublishFixture());
+        stored(scenario(message("a", 1, "{{nope}}", true, 1)));
+
+        assertThatThrownBy(() -> playback.play("user-1", "scenario-1", 0L))
+                .hasMessageContaining("Unknown placeholder");
+    }
+
+    private void start(PublishFixture publishFixture) {
+        fixture = publishFixture;
+        playback = new ScenarioPlaybackService(scenarioStore, fixture.publishService, fixture.objectMapper, 0, 10, 2);
+    }
+
+    private void stored(Scenario scenario) {
+        when(scenarioStore.getScenario("user-1", scenario.getId())).thenReturn(scenario);
+    }
+
+    static PlaybackSnapshot awaitFinished(PlaybackRun run) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!run.getStatus().isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(run.getStatus().isFinished()).as("playback finished").isTrue();
+        return run.snapshot();
+    }
+
+    private static Scenario scenario(ScenarioMessage... messages) {
+        Scenario scenario = new Scenario();
+        scenario.setId("scenario-1");
+        scenario.setName("Scenario");
+        scenario.setMessages(List.of(messages));
+        return scenario;
+    }
+
+    private static ScenarioMessage message(String id, int column, String orderId, boolean template, int repeat) {
+        PubSubPayload payload = new PubSubPayload();
+        payload.setClassName("OrderCreated");
+        payload.setTopic("orders");
+        payload.setMessage(Map.of("orderId", orderId, "customerId", "customer-1", "amount", 10.5));
+        ScenarioMessage message = new ScenarioMessage();
+        message.setId(id);
+        message.setColumn(column);
+        message.setPayload(payload);
+        message.setTemplate(template);
+        message.setRepeat(repeat);
+        return message;
+    }
+}
@@ -0,0 +1,114 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.exception.StorageException;
+import com.foundation.reggie.model.Scenario;
+import com.foundation.reggie.service.CloudStorageService.Versioned;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ScenarioWriteBehindTest {
+    private final CloudStorageService cloudStorageService = mock(CloudStorageService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ScenarioWriteBehind writeBehind;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writeBehind.shutdown();
+    }
+
+    @Test
+    void coalescesABurstIntoOneWrite() {
+        writeBehind = new ScenarioWriteBehind(cloudStorageService, true, Duration.ofHours(1), 100, 3, meterRegistry);
+        Scenario first = scenario("s-1", "first");
+        Scenario second = scenario("s-1", "second");
+
+        assertThat(writeBehind.upsertScenario("user-1", first, null).etag()).isNull();
+        writeBehind.upsertScenario("user-1", second, null);
+
+        assertThat(writeBehind.getScenario("user-1", "s-1")).isSameAs(second);
+        verify(cloudStorageService, never()).upsertScenario(any(), any(), any());
+
+        // Listings flush the user's buffered scenarios first
+        writeBehind.listScenarios("user-1");
+        verify(cloudStorageService, times(1)).upsertScenario(eq("user-1"), any(), isNull());
+        verify(cloudStorageService).upsertScenario("user-1", second, null);
+        assertThat(meterRegistry.counter("reggie.storage.write-behind.coalesced").count()).isEqualTo(1);
+    }
+
+    @Test
+    void conditionalUpsertWritesTheBufferedVersionFirst() {
+        writeBehind = new ScenarioWriteBehind(cloudStorageService, true, Duration.ofHours(1), 100, 3, meterRegistry);
+        Scenario buffered = scenario("s-1", "buffered");
+        Scenario conditional = scenario("s-1", "conditional");
+        when(cloudStorageService.upsertScenario("user-1", conditional, "\"2.1\""))
+                .thenReturn(new Versioned<>(conditional, "\"3.1\""));
+
+        writeBehind.upsertScenario("user-1", buffered, null);
+        Versioned<Scenario> written = writeBehind.upsertScenario("user-1", conditional, "\"2.1\"");
+
+        assertThat(written.etag()).isEqualTo("\"3.1\"");
+        InOrder order = inOrder(cloudStorageService);
+        order.verify(cloudStorageService).upsertScenario("user-1", buffered, null);
+        order.verify(cloudStorageService).upsertScenario("user-1", conditional, "\"2.1\"");
+    }
+
+    @Test
+    void keepsTheBufferedVersionWhenAFlushFails() {
+        writeBehind = new ScenarioWriteBehind(cloudStorageService, true, Duration.ofHours(1), 100, 3, meterRegistry);
+        Scenario buffered = scenario("s-1", "buffered");
+        when(cloudStorageService.upsertScenario("user-1", buffered, null))
+                .thenThrow(new StorageException("unavailable", null))
+                .thenReturn(new Versioned<>(buffered, "\"1.1\""));
+
+        writeBehind.upsertScenario("user-1", buffered, null);
+
+        assertThatThrownBy(() -> writeBehind.listScenarios("user-1")).isInstanceOf(StorageException.class);
+        assertThat(writeBehind.getScenario("user-1", "s-1")).isSameAs(buffered);
+        writeBehind.listScenarios("user-1");
+        verify(cloudStorageService, times(2)).upsertScenario("user-1", buffered, null);
+    }
+
+    @Test
+    void writesThroughWhenDisabled() {
+        writeBehind = new ScenarioWriteBehind(cloudStorageService, false, Duration.ofHours(1), 100, 3, meterRegistry);
+        Scenario scenario = scenario("s-1", "direct");
+        when(cloudStorageService.upsertScenario("user-1", scenario, null))
+                .thenReturn(new Versioned<>(scenario, "\"1.1\""));
+
+        assertThat(writeBehind.upsertScenario("user-1", scenario, null).etag()).isEqualTo("\"1.1\"");
+    }
+
+    @Test
+    void flushesPendingScenariosOnShutdown() throws InterruptedException {
+        writeBehind = new ScenarioWriteBehind(cloudStorageService, true, Duration.ofHours(1), 100, 3, meterRegistry);
+        Scenario scenario = scenario("s-1", "pending");
+        writeBehind.upsertScenario("user-1", scenario, null);
+
+        writeBehind.shutdown();
+
+        verify(cloudStorageService).upsertScenario("user-1", scenario, null);
+    }
+
+    private static Scenario scenario(String id, String name) {
+        Scenario scenario = new Scenario();
+        scenario.setId(id);
+        scenario.setName(name);
+        return scenario;
+    }
+}
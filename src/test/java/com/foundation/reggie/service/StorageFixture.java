@@ -0,0 +1,71 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.model.MessageSample;
+import com.foundation.reggie.model.Scenario;
+import com.foundation.reggie.model.ScenarioMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A {@link CloudStorageService} over {@link FakeStorage}, compressing anything from 64 bytes
+ * so gzip round trips are exercised too.
+ */
+class StorageFixture implements AutoCloseable {
+    static final String BUCKET = "reggie-test";
+
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    final ObjectMapper objectMapper = JsonMapper.builder().build();
+    final FakeStorage fakeStorage = new FakeStorage(BUCKET);
+    final List<Object> events = new CopyOnWriteArrayList<>();
+    final BlobCache blobCache;
+    final BlobStore blobStore;
+    final ScenarioJournal journal;
+    final CloudStorageService service;
+
+    StorageFixture() {
+        this(Duration.ofSeconds(5), 100);
+    }
+
+    StorageFixture(Duration listingTtl, int journalCompactEntries) {
+        blobCache = new BlobCache(true, 1 << 20, listingTtl, 100, meterRegistry);
+        blobStore = new BlobStore(fakeStorage.storage(), BUCKET, objectMapper, blobCache, 4, true, 64, meterRegistry);
+        journal = new ScenarioJournal(blobStore, objectMapper, 65536, journalCompactEntries, meterRegistry);
+        service = new CloudStorageService(blobStore, journal, new ScenarioManifests(blobStore, journal, meterRegistry),
+                objectMapper, events::add);
+    }
+
+    static Scenario scenario(String id, String name, String... messageIds) {
+        Scenario scenario = new Scenario();
+        scenario.setId(id);
+        scenario.setName(name);
+        List<ScenarioMessage> messages = new ArrayList<>();
+        for (String messageId : messageIds) {
+            ScenarioMessage message = new ScenarioMessage();
+            message.setId(messageId);
+            message.setColumn(1);
+            messages.add(message);
+        }
+        scenario.setMessages(messages);
+        return scenario;
+    }
+
+    static MessageSample sample(String messageId) {
+        MessageSample sample = new MessageSample();
+        sample.setMessageId(messageId);
+        sample.setClassName("OrderCreated");
+        sample.setTopic("orders-topic");
+        return sample;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        journal.shutdown();
+        blobStore.shutdown();
+    }
+}
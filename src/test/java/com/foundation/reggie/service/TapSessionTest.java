@@ -0,0 +1,73 @@
+package com.foundation.reggie.service;
+
+import com.foundation.reggie.dto.TapSummary;
+import com.google.cloud.pubsub.v1.AckReplyConsumer;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class TapSessionTest {
+    private final PublishLedger ledger = new PublishLedger(100, false);
+    private final Timer latencyTimer = new SimpleMeterRegistry().timer("reggie.tap.latency");
+    private final TapSession tap = new TapSession("tap-1", "orders-sub", Instant.now().plusSeconds(60), ledger,
+            latencyTimer, 10);
+
+    @Test
+    void correlatesByLedgerThenByAttribute() {
+        AckReplyConsumer consumer = mock(AckReplyConsumer.class);
+        ledger.record("m-1", PublishLedger.nowMicros() - 2_000);
+        long publishedAtMillis = System.currentTimeMillis() - 5;
+
+        tap.receive(message("m-1", null), consumer);
+        tap.receive(message("m-2", Long.toString(publishedAtMillis)), consumer);
+        tap.receive(message("m-3", null), consumer);
+        tap.receive(message("m-4", "not-a-number"), consumer);
+
+        verify(consumer, times(4)).ack();
+        TapSummary summary = tap.summary();
+        assertThat(summary.received()).isEqualTo(4);
+        assertThat(summary.correlated()).isEqualTo(2);
+        assertThat(summary.uncorrelated()).isEqualTo(2);
+        assertThat(summary.latencyMs().count()).isEqualTo(2);
+        assertThat(summary.latencyMs().max()).isGreaterThan(1.0);
+        assertThat(latencyTimer.count()).isEqualTo(2);
+    }
+
+    @Test
+    void keepsOnlyTheMostRecentPublishesInTheLedger() {
+        for (int i = 0; i < 150; i++) {
+            ledger.record("m-" + i, i);
+        }
+
+        assertThat(ledger.publishedAt("m-49")).isNull();
+        assertThat(ledger.publishedAt("m-50")).isEqualTo(50L);
+        assertThat(ledger.publishedAt("m-149")).isEqualTo(149L);
+    }
+
+    @Test
+    void stopsOnce() {
+        tap.fail(new IllegalStateException("subscription gone"));
+        tap.stop();
+
+        TapSummary summary = tap.summary();
+        assertThat(summary.status()).isEqualTo(TapSummary.Status.FAILED);
+        assertThat(summary.error()).isEqualTo("subscription gone");
+        assertThat(tap.isRunning()).isFalse();
+    }
+
+    private static PubsubMessage message(String messageId, String publishedAt) {
+        PubsubMessage.Builder message = PubsubMessage.newBuilder().setMessageId(messageId);
+        if (publishedAt != null) {
+            message.putAttributes(PublishLedger.PUBLISHED_AT_ATTRIBUTE, publishedAt);
+        }
+        return message.build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.foundation.reggie.transport;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderingGapsTest {
+    private final Counter gaps = Counter.builder("reggie.pubsub.ordering.gaps").register(new SimpleMeterRegistry());
+
+    @Test
+    void countsTheFirstDeliveryAfterAFailureOnce() {
+        OrderingGaps orderingGaps = new OrderingGaps(10, gaps);
+
+        assertThat(orderingGaps.delivered("orders", "k1")).isFalse();
+        orderingGaps.failed("orders", "k1");
+        orderingGaps.failed("orders", "k1");
+
+        assertThat(orderingGaps.delivered("orders", "k2")).isFalse();
+        assertThat(orderingGaps.delivered("payments", "k1")).isFalse();
+        assertThat(orderingGaps.delivered("orders", "k1")).isTrue();
+        assertThat(orderingGaps.delivered("orders", "k1")).isFalse();
+        assertThat(gaps.count()).isEqualTo(1);
+    }
+
+    @Test
+    void tracksAtMostTheConfiguredNumberOfKeys() {
+        OrderingGaps orderingGaps = new OrderingGaps(1, gaps);
+
+        orderingGaps.failed("orders", "k1");
+        orderingGaps.failed("orders", "k2");
+
+        assertThat(orderingGaps.delivered("orders", "k2")).isFalse();
+        assertThat(orderingGaps.delivered("orders", "k1")).isTrue();
+    }
+}
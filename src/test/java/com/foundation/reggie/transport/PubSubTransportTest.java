@@ -0,0 +1,175 @@
+package com.foundation.reggie.transport;
+
+import com.foundation.reggie.config.PubSubProperties;
+import com.foundation.reggie.config.PubSubProperties.TopicSettings;
+import com.google.api.gax.batching.BatchingSettings;
+import com.google.api.gax.batching.FlowController;
+import com.google.api.gax.core.FixedExecutorProvider;
+import com.google.api.gax.core.NoCredentialsProvider;
+import com.google.api.gax.grpc.GrpcTransportChannel;
+import com.google.api.gax.rpc.FixedTransportChannelProvider;
+import com.google.pubsub.v1.PublishRequest;
+import com.google.pubsub.v1.PublishResponse;
+import com.google.pubsub.v1.PubsubMessage;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+import io.grpc.Server;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PubSubTransportTest {
+    private static final MethodDescriptor<PublishRequest, PublishResponse> PUBLISH =
+            MethodDescriptor.<PublishRequest, PublishResponse>newBuilder()
+                    .setType(MethodDescriptor.MethodType.UNARY)
+                    .setFullMethodName(MethodDescriptor.generateFullMethodName("google.pubsub.v1.Publisher", "Publish"))
+                    .setRequestMarshaller(ProtoUtils.marshaller(PublishRequest.getDefaultInstance()))
+                    .setResponseMarshaller(ProtoUtils.marshaller(PublishResponse.getDefaultInstance()))
+                    .build();
+
+    private final PubSubProperties properties = new PubSubProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(2);
+    private Server server;
+    private ManagedChannel channel;
+    private PubSubTransport transport;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String name = InProcessServerBuilder.generateName();
+        AtomicInteger messageIds = new AtomicInteger();
+        server = InProcessServerBuilder.forName(name)
+                .addService(ServerServiceDefinition.builder("google.pubsub.v1.Publisher")
+                        .addMethod(PUBLISH, ServerCalls.asyncUnaryCall(
+                                (PublishRequest request, StreamObserver<PublishResponse> response) ->
+                                        acknowledge(request, response, messageIds)))
+                        .build())
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).build();
+        properties.setEvictionInterval(Duration.ofMillis(20));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (transport != null) {
+            transport.shutdown();
+        }
+        channel.shutdownNow();
+        server.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void prewarmedPublishersStayWhileIdleOnesAreEvicted() throws Exception {
+        properties.setPrewarmTopics(List.of("orders"));
+        properties.setIdleTimeout(Duration.ofMillis(50));
+        transport = transport();
+
+        transport.prewarm();
+        assertThat(livePublishers()).isEqualTo(1);
+        assertThat(transport.publish("payments", message("")).get(5, TimeUnit.SECONDS)).startsWith("id-");
+        assertThat(livePublishers()).isEqualTo(2);
+
+        await(() -> livePublishers() == 1);
+        Thread.sleep(100);
+        assertThat(livePublishers()).isEqualTo(1);
+        assertThat(transport.publish("payments", message("")).get(5, TimeUnit.SECONDS)).startsWith("id-");
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedPublishersBeyondTheCap() throws Exception {
+        properties.setIdleTimeout(Duration.ZERO);
+        properties.setMaxPublishers(2);
+        transport = transport();
+
+        for (String topic : List.of("a", "b", "c")) {
+            transport.publish(topic, message("")).get(5, TimeUnit.SECONDS);
+        }
+
+        await(() -> livePublishers() == 2);
+    }
+
+    @Test
+    void topicSettingsOverrideTheDefaultsFieldByField() {
+        properties.getDefaults().setElementCountThreshold(50L);
+        properties.getDefaults().setDelayThreshold(Duration.ofMillis(10));
+        TopicSettings orders = new TopicSettings();
+        orders.setElementCountThreshold(500L);
+        orders.setEnableMessageOrdering(false);
+        properties.getTopics().put("orders", orders);
+
+        BatchingSettings ordersBatching = PubSubTransport.batchingSettings(properties.settingsFor("orders"));
+        BatchingSettings paymentsBatching = PubSubTransport.batchingSettings(properties.settingsFor("payments"));
+
+        assertThat(ordersBatching.getElementCountThreshold()).isEqualTo(500L);
+        assertThat(ordersBatching.getDelayThresholdDuration()).isEqualTo(Duration.ofMillis(10));
+        assertThat(ordersBatching.getRequestByteThreshold()).isEqualTo(1000L);
+        assertThat(ordersBatching.getFlowControlSettings().getLimitExceededBehavior())
+                .isEqualTo(FlowController.LimitExceededBehavior.Ignore);
+        assertThat(paymentsBatching.getElementCountThreshold()).isEqualTo(50L);
+    }
+
+    @Test
+    void messageOrderingCanBeTurnedOffPerTopic() throws Exception {
+        TopicSettings orders = new TopicSettings();
+        orders.setEnableMessageOrdering(false);
+        properties.getTopics().put("orders", orders);
+        transport = transport();
+
+        assertThat(transport.supportsOrdering("orders")).isFalse();
+        assertThat(transport.supportsOrdering("payments")).isTrue();
+        assertThat(transport.publish("payments", message("k1")).get(5, TimeUnit.SECONDS)).startsWith("id-");
+        assertThatThrownBy(() -> transport.publish("orders", message("k1")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private PubSubTransport transport() {
+        return new PubSubTransport("test-project", properties,
+                FixedTransportChannelProvider.create(GrpcTransportChannel.create(channel)),
+                NoCredentialsProvider.create(), FixedExecutorProvider.create(executor), meterRegistry);
+    }
+
+    private double livePublishers() {
+        return meterRegistry.get("reggie.pubsub.publishers").gauge().value();
+    }
+
+    private static PubsubMessage message(String orderingKey) {
+        return PubsubMessage.newBuilder().setOrderingKey(orderingKey).build();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).as("condition met").isTrue();
+    }
+
+    private static void acknowledge(PublishRequest request, StreamObserver<PublishResponse> response,
+                                    AtomicInteger messageIds) {
+        PublishResponse.Builder acknowledged = PublishResponse.newBuilder();
+        request.getMessagesList().forEach(message -> acknowledged.addMessageIds("id-" + messageIds.incrementAndGet()));
+        response.onNext(acknowledged.build());
+        response.onCompleted();
+    }
+}
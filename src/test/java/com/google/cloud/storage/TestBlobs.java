@@ -0,0 +1,21 @@
+package com.google.cloud.storage;
+
+/**
+ * Builds real {@link Blob}s for a fake {@link Storage}; the constructors and the
+ * metageneration and size setters are package-private.
+ */
+public final class TestBlobs {
+
+    private TestBlobs() {
+    }
+
+    /**
+     * @param info carries the generation in its {@link BlobId}
+     */
+    public static Blob blob(Storage storage, BlobInfo info, long metageneration, long size) {
+        BlobInfo.BuilderImpl builder = new BlobInfo.BuilderImpl(info);
+        builder.setMetageneration(metageneration);
+        builder.setSize(size);
+        return new Blob(storage, builder);
+    }
+}